@@ -0,0 +1,138 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Regression check for garbage in the game loop. Plays seeded headless games on one reused
+ * {@link GameContext} and measures the bytes the playing thread allocates with the thread allocation
+ * counter of the JVM ({@code com.sun.management.ThreadMXBean#getThreadAllocatedBytes}).
+ * Games are warmed up first, so the JIT has compiled the loop before it is measured.
+ *
+ * The report gives the bytes per turn and per game; the program exits with status 1 when the bytes per
+ * turn exceed the budget, so it can guard a build.
+ */
+public final class AllocationBudget {
+    /** Bytes per turn allowed by default; the classic board needs about 190 (mostly the movable-figure lists). */
+    public static final long DEFAULT_BYTES_PER_TURN = 256;
+    private static final int WARMUP_GAMES = 2_000;
+
+    private final int playerCount;
+    private final int figuresPerPlayer;
+    private final I_PlayerFactory[] seats;
+
+    /**
+     * Create a harness for a configuration.
+     *
+     * @param playerCount players per game
+     * @param figuresPerPlayer figures per player
+     * @param seats factories of the seats, see {@link GameContextPool}
+     */
+    public AllocationBudget(int playerCount, int figuresPerPlayer, I_PlayerFactory... seats) {
+        this.playerCount = playerCount;
+        this.figuresPerPlayer = figuresPerPlayer;
+        this.seats = seats;
+    }
+
+    /**
+     * Measured allocation of a number of games.
+     */
+    public static final class Report {
+        private final long games;
+        private final long turns;
+        private final long bytes;
+
+        Report(long games, long turns, long bytes) {
+            this.games = games;
+            this.turns = turns;
+            this.bytes = bytes;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getTurns() {
+            return turns;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public double getBytesPerTurn() {
+            return (double) bytes / turns;
+        }
+
+        public double getBytesPerGame() {
+            return (double) bytes / games;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d games, %d turns: %.1f bytes/turn, %.0f bytes/game", games, turns,
+                    getBytesPerTurn(), getBytesPerGame());
+        }
+    }
+
+    /**
+     * Warm up, then play the games {@code seed .. seed + games - 1} and measure their allocation.
+     *
+     * @param games number of measured games
+     * @param seed seed of the first measured game
+     * @return the measurement
+     * @throws UnsupportedOperationException if the JVM cannot count allocated bytes per thread
+     */
+    public Report measure(int games, long seed) {
+        if (games <= 0) throw new IllegalArgumentException("games must be positive");
+        com.sun.management.ThreadMXBean threads = getThreadBean();
+        // the context is created before counting: only the per-game and per-turn path is measured
+        GameContext context = new GameContextPool(playerCount, figuresPerPlayer, 0, seats).acquire();
+        for (int game = 0; game < WARMUP_GAMES; game++) {
+            context.play(seed - WARMUP_GAMES + game);
+        }
+        long thread = Thread.currentThread().getId();
+        long turns = 0;
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int game = 0; game < games; game++) {
+            turns += context.play(seed + game).getTurns();
+        }
+        long bytes = threads.getThreadAllocatedBytes(thread) - before;
+        return new Report(games, turns, bytes);
+    }
+
+    /**
+     * Get the thread bean with the per-thread allocation counters switched on.
+     *
+     * @return the bean
+     * @throws UnsupportedOperationException if the JVM cannot count allocated bytes per thread
+     */
+    static com.sun.management.ThreadMXBean getThreadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            throw new UnsupportedOperationException("Thread allocation counters are not available on this JVM");
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            throw new UnsupportedOperationException("Thread allocation counters are not supported on this JVM");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    /**
+     * Measure the allocation of {@link PlayerPC} games and check it against a budget.
+     * Usage: {@code AllocationBudget [games] [players] [figures] [maxBytesPerTurn]}
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int figures = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        long budget = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_BYTES_PER_TURN;
+
+        Report report = new AllocationBudget(players, figures).measure(games, 0);
+        System.out.println(report);
+        if (report.getBytesPerTurn() > budget) {
+            System.out.printf("FAILED: %.1f bytes/turn exceed the budget of %d bytes/turn%n", report.getBytesPerTurn(), budget);
+            System.exit(1);
+        }
+        System.out.printf("OK: within the budget of %d bytes/turn%n", budget);
+    }
+}
@@ -0,0 +1,247 @@
+/**
+ * Plays many games in lockstep on a {@link CompactBoards} storage.
+ * Each call to {@link #playTurn()} advances every unfinished game by one turn in tight loops:
+ * first roll permission and bulk dice generation for all games still in their turn, then move
+ * generation, then move application. Games without a legal move roll again in the next pass.
+ *
+ * Turn handling follows {@link GameManager#runGame()} with {@link RuleSetStandard}: up to 3 rolls
+ * while all figures are in the house, otherwise rolling until a figure can move, one move per turn,
+ * and a win once all figures of the player are in the goal. Figures are chosen uniformly among the
+ * movable figures like {@link PlayerPC}. Every game has its own seeded random generator, so the
+ * outcome of a game only depends on the simulator seed and the game slot. The turn rules and the
+ * generators are those of {@link CompactTurns}.
+ */
+public class BatchSimulator {
+    private static final int BLOCK_SIZE = 4096; // games per block in runToCompletion
+
+    private final CompactBoards boards;
+    private final int gameCount;
+    private final int playerCount;
+    private final byte[] currentPlayers;
+    private final byte[] rollsThisTurn;
+    private final int[] turns;
+    private final byte[] winners;
+    private final long[] randomStates;
+    // working arrays for one pass, indexed by position in the turn queue
+    private final int[] active;
+    private final int[] turnQueue;
+    private final int[] rolls;
+    private final int[] masks;
+    private int activeCount;
+
+    /**
+     * Create a simulator with {@code gameCount} fresh games.
+     *
+     * @param topology board configuration of all games
+     * @param gameCount number of games played in lockstep
+     * @param seed seed from which the per-game random generators are derived
+     */
+    public BatchSimulator(BoardTopology topology, int gameCount, long seed) {
+        this.boards = new CompactBoards(topology, gameCount);
+        this.gameCount = gameCount;
+        this.playerCount = topology.getPlayerCount();
+        this.currentPlayers = new byte[gameCount];
+        this.rollsThisTurn = new byte[gameCount];
+        this.turns = new int[gameCount];
+        this.winners = new byte[gameCount];
+        this.randomStates = new long[gameCount];
+        this.active = new int[gameCount];
+        this.turnQueue = new int[gameCount];
+        this.rolls = new int[gameCount];
+        this.masks = new int[gameCount];
+        for (int g = 0; g < gameCount; g++) {
+            this.winners[g] = -1;
+            this.randomStates[g] = CompactTurns.mix64(CompactTurns.mix64(seed) + g);
+            this.active[g] = g;
+        }
+        this.activeCount = gameCount;
+    }
+
+    /**
+     * Continue a game from a given position instead of the start, e.g. for rollouts of an analysed position.
+     * Must be called before the first turn is played.
+     *
+     * @param game slot of this simulator
+     * @param source storage holding the position, with the same topology as this simulator
+     * @param sourceGame slot of the position in {@code source}
+     * @param player player to move
+     * @param rolls rolls the player has already taken in this turn (only limited while all figures are in the house)
+     */
+    public void setPosition(int game, CompactBoards source, int sourceGame, int player, int rolls) {
+        if (activeCount != gameCount) throw new IllegalStateException("Positions must be set before playing");
+        if (player < 0 || player >= playerCount) throw new IllegalArgumentException("player out of range: " + player);
+        if (rolls < 0 || rolls > RuleSetStandard.MAX_ROLLS_ALL_IN_HOUSE) throw new IllegalArgumentException("rolls out of range: " + rolls);
+        source.copyGame(sourceGame, boards, game);
+        currentPlayers[game] = (byte) player;
+        rollsThisTurn[game] = (byte) rolls;
+        turns[game] = 0;
+        winners[game] = -1;
+    }
+
+    /**
+     * Advance every unfinished game by one turn.
+     *
+     * @return number of games still unfinished afterwards
+     */
+    public int playTurn() {
+        this.activeCount = playTurn(0, this.activeCount);
+        return this.activeCount;
+    }
+
+    /**
+     * Play turns until every game has a winner. Games are processed in blocks that fit into the
+     * CPU caches; each block is played in lockstep until all of its games are finished.
+     * Blocks are independent and are spread over the common fork/join pool.
+     */
+    public void runToCompletion() {
+        int total = this.activeCount;
+        int blocks = (total + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        java.util.stream.IntStream.range(0, blocks).parallel().forEach(block -> {
+            int from = block * BLOCK_SIZE;
+            int count = Math.min(BLOCK_SIZE, total - from);
+            while (count > 0) {
+                count = playTurn(from, count);
+            }
+        });
+        this.activeCount = 0;
+    }
+
+    /**
+     * Advance the games {@code active[from..from+count)} by one turn and compact finished games
+     * to the start of that range. Only the range {@code [from, from+count)} of the working arrays
+     * is touched, so disjoint ranges can be played concurrently.
+     *
+     * @return number of unfinished games left in the range
+     */
+    private int playTurn(int from, int count) {
+        int end = from + count;
+        System.arraycopy(this.active, from, this.turnQueue, from, count);
+        while (end > from) {
+            // Pass 1: roll permission (3-roll rule) and bulk dice generation
+            int rolling = from;
+            for (int i = from; i < end; i++) {
+                int g = turnQueue[i];
+                int counted = CompactTurns.countRoll(boards, g, currentPlayers[g], rollsThisTurn[g]);
+                if (counted < 0) {
+                    rollsThisTurn[g] = 0;
+                    finishTurn(g);
+                    continue;
+                }
+                rollsThisTurn[g] = (byte) counted;
+                turnQueue[rolling++] = g;
+            }
+            for (int i = from; i < rolling; i++) {
+                rolls[i] = CompactTurns.nextInt(randomStates, turnQueue[i], 6) + 1;
+            }
+            // Pass 2: move generation
+            for (int i = from; i < rolling; i++) {
+                int g = turnQueue[i];
+                masks[i] = boards.getMovableMask(g, currentPlayers[g], rolls[i]);
+            }
+            // Pass 3: move application; games without a movable figure roll again
+            int next = from;
+            for (int i = from; i < rolling; i++) {
+                int g = turnQueue[i];
+                int mask = masks[i];
+                if (mask == 0) {
+                    turnQueue[next++] = g;
+                    continue;
+                }
+                int figure = CompactTurns.pickUniform(randomStates, g, mask);
+                boards.applyMove(g, currentPlayers[g], figure, rolls[i]);
+                rollsThisTurn[g] = 0;
+                finishTurn(g);
+            }
+            end = next;
+        }
+        // Drop finished games from the active range
+        int remaining = 0;
+        for (int i = from; i < from + count; i++) {
+            int g = this.active[i];
+            if (winners[g] < 0) this.active[from + remaining++] = g;
+        }
+        return remaining;
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    public int getUnfinishedCount() {
+        return activeCount;
+    }
+
+    /**
+     * Get the id of the winning player of a game, or {@code -1} while it is running.
+     */
+    public int getWinner(int game) {
+        return winners[game];
+    }
+
+    /**
+     * Get the number of completed turns of a game.
+     */
+    public int getTurns(int game) {
+        return turns[game];
+    }
+
+    public CompactBoards getBoards() {
+        return boards;
+    }
+
+    /**
+     * Get the number of array bytes used per game, including turn state and working arrays.
+     *
+     * @return bytes per game
+     */
+    public int getBytesPerGame() {
+        // current player, rolls, winner (bytes); turns, active, queue, roll, mask (ints); random state (long)
+        return boards.getBytesPerGame() + 3 + 5 * Integer.BYTES + Long.BYTES;
+    }
+
+    private void finishTurn(int game) {
+        turns[game]++;
+        int p = currentPlayers[game];
+        if (boards.isAllInGoal(game, p)) {
+            winners[game] = (byte) p;
+        } else {
+            currentPlayers[game] = (byte) ((p + 1) % playerCount);
+        }
+    }
+
+    /**
+     * Compare the batch engine with one {@link GameManager} per game.
+     * Usage: {@code BatchSimulator [players] [figures] [games]}
+     */
+    public static void main(String[] args) {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int figures = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+        BoardTopology topology = BoardGenerator.shared(players, 0, figures);
+
+        long start = System.nanoTime();
+        BatchSimulator batch = new BatchSimulator(topology, games, 42);
+        batch.runToCompletion();
+        double batchSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("BatchSimulator: %d games in %.2f s (%.0f games/s, %d bytes/game)%n",
+                games, batchSeconds, games / batchSeconds, batch.getBytesPerGame());
+
+        int objectGames = Math.max(1, Math.min(games, 20_000));
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+        GameManager[] managers = new GameManager[objectGames];
+        start = System.nanoTime();
+        for (int i = 0; i < objectGames; i++) {
+            managers[i] = new GameManager(players, figures, 0, new VisualNone());
+        }
+        System.gc();
+        long bytesPerManager = (runtime.totalMemory() - runtime.freeMemory() - usedBefore) / objectGames;
+        for (int i = 0; i < objectGames; i++) {
+            managers[i].runGame();
+        }
+        double objectSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("GameManager:    %d games in %.2f s (%.0f games/s, ~%d bytes/game)%n",
+                objectGames, objectSeconds, objectGames / objectSeconds, bytesPerManager);
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Generates {@link BoardTopology} instances for any number of players.
+ * The ring length per player and the number of figures per player are configurable.
+ * The classic 4-player board keeps its cross shaped layout, every other configuration
+ * gets a generated layout with one row per player.
+ */
+public class BoardGenerator {
+    public static final int PLAYER_COUNT_MAX = 16;
+    // A figure entering the goal reaches at most goal field 5 with a single roll and figures in the
+    // goal do not move on, so with more figures the last goal fields could never be filled.
+    public static final int FIGURES_PER_PLAYER_MAX = 6;
+    private static final int CLASSIC_PLAYERS = 4;
+    private static final int CLASSIC_FIELDS_PER_PLAYER = 10;
+    private static final int CLASSIC_FIGURES_MAX = 4;
+
+    // Classic 11x11 board. Cells: F<field>, H<player><figure>, G<player><figure>, "-" for blank.
+    private static final String[][] CLASSIC_LAYOUT = {
+        {"H10", "H11", "-",   "-",   "F18", "F19", "F20", "-",   "-",   "H22", "H20"},
+        {"H12", "H13", "-",   "-",   "F17", "G20", "F21", "-",   "-",   "H23", "H21"},
+        {"-",   "-",   "-",   "-",   "F16", "G21", "F22", "-",   "-",   "-",   "-"  },
+        {"-",   "-",   "-",   "-",   "F15", "G22", "F23", "-",   "-",   "-",   "-"  },
+        {"F10", "F11", "F12", "F13", "F14", "G23", "F24", "F25", "F26", "F27", "F28"},
+        {"F9",  "G10", "G11", "G12", "G13", "-",   "G33", "G32", "G31", "G30", "F29"},
+        {"F8",  "F7",  "F6",  "F5",  "F4",  "G03", "F34", "F33", "F32", "F31", "F30"},
+        {"-",   "-",   "-",   "-",   "F3",  "G02", "F35", "-",   "-",   "-",   "-"  },
+        {"-",   "-",   "-",   "-",   "F2",  "G01", "F36", "-",   "-",   "-",   "-"  },
+        {"H01", "H03", "H05", "-",   "F1",  "G00", "F37", "-",   "-",   "H33", "H32"},
+        {"H00", "H02", "H04", "-",   "F0",  "F39", "F38", "-",   "-",   "H31", "H30"},
+    };
+
+    // Topologies are immutable, so every game with the same configuration can share one instance
+    private static final java.util.concurrent.ConcurrentHashMap<Long, BoardTopology> SHARED =
+            new java.util.concurrent.ConcurrentHashMap<>();
+
+    private final int playerCount;
+    private final int fieldsPerPlayer;
+    private final int figuresPerPlayer;
+
+    /**
+     * Create a generator for the given configuration.
+     *
+     * @param playerCount number of players (1..{@value #PLAYER_COUNT_MAX})
+     * @param fieldsPerPlayer ring fields between two start fields; 0 selects {@link #defaultFieldsPerPlayer(int)}
+     * @param figuresPerPlayer figures per player (1..{@value #FIGURES_PER_PLAYER_MAX})
+     */
+    public BoardGenerator(int playerCount, int fieldsPerPlayer, int figuresPerPlayer) {
+        if (playerCount <= 0 || playerCount > PLAYER_COUNT_MAX) {
+            throw new IllegalArgumentException("playerCount must be between 1 and " + PLAYER_COUNT_MAX);
+        }
+        if (figuresPerPlayer <= 0 || figuresPerPlayer > FIGURES_PER_PLAYER_MAX) {
+            throw new IllegalArgumentException("figuresPerPlayer must be between 1 and " + FIGURES_PER_PLAYER_MAX);
+        }
+        if (fieldsPerPlayer == 0) fieldsPerPlayer = defaultFieldsPerPlayer(playerCount);
+        // A player must be able to leave its start field before the next player's start field
+        if (fieldsPerPlayer < 2) {
+            throw new IllegalArgumentException("fieldsPerPlayer must be at least 2");
+        }
+        this.playerCount = playerCount;
+        this.fieldsPerPlayer = fieldsPerPlayer;
+        this.figuresPerPlayer = figuresPerPlayer;
+    }
+
+    /**
+     * Ring fields per player used when no ring length is configured: 10 per player up to 4 players (the
+     * classic 40-field ring for 4 players) and 8 per player beyond that. For 6 players this is the 48-field
+     * ring of {@link RuleSetStandard#getNumFields()}; 5 players get a 40-field ring instead of 48 fields,
+     * which cannot be split equally among 5 start fields.
+     *
+     * @param playerCount number of players
+     * @return fields between two start fields
+     */
+    public static int defaultFieldsPerPlayer(int playerCount) {
+        return playerCount <= CLASSIC_PLAYERS ? CLASSIC_FIELDS_PER_PLAYER : 8;
+    }
+
+    /**
+     * Generate the topology including path tables and render layout.
+     *
+     * @return a new immutable topology
+     */
+    public BoardTopology generate() {
+        return new BoardTopology(playerCount, fieldsPerPlayer, figuresPerPlayer, createPathTables(), createLayout());
+    }
+
+    /**
+     * Get the shared topology of a configuration, generating it on first use.
+     * Games with the same configuration then share path tables and render layout.
+     *
+     * @param playerCount number of players (1..{@value #PLAYER_COUNT_MAX})
+     * @param fieldsPerPlayer ring fields between two start fields; 0 selects {@link #defaultFieldsPerPlayer(int)}
+     * @param figuresPerPlayer figures per player (1..{@value #FIGURES_PER_PLAYER_MAX})
+     * @return the topology shared by all callers asking for this configuration
+     */
+    public static BoardTopology shared(int playerCount, int fieldsPerPlayer, int figuresPerPlayer) {
+        BoardGenerator generator = new BoardGenerator(playerCount, fieldsPerPlayer, figuresPerPlayer);
+        long key = ((long) generator.fieldsPerPlayer << 16) | (generator.playerCount << 8) | generator.figuresPerPlayer;
+        BoardTopology topology = SHARED.get(key);
+        return topology != null ? topology : SHARED.computeIfAbsent(key, k -> generator.generate());
+    }
+
+    /**
+     * Check a board configuration, e.g. in constructors that set up their games later, so an invalid
+     * configuration fails at construction instead of on a worker thread.
+     *
+     * @param playerCount number of players
+     * @param fieldsPerPlayer ring fields between two start fields, 0 for the default
+     * @param figuresPerPlayer figures per player
+     * @throws IllegalArgumentException if no board can be generated for the configuration
+     */
+    public static void checkConfiguration(int playerCount, int fieldsPerPlayer, int figuresPerPlayer) {
+        shared(playerCount, fieldsPerPlayer, figuresPerPlayer);
+    }
+
+    private int[][] createPathTables() {
+        int ringSize = playerCount * fieldsPerPlayer;
+        int[][] tables = new int[playerCount][ringSize + figuresPerPlayer];
+        for (int p = 0; p < playerCount; p++) {
+            int start = p * fieldsPerPlayer;
+            for (int k = 0; k < ringSize; k++) {
+                tables[p][k] = (start + k) % ringSize;
+            }
+            for (int g = 0; g < figuresPerPlayer; g++) {
+                // same index convention as the goal fields created by Player
+                tables[p][ringSize + g] = -100 - g;
+            }
+        }
+        return tables;
+    }
+
+    private String[][] createLayout() {
+        if (playerCount == CLASSIC_PLAYERS && fieldsPerPlayer == CLASSIC_FIELDS_PER_PLAYER
+                && figuresPerPlayer <= CLASSIC_FIGURES_MAX) {
+            return CLASSIC_LAYOUT;
+        }
+        // One row per player: houses | ring segment starting at the player's start field | goals
+        int width = figuresPerPlayer + 1 + fieldsPerPlayer + 1 + figuresPerPlayer;
+        String[][] layout = new String[playerCount][width];
+        for (int p = 0; p < playerCount; p++) {
+            int col = 0;
+            for (int f = 0; f < figuresPerPlayer; f++) layout[p][col++] = "H" + p + "." + f;
+            layout[p][col++] = "-";
+            for (int i = 0; i < fieldsPerPlayer; i++) layout[p][col++] = "F" + (p * fieldsPerPlayer + i);
+            layout[p][col++] = "-";
+            for (int g = 0; g < figuresPerPlayer; g++) layout[p][col++] = "G" + p + "." + g;
+        }
+        return layout;
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Immutable description of a board configuration produced by {@link BoardGenerator}.
+ * Holds the ring size, the start index of every player, one path table per player and
+ * the render layout used by {@link VisualASCII}. A topology holds no game state, so it can
+ * be shared by any number of games using the same configuration.
+ *
+ * Positions on a player's path are expressed as "progress": {@code -1} is the house,
+ * {@code 0..ringSize-1} are ring fields counted from the player's start field and
+ * {@code ringSize..ringSize+figuresPerPlayer-1} are the player's goal fields.
+ */
+public final class BoardTopology {
+    /** Progress value of a figure standing in its house. */
+    public static final int HOUSE = -1;
+
+    private final int playerCount;
+    private final int fieldsPerPlayer;
+    private final int figuresPerPlayer;
+    private final int ringSize;
+    private final int[] startIndices;
+    private final int[][] pathTables;
+    private final String[][] layout;
+
+    BoardTopology(int playerCount, int fieldsPerPlayer, int figuresPerPlayer, int[][] pathTables, String[][] layout) {
+        this.playerCount = playerCount;
+        this.fieldsPerPlayer = fieldsPerPlayer;
+        this.figuresPerPlayer = figuresPerPlayer;
+        this.ringSize = playerCount * fieldsPerPlayer;
+        this.startIndices = new int[playerCount];
+        for (int p = 0; p < playerCount; p++) {
+            this.startIndices[p] = p * fieldsPerPlayer;
+        }
+        this.pathTables = pathTables;
+        this.layout = layout;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getFieldsPerPlayer() {
+        return fieldsPerPlayer;
+    }
+
+    public int getFiguresPerPlayer() {
+        return figuresPerPlayer;
+    }
+
+    /**
+     * Get the number of ring fields shared by all players.
+     *
+     * @return ring size
+     */
+    public int getRingSize() {
+        return ringSize;
+    }
+
+    /**
+     * Get the length of every player's path (ring fields plus goal fields).
+     *
+     * @return path length
+     */
+    public int getPathLength() {
+        return ringSize + figuresPerPlayer;
+    }
+
+    public int getStartIndex(int player) {
+        return startIndices[player];
+    }
+
+    /**
+     * Get the path table of a player. Entry {@code k} is the index of the {@link Field} reached
+     * at progress {@code k}: ring indices for the ring part, {@code -100 - i} for goal field {@code i}
+     * (the same indices {@link Player} assigns to its goal fields).
+     * The returned array is shared and must not be modified.
+     *
+     * @param player player id
+     * @return field indices along the player's path
+     */
+    public int[] getPathTable(int player) {
+        return pathTables[player];
+    }
+
+    /**
+     * Get the render layout. Cells are {@code "-"} for blank cells, {@code "F<index>"} for ring
+     * fields, {@code "H<player><figure>"}/{@code "G<player><figure>"} for the classic 4-player layout and
+     * {@code "H<player>.<figure>"}/{@code "G<player>.<figure>"} for generated layouts.
+     * The returned array is shared and must not be modified.
+     *
+     * @return layout rows
+     */
+    public String[][] getLayout() {
+        return layout;
+    }
+
+    /**
+     * Convert a ring index into the progress of the given player.
+     *
+     * @param player player id
+     * @param ringIndex index of a ring field (0..ringSize-1)
+     * @return progress along the player's path
+     */
+    public int getProgress(int player, int ringIndex) {
+        int progress = ringIndex - startIndices[player];
+        return progress < 0 ? progress + ringSize : progress;
+    }
+
+    /**
+     * Convert the field a figure of the given player stands on into that player's progress.
+     *
+     * @param player owner of the figure
+     * @param field house, ring or goal field
+     * @return progress along the player's path
+     */
+    public int getProgress(int player, Field field) {
+        if (field.isHouse()) return HOUSE;
+        if (field.isGoal()) return ringSize + (-100 - field.getIndex());
+        return getProgress(player, field.getIndex());
+    }
+
+    /**
+     * Convert a progress value of the given player back into a ring index.
+     *
+     * @param player player id
+     * @param progress ring progress (0..ringSize-1)
+     * @return ring index
+     */
+    public int getRingIndex(int player, int progress) {
+        int index = startIndices[player] + progress;
+        return index >= ringSize ? index - ringSize : index;
+    }
+
+    /**
+     * Compute the progress reached after moving {@code steps} fields, following the semantics of
+     * {@link Field#getDestination(int, boolean)}: a house figure goes to its start field, moves that
+     * fit into the goal enter it, and moves overshooting the last goal field keep circling the ring.
+     * Figures already in the goal stay where they are.
+     *
+     * @param progress current progress ({@link #HOUSE} for the house)
+     * @param steps number of steps, must be positive
+     * @return progress after the move
+     */
+    public int getDestinationProgress(int progress, int steps) {
+        if (progress == HOUSE) return 0;
+        int target = progress + steps;
+        if (target < ringSize + figuresPerPlayer) return target;
+        if (progress >= ringSize) return progress;
+        return target % ringSize;
+    }
+
+    /**
+     * Create a fresh, linked ring of {@link Field}s for one game on this board.
+     * Start fields of all players are typed {@link FieldType#START}.
+     *
+     * @return the ring fields, indexed by ring index
+     */
+    public Field[] createFields() {
+        Field[] fields = new Field[ringSize];
+        for (int i = 0; i < ringSize; i++) {
+            fields[i] = new Field(i, i % fieldsPerPlayer == 0 ? FieldType.START : FieldType.NORMAL);
+        }
+        // Link fields into a circular list; the last field points back to the first.
+        for (int i = 0; i < ringSize; i++) {
+            fields[i].setNext(fields[(i + 1) % ringSize]);
+        }
+        return fields;
+    }
+}
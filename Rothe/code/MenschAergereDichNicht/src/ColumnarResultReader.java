@@ -0,0 +1,317 @@
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.stream.IntStream;
+
+/**
+ * Reads result files written by {@link ColumnarResultWriter}. Every block is memory mapped, so columns are
+ * read straight from the page cache without parsing. Scans filter on one column: blocks whose minimum and
+ * maximum show that no row can match are skipped without touching their data, and the remaining blocks
+ * are scanned in parallel on the common fork/join pool.
+ *
+ * Columns are addressed by index; {@link #getColumn(String)} resolves names like {@code "turns"},
+ * {@code "rolls[2]"} or {@code "captures[0][1]"}.
+ */
+public final class ColumnarResultReader implements AutoCloseable {
+    private final FileChannel channel;
+    private final GameResultCodec codec;
+    private final int columnCount;
+    private final List<MappedByteBuffer> blocks = new ArrayList<>();
+    private final long[] blockStarts; // first row of each block, for row access
+    private final long rowCount;
+
+    private ColumnarResultReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer prefix = ByteBuffer.allocate(2 * Integer.BYTES);
+            readFully(prefix, 0);
+            if (prefix.getInt(0) != ColumnarResultWriter.FILE_MAGIC) throw new IOException("Not a result file: " + file);
+            ByteBuffer header = ByteBuffer.allocate(prefix.getInt(Integer.BYTES));
+            readFully(header, prefix.capacity());
+            this.codec = GameResultCodec.readHeader(new DataInputStream(new ByteArrayInputStream(header.array())));
+            this.columnCount = ResultColumns.getCount(codec.getPlayerCount());
+            int rowWidth = 0;
+            for (int c = 0; c < columnCount; c++) {
+                rowWidth += ResultColumns.getWidth(c);
+            }
+            long size = channel.size();
+            long position = prefix.capacity() + header.capacity();
+            ByteBuffer rows = ByteBuffer.allocate(Integer.BYTES);
+            List<Long> starts = new ArrayList<>();
+            long count = 0;
+            while (position < size) {
+                rows.clear();
+                readFully(rows, position);
+                long blockSize = ColumnarResultWriter.getBlockHeaderSize(columnCount) + (long) rows.getInt(0) * rowWidth;
+                if (position + blockSize > size) throw new IOException("Truncated result file: " + file);
+                blocks.add(channel.map(FileChannel.MapMode.READ_ONLY, position, blockSize));
+                starts.add(count);
+                count += rows.getInt(0);
+                position += blockSize;
+            }
+            this.blockStarts = starts.stream().mapToLong(Long::longValue).toArray();
+            this.rowCount = count;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Open and map a result file.
+     *
+     * @param file result file
+     * @return the reader
+     * @throws IOException if the file cannot be read or is not a result file
+     */
+    public static ColumnarResultReader open(Path file) throws IOException {
+        return new ColumnarResultReader(file);
+    }
+
+    /**
+     * Get the configuration and strategies of all rows.
+     *
+     * @return codec describing the results
+     */
+    public GameResultCodec getCodec() {
+        return codec;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public String getColumnName(int column) {
+        return ResultColumns.getName(codec.getPlayerCount(), column);
+    }
+
+    /**
+     * Look up a column by name.
+     *
+     * @param name column name, e.g. {@code "winner"} or {@code "houseExits[1]"}
+     * @return column index
+     */
+    public int getColumn(String name) {
+        for (int c = 0; c < columnCount; c++) {
+            if (getColumnName(c).equals(name)) return c;
+        }
+        throw new IllegalArgumentException("Unknown column: " + name);
+    }
+
+    /**
+     * Read a single value.
+     *
+     * @param column column index
+     * @param row row index, 0 to {@link #getRowCount()} - 1
+     * @return the value
+     */
+    public long getValue(int column, long row) {
+        if (row < 0 || row >= rowCount) throw new IllegalArgumentException("Row out of range: " + row);
+        int low = 0;
+        int high = blocks.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (blockStarts[mid] <= row) low = mid;
+            else high = mid - 1;
+        }
+        return getValue(blocks.get(low), column, (int) (row - blockStarts[low]));
+    }
+
+    /**
+     * Count the rows whose filter column lies in {@code [min, max]}.
+     *
+     * @param filterColumn column to filter on
+     * @param min smallest accepted value
+     * @param max largest accepted value
+     * @return number of matching rows
+     */
+    public long count(int filterColumn, long min, long max) {
+        return aggregate(filterColumn, filterColumn, min, max).getCount();
+    }
+
+    /**
+     * Aggregate a column over all rows whose filter column lies in {@code [min, max]}.
+     *
+     * @param column column to aggregate
+     * @param filterColumn column to filter on
+     * @param min smallest accepted value of the filter column
+     * @param max largest accepted value of the filter column
+     * @return count, sum, minimum and maximum of the matching values
+     */
+    public LongSummaryStatistics aggregate(int column, int filterColumn, long min, long max) {
+        checkColumn(column);
+        checkColumn(filterColumn);
+        return IntStream.range(0, blocks.size()).parallel()
+                .mapToObj(b -> aggregateBlock(blocks.get(b), column, filterColumn, min, max))
+                .collect(LongSummaryStatistics::new, LongSummaryStatistics::combine, LongSummaryStatistics::combine);
+    }
+
+    /**
+     * Aggregate a column over all rows.
+     *
+     * @param column column to aggregate
+     * @return count, sum, minimum and maximum of the column
+     */
+    public LongSummaryStatistics aggregate(int column) {
+        return aggregate(column, column, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Count how often each value {@code 0 .. valueCount - 1} of a column occurs in the rows whose filter
+     * column lies in {@code [min, max]}, e.g. the wins per seat. Other values are not counted.
+     *
+     * @param column column to count
+     * @param valueCount number of counted values
+     * @param filterColumn column to filter on
+     * @param min smallest accepted value of the filter column
+     * @param max largest accepted value of the filter column
+     * @return number of rows per value
+     */
+    public long[] countValues(int column, int valueCount, int filterColumn, long min, long max) {
+        checkColumn(column);
+        checkColumn(filterColumn);
+        if (valueCount <= 0) throw new IllegalArgumentException("valueCount must be positive");
+        return IntStream.range(0, blocks.size()).parallel()
+                .mapToObj(b -> countBlockValues(blocks.get(b), column, valueCount, filterColumn, min, max))
+                .reduce(new long[valueCount], (a, b) -> {
+                    long[] sum = a.clone();
+                    for (int v = 0; v < valueCount; v++) {
+                        sum[v] += b[v];
+                    }
+                    return sum;
+                });
+    }
+
+    private long[] countBlockValues(ByteBuffer block, int column, int valueCount, int filterColumn, long min, long max) {
+        long[] counts = new long[valueCount];
+        long blockMin = getMin(block, filterColumn);
+        long blockMax = getMax(block, filterColumn);
+        if (blockMax < min || blockMin > max) return counts;
+        int rows = block.getInt(0);
+        boolean all = blockMin >= min && blockMax <= max;
+        int valueOffset = getColumnOffset(block, column);
+        int filterOffset = getColumnOffset(block, filterColumn);
+        int width = ResultColumns.getWidth(column);
+        int filterWidth = ResultColumns.getWidth(filterColumn);
+        for (int r = 0; r < rows; r++) {
+            if (!all) {
+                long filterValue = read(block, filterOffset, filterWidth, r);
+                if (filterValue < min || filterValue > max) continue;
+            }
+            long value = read(block, valueOffset, width, r);
+            if (value >= 0 && value < valueCount) counts[(int) value]++;
+        }
+        return counts;
+    }
+
+    private LongSummaryStatistics aggregateBlock(ByteBuffer block, int column, int filterColumn, long min, long max) {
+        LongSummaryStatistics statistics = new LongSummaryStatistics();
+        long blockMin = getMin(block, filterColumn);
+        long blockMax = getMax(block, filterColumn);
+        if (blockMax < min || blockMin > max) return statistics; // no row can match
+        int rows = block.getInt(0);
+        boolean all = blockMin >= min && blockMax <= max;
+        int valueOffset = getColumnOffset(block, column);
+        int filterOffset = getColumnOffset(block, filterColumn);
+        int width = ResultColumns.getWidth(column);
+        int filterWidth = ResultColumns.getWidth(filterColumn);
+        for (int r = 0; r < rows; r++) {
+            if (!all) {
+                long filterValue = read(block, filterOffset, filterWidth, r);
+                if (filterValue < min || filterValue > max) continue;
+            }
+            statistics.accept(read(block, valueOffset, width, r));
+        }
+        return statistics;
+    }
+
+    private long getValue(ByteBuffer block, int column, int row) {
+        checkColumn(column);
+        return read(block, getColumnOffset(block, column), ResultColumns.getWidth(column), row);
+    }
+
+    private static long read(ByteBuffer block, int offset, int width, int row) {
+        switch (width) {
+            case Long.BYTES:
+                return block.getLong(offset + row * Long.BYTES);
+            case 1:
+                return block.get(offset + row);
+            default:
+                return block.getInt(offset + row * Integer.BYTES);
+        }
+    }
+
+    private long getMin(ByteBuffer block, int column) {
+        return block.getLong(Integer.BYTES + column * 2 * Long.BYTES);
+    }
+
+    private long getMax(ByteBuffer block, int column) {
+        return block.getLong(Integer.BYTES + column * 2 * Long.BYTES + Long.BYTES);
+    }
+
+    private int getColumnOffset(ByteBuffer block, int column) {
+        int rows = block.getInt(0);
+        int offset = ColumnarResultWriter.getBlockHeaderSize(columnCount);
+        for (int c = 0; c < column; c++) {
+            offset += rows * ResultColumns.getWidth(c);
+        }
+        return offset;
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= columnCount) throw new IllegalArgumentException("Unknown column: " + column);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("Unexpected end of result file");
+        }
+    }
+
+    /**
+     * Close the file. Mapped blocks stay valid until they are garbage collected.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Print summary statistics of a result file, optionally only of rows with a column in a range.
+     * Usage: {@code ColumnarResultReader file [filterColumn min max]}, e.g. {@code results.mcr turns 0 199}
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "results.mcr");
+        try (ColumnarResultReader reader = open(file)) {
+            int filter = args.length > 3 ? reader.getColumn(args[1]) : ResultColumns.SEED;
+            long min = args.length > 3 ? Long.parseLong(args[2]) : Long.MIN_VALUE;
+            long max = args.length > 3 ? Long.parseLong(args[3]) : Long.MAX_VALUE;
+            long start = System.nanoTime();
+            long games = reader.count(filter, min, max);
+            System.out.printf("%d of %d games match%n", games, reader.getRowCount());
+            int players = reader.getCodec().getPlayerCount();
+            long[] wins = reader.countValues(ResultColumns.WINNER, players, filter, min, max);
+            for (int seat = 0; seat < players; seat++) {
+                System.out.printf("Seat %d (%s): %d wins%n", seat + 1, reader.getCodec().getStrategy(seat), wins[seat]);
+            }
+            LongSummaryStatistics turns = reader.aggregate(ResultColumns.TURNS, filter, min, max);
+            System.out.printf("Turns: min %d, mean %.1f, max %d%n", turns.getMin(), turns.getAverage(), turns.getMax());
+            System.out.printf("Scanned in %.2f s%n", (System.nanoTime() - start) / 1e9);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes {@link GameResult}s into a compact columnar file, read with {@link ColumnarResultReader}.
+ *
+ * The file starts with magic {@code "MCR1"}, the header length and the configuration and strategies
+ * (see {@link GameResultCodec#writeHeader(java.io.DataOutput)}). Rows are collected in blocks; a block
+ * stores its row count, the minimum and maximum of every column and then every column as fixed-width
+ * big-endian values (seed 8 bytes, winner 1 byte, all others 4 bytes), see {@link ResultColumns}.
+ * Each block is written with one channel write, so results are streamed to disk in large batches.
+ */
+public final class ColumnarResultWriter implements AutoCloseable {
+    static final int FILE_MAGIC = 0x4D435231; // "MCR1"
+    public static final int DEFAULT_BLOCK_ROWS = 16_384;
+
+    private final FileChannel channel;
+    private final int playerCount;
+    private final int columnCount;
+    private final int blockRows;
+    private final long[][] columns; // [column][row of the current block]
+    private final long[] row;
+    private final ByteBuffer buffer;
+    private int rows;
+    private long rowCount;
+
+    /**
+     * Create or replace a result file.
+     *
+     * @param file target file
+     * @param codec configuration and strategies of all results
+     * @param blockRows rows per block
+     * @throws IOException if the file cannot be written
+     */
+    public ColumnarResultWriter(Path file, GameResultCodec codec, int blockRows) throws IOException {
+        if (blockRows <= 0) throw new IllegalArgumentException("blockRows must be positive");
+        this.playerCount = codec.getPlayerCount();
+        this.columnCount = ResultColumns.getCount(playerCount);
+        this.blockRows = blockRows;
+        this.columns = new long[columnCount][blockRows];
+        this.row = new long[columnCount];
+        int rowWidth = 0;
+        for (int c = 0; c < columnCount; c++) {
+            rowWidth += ResultColumns.getWidth(c);
+        }
+        this.buffer = ByteBuffer.allocateDirect(getBlockHeaderSize(columnCount) + blockRows * rowWidth);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.writeHeader(new DataOutputStream(bytes));
+        ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES + bytes.size());
+        header.putInt(FILE_MAGIC).putInt(bytes.size()).put(bytes.toByteArray()).flip();
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        writeFully(header);
+    }
+
+    static int getBlockHeaderSize(int columnCount) {
+        return Integer.BYTES + columnCount * 2 * Long.BYTES;
+    }
+
+    /**
+     * Append a result. Safe to call from several threads; rows keep the order of the calls.
+     *
+     * @param result result of the file's configuration
+     * @throws IOException if writing a full block fails
+     */
+    public synchronized void write(GameResult result) throws IOException {
+        if (result.getPlayerCount() != playerCount) throw new IllegalArgumentException("Result of another configuration");
+        ResultColumns.extract(result, row);
+        for (int c = 0; c < columnCount; c++) {
+            columns[c][rows] = row[c];
+        }
+        if (++rows == blockRows) flushBlock();
+    }
+
+    /**
+     * Get the number of rows written so far.
+     *
+     * @return number of rows
+     */
+    public synchronized long getRowCount() {
+        return rowCount + rows;
+    }
+
+    private void flushBlock() throws IOException {
+        if (rows == 0) return;
+        buffer.clear();
+        buffer.putInt(rows);
+        for (int c = 0; c < columnCount; c++) {
+            long[] values = columns[c];
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int r = 0; r < rows; r++) {
+                min = Math.min(min, values[r]);
+                max = Math.max(max, values[r]);
+            }
+            buffer.putLong(min).putLong(max);
+        }
+        for (int c = 0; c < columnCount; c++) {
+            long[] values = columns[c];
+            switch (ResultColumns.getWidth(c)) {
+                case Long.BYTES:
+                    for (int r = 0; r < rows; r++) {
+                        buffer.putLong(values[r]);
+                    }
+                    break;
+                case 1:
+                    for (int r = 0; r < rows; r++) {
+                        buffer.put((byte) values[r]);
+                    }
+                    break;
+                default:
+                    for (int r = 0; r < rows; r++) {
+                        buffer.putInt((int) values[r]);
+                    }
+            }
+        }
+        buffer.flip();
+        writeFully(buffer);
+        rowCount += rows;
+        rows = 0;
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    /**
+     * Write the last, partial block and close the file.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flushBlock();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Simulate games into a result file.
+     * Usage: {@code ColumnarResultWriter [file] [games] [players] [figures] [seed]}
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "results.mcr");
+        long games = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int figures = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 0;
+
+        GameResultCodec codec = GameResultCodec.of(players, figures, 0, PlayerPC.class);
+        long start = System.nanoTime();
+        try (ColumnarResultWriter writer = new ColumnarResultWriter(file, codec, DEFAULT_BLOCK_ROWS)) {
+            // ordered, so the file only depends on the seed
+            GameResults.stream(players, figures, 0, seed, games).parallel().forEachOrdered(result -> {
+                try {
+                    writer.write(result);
+                } catch (IOException e) {
+                    throw new java.io.UncheckedIOException(e);
+                }
+            });
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games written to %s in %.1f s (%.0f games/s)%n", games, file, seconds, games / seconds);
+    }
+}
@@ -0,0 +1,345 @@
+/**
+ * Board state of many games stored in flat primitive arrays (struct of arrays).
+ * Every game uses the same {@link BoardTopology} and occupies a fixed slot in each array,
+ * so no objects are allocated per game, field or figure.
+ *
+ * Per game the following is stored:
+ * <ul>
+ *   <li>one position byte per figure: progress + 1 ({@code 0} = house), see {@link BoardTopology}</li>
+ *   <li>one occupancy byte per cell: in-game figure index + 1 ({@code 0} = empty); cells are the
+ *       ring fields followed by the goal fields of every player</li>
+ *   <li>one byte per player counting figures in the house and in the goal</li>
+ *   <li>the turn state: the player to move and the rolls it has taken in its turn, e.g. for parked
+ *       {@link GameManager} games; simulators keeping their own turn state ignore it</li>
+ * </ul>
+ * In-game figure indices are {@code player * figuresPerPlayer + figure}.
+ *
+ * Move generation and move application follow {@link RuleSetStandard#checkMove(Player, int)},
+ * {@link Field#getDestination(int, boolean)} and {@link Field#addFigure(GameFigure)}.
+ */
+public class CompactBoards {
+    private final BoardTopology topology;
+    private final int capacity;
+    private final int playerCount;
+    private final int figuresPerPlayer;
+    private final int ringSize;
+    private final int figuresPerGame;
+    private final int cellsPerGame;
+    private final byte[] positions;
+    private final byte[] cells;
+    private final byte[] houseCounts;
+    private final byte[] goalCounts;
+    private final byte[] sidesToMove;
+    private final byte[] rollsThisTurn;
+    // per player, stored position (progress + 1) and roll: destination progress + 1, 0 when the figure cannot move
+    private final byte[] destinations;
+    // per player and stored position: cell index, -1 for the house
+    private final short[] cellTable;
+    private final int tableStride;
+
+    /**
+     * Create storage for {@code capacity} games. All games start with every figure in its house.
+     *
+     * @param topology board configuration shared by all games
+     * @param capacity number of game slots
+     */
+    public CompactBoards(BoardTopology topology, int capacity) {
+        if (topology == null) throw new IllegalArgumentException("topology must not be null");
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        if (topology.getPathLength() > 255) throw new IllegalArgumentException("Board too large for compact storage");
+        this.topology = topology;
+        this.capacity = capacity;
+        this.playerCount = topology.getPlayerCount();
+        this.figuresPerPlayer = topology.getFiguresPerPlayer();
+        this.ringSize = topology.getRingSize();
+        this.figuresPerGame = this.playerCount * this.figuresPerPlayer;
+        this.cellsPerGame = this.ringSize + this.figuresPerGame;
+        this.positions = new byte[capacity * this.figuresPerGame];
+        this.cells = new byte[capacity * this.cellsPerGame];
+        this.houseCounts = new byte[capacity * this.playerCount];
+        this.goalCounts = new byte[capacity * this.playerCount];
+        this.sidesToMove = new byte[capacity];
+        this.rollsThisTurn = new byte[capacity];
+        int pathLength = topology.getPathLength();
+        this.tableStride = pathLength + 1;
+        this.destinations = new byte[this.playerCount * this.tableStride * 7];
+        this.cellTable = new short[this.playerCount * this.tableStride];
+        for (int p = 0; p < this.playerCount; p++) {
+            for (int progress = BoardTopology.HOUSE; progress < pathLength; progress++) {
+                int stored = progress + 1;
+                this.cellTable[p * this.tableStride + stored] =
+                        (short) (progress == BoardTopology.HOUSE ? -1 : computeCell(p, progress));
+                for (int roll = 1; roll <= 6; roll++) {
+                    boolean canMove = progress < this.ringSize && (progress != BoardTopology.HOUSE || roll == 6);
+                    this.destinations[(p * this.tableStride + stored) * 7 + roll] =
+                            (byte) (canMove ? topology.getDestinationProgress(progress, roll) + 1 : 0);
+                }
+            }
+        }
+        for (int g = 0; g < capacity; g++) {
+            reset(g);
+        }
+    }
+
+    /**
+     * Create storage sharing the lookup tables of {@code template}; used for cheap copies.
+     */
+    private CompactBoards(CompactBoards template, int capacity) {
+        this.topology = template.topology;
+        this.capacity = capacity;
+        this.playerCount = template.playerCount;
+        this.figuresPerPlayer = template.figuresPerPlayer;
+        this.ringSize = template.ringSize;
+        this.figuresPerGame = template.figuresPerGame;
+        this.cellsPerGame = template.cellsPerGame;
+        this.positions = new byte[capacity * this.figuresPerGame];
+        this.cells = new byte[capacity * this.cellsPerGame];
+        this.houseCounts = new byte[capacity * this.playerCount];
+        this.goalCounts = new byte[capacity * this.playerCount];
+        this.sidesToMove = new byte[capacity];
+        this.rollsThisTurn = new byte[capacity];
+        this.tableStride = template.tableStride;
+        this.destinations = template.destinations;
+        this.cellTable = template.cellTable;
+    }
+
+    /**
+     * Copy one game slot into new single-slot storage. The lookup tables are shared, so this only
+     * allocates the per-game arrays.
+     *
+     * @param game slot to copy
+     * @return storage with capacity 1 holding the copied game in slot 0
+     */
+    public CompactBoards copy(int game) {
+        CompactBoards copy = new CompactBoards(this, 1);
+        copyGame(game, copy, 0);
+        return copy;
+    }
+
+    /**
+     * Load the figure positions of a running object-model game into a slot.
+     *
+     * @param game target slot
+     * @param players players of the game, indexed by id; must match this storage's topology
+     */
+    public void load(int game, Player[] players) {
+        reset(game);
+        for (int p = 0; p < players.length; p++) {
+            GameFigure[] figures = players[p].getFigures();
+            for (int f = 0; f < figures.length; f++) {
+                int progress = topology.getProgress(p, figures[f].getField());
+                if (progress != BoardTopology.HOUSE) setProgress(game, p, f, progress);
+            }
+        }
+    }
+
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of array bytes used per game slot.
+     *
+     * @return bytes per game
+     */
+    public int getBytesPerGame() {
+        return figuresPerGame + cellsPerGame + 2 * playerCount + 2;
+    }
+
+    /**
+     * Put every figure of a game back into its house; player 0 is to move and has not rolled.
+     *
+     * @param game game slot
+     */
+    public void reset(int game) {
+        sidesToMove[game] = 0;
+        rollsThisTurn[game] = 0;
+        java.util.Arrays.fill(positions, game * figuresPerGame, (game + 1) * figuresPerGame, (byte) 0);
+        java.util.Arrays.fill(cells, game * cellsPerGame, (game + 1) * cellsPerGame, (byte) 0);
+        java.util.Arrays.fill(houseCounts, game * playerCount, (game + 1) * playerCount, (byte) figuresPerPlayer);
+        java.util.Arrays.fill(goalCounts, game * playerCount, (game + 1) * playerCount, (byte) 0);
+    }
+
+    /**
+     * Copy the board of one game slot into a slot of another (or the same) storage.
+     *
+     * @param game source slot
+     * @param target target storage with the same topology
+     * @param targetGame target slot
+     */
+    public void copyGame(int game, CompactBoards target, int targetGame) {
+        if (target.topology != this.topology) throw new IllegalArgumentException("Topology mismatch");
+        System.arraycopy(positions, game * figuresPerGame, target.positions, targetGame * figuresPerGame, figuresPerGame);
+        System.arraycopy(cells, game * cellsPerGame, target.cells, targetGame * cellsPerGame, cellsPerGame);
+        System.arraycopy(houseCounts, game * playerCount, target.houseCounts, targetGame * playerCount, playerCount);
+        System.arraycopy(goalCounts, game * playerCount, target.goalCounts, targetGame * playerCount, playerCount);
+        target.sidesToMove[targetGame] = sidesToMove[game];
+        target.rollsThisTurn[targetGame] = rollsThisTurn[game];
+    }
+
+    /**
+     * Get the id of the player to move in a game.
+     */
+    public int getSideToMove(int game) {
+        return sidesToMove[game];
+    }
+
+    /**
+     * Get the number of rolls the player to move has taken in its turn.
+     */
+    public int getRollsThisTurn(int game) {
+        return rollsThisTurn[game];
+    }
+
+    /**
+     * Set the turn state of a game.
+     *
+     * @param game game slot
+     * @param player id of the player to move
+     * @param rolls rolls the player has taken in its turn
+     */
+    public void setTurn(int game, int player, int rolls) {
+        if (player < 0 || player >= playerCount) throw new IllegalArgumentException("player out of range: " + player);
+        if (rolls < 0 || rolls > Byte.MAX_VALUE) throw new IllegalArgumentException("rolls out of range: " + rolls);
+        sidesToMove[game] = (byte) player;
+        rollsThisTurn[game] = (byte) rolls;
+    }
+
+    /**
+     * Get the progress of a figure ({@link BoardTopology#HOUSE} when in the house).
+     */
+    public int getProgress(int game, int player, int figure) {
+        return (positions[game * figuresPerGame + player * figuresPerPlayer + figure] & 0xFF) - 1;
+    }
+
+    /**
+     * Place a figure at the given progress, e.g. when loading a position. The target cell must be
+     * empty unless the figure is placed into its house.
+     *
+     * @param progress new progress ({@link BoardTopology#HOUSE} for the house)
+     */
+    public void setProgress(int game, int player, int figure, int progress) {
+        if (progress < BoardTopology.HOUSE || progress >= topology.getPathLength()) {
+            throw new IllegalArgumentException("progress out of range: " + progress);
+        }
+        int fig = player * figuresPerPlayer + figure;
+        int cellBase = game * cellsPerGame;
+        if (progress != BoardTopology.HOUSE && cells[cellBase + getCell(player, progress)] != 0) {
+            throw new IllegalArgumentException("Cell already occupied");
+        }
+        leave(game, fig, player);
+        enter(game, fig, player, progress);
+    }
+
+    public int getNumFiguresInHouse(int game, int player) {
+        return houseCounts[game * playerCount + player];
+    }
+
+    public int getNumFiguresInGoal(int game, int player) {
+        return goalCounts[game * playerCount + player];
+    }
+
+    public boolean isAllInHouse(int game, int player) {
+        return houseCounts[game * playerCount + player] == figuresPerPlayer;
+    }
+
+    public boolean isAllInGoal(int game, int player) {
+        return goalCounts[game * playerCount + player] == figuresPerPlayer;
+    }
+
+    /**
+     * Get the in-game figure index standing on a cell, or {@code -1} if it is empty.
+     *
+     * @param cell ring index, or {@code ringSize + player * figuresPerPlayer + goal} for goal fields
+     */
+    public int getOccupant(int game, int cell) {
+        return cells[game * cellsPerGame + cell] - 1;
+    }
+
+    /**
+     * Get the cell a player's figure occupies at the given progress.
+     *
+     * @param progress progress, must not be {@link BoardTopology#HOUSE}
+     * @return cell index within a game
+     */
+    public int getCell(int player, int progress) {
+        return cellTable[player * tableStride + progress + 1];
+    }
+
+    private int computeCell(int player, int progress) {
+        if (progress < ringSize) return topology.getRingIndex(player, progress);
+        return ringSize + player * figuresPerPlayer + (progress - ringSize);
+    }
+
+    /**
+     * Compute which figures of a player may move with the given roll.
+     * Same result as {@link RuleSetStandard#checkMove(Player, int)}: figures in the goal never move,
+     * house figures need a 6 and no move may end on a field occupied by an own figure.
+     *
+     * @return bit mask over the player's figure indices
+     */
+    public int getMovableMask(int game, int player, int roll) {
+        int figBase = game * figuresPerGame + player * figuresPerPlayer;
+        int cellBase = game * cellsPerGame;
+        int tableBase = player * tableStride;
+        int ownLow = player * figuresPerPlayer + 1;
+        int mask = 0;
+        for (int f = 0; f < figuresPerPlayer; f++) {
+            int destination = destinations[(tableBase + (positions[figBase + f] & 0xFF)) * 7 + roll];
+            if (destination == 0) continue; // in goal, or in house without a 6
+            // unsigned compare: true when the occupant is not one of the player's own figures
+            int occupant = cells[cellBase + cellTable[tableBase + (destination & 0xFF)]];
+            if (occupant - ownLow + Integer.MIN_VALUE >= figuresPerPlayer + Integer.MIN_VALUE) {
+                mask |= 1 << f;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Move a figure by the given roll (out of the house when it is in the house).
+     * An opponent figure on the destination is sent back to its house.
+     * The move must be legal, see {@link #getMovableMask(int, int, int)}.
+     *
+     * @return in-game index of the captured figure, or {@code -1} if nothing was captured
+     */
+    public int applyMove(int game, int player, int figure, int roll) {
+        int fig = player * figuresPerPlayer + figure;
+        int progress = (positions[game * figuresPerGame + fig] & 0xFF) - 1;
+        int destination = topology.getDestinationProgress(progress, roll);
+        int cellIndex = game * cellsPerGame + getCell(player, destination);
+        int captured = cells[cellIndex] - 1;
+        if (captured >= 0) {
+            int victim = captured / figuresPerPlayer;
+            leave(game, captured, victim);
+            enter(game, captured, victim, BoardTopology.HOUSE);
+        }
+        leave(game, fig, player);
+        enter(game, fig, player, destination);
+        return captured;
+    }
+
+    private void leave(int game, int fig, int player) {
+        int progress = (positions[game * figuresPerGame + fig] & 0xFF) - 1;
+        if (progress == BoardTopology.HOUSE) {
+            houseCounts[game * playerCount + player]--;
+            return;
+        }
+        if (progress >= ringSize) goalCounts[game * playerCount + player]--;
+        cells[game * cellsPerGame + getCell(player, progress)] = 0;
+    }
+
+    private void enter(int game, int fig, int player, int progress) {
+        positions[game * figuresPerGame + fig] = (byte) (progress + 1);
+        if (progress == BoardTopology.HOUSE) {
+            houseCounts[game * playerCount + player]++;
+            return;
+        }
+        if (progress >= ringSize) goalCounts[game * playerCount + player]++;
+        cells[game * cellsPerGame + getCell(player, progress)] = (byte) (fig + 1);
+    }
+}
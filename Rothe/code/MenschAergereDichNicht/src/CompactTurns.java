@@ -0,0 +1,99 @@
+/**
+ * Turn handling and random choices shared by the engines playing on {@link CompactBoards}
+ * ({@link BatchSimulator}, {@link PolicyTrainer}, {@link DifferentialRunner}).
+ *
+ * Turns follow {@link GameManager#runGame()} with {@link RuleSetStandard}: up to
+ * {@value RuleSetStandard#MAX_ROLLS_ALL_IN_HOUSE} rolls while all figures are in the house, otherwise rolling
+ * until a figure can move, and one move per turn. Random numbers come from SplitMix64 generators whose
+ * states are kept by the caller, one {@code long} per generator, so an engine can hold one generator per game
+ * in a flat array.
+ */
+public final class CompactTurns {
+    private CompactTurns() {
+    }
+
+    /**
+     * Count another roll of the player to move, like {@link RuleSetStandard#checkRoll(Player)}.
+     *
+     * @param boards storage holding the game
+     * @param game slot of the game
+     * @param player player to move
+     * @param rolls rolls the player has taken in this turn
+     * @return the rolls of this turn including the new one, or {@code -1} if the player may not roll and its turn is over
+     */
+    public static int countRoll(CompactBoards boards, int game, int player, int rolls) {
+        if (boards.isAllInHouse(game, player)) {
+            return rolls < RuleSetStandard.MAX_ROLLS_ALL_IN_HOUSE ? rolls + 1 : -1;
+        }
+        return boards.isAllInGoal(game, player) ? -1 : 1;
+    }
+
+    /**
+     * Play one turn of the player to move: roll until a figure can move or the player may not roll again,
+     * then move the figure picked by the chooser.
+     *
+     * @param boards storage holding the game
+     * @param game slot of the game
+     * @param player player to move
+     * @param random generator states
+     * @param stream index of the game's generator in {@code random}
+     * @param chooser picks the figure to move
+     * @return the figure moved, or {@code -1} if the turn ended without a move
+     */
+    public static int playTurn(CompactBoards boards, int game, int player, long[] random, int stream, I_FigureChooser chooser) {
+        int rolls = 0;
+        while ((rolls = countRoll(boards, game, player, rolls)) >= 0) {
+            int roll = nextInt(random, stream, 6) + 1;
+            int mask = boards.getMovableMask(game, player, roll);
+            if (mask == 0) continue;
+            int figure = chooser.choose(boards, game, player, roll, mask);
+            boards.applyMove(game, player, figure, roll);
+            return figure;
+        }
+        return -1;
+    }
+
+    /**
+     * Pick one of the movable figures uniformly, like {@link PlayerPC}.
+     *
+     * @param random generator states
+     * @param stream index of the generator in {@code random}
+     * @param mask movable figures, not 0
+     * @return the picked figure
+     */
+    public static int pickUniform(long[] random, int stream, int mask) {
+        return selectBit(mask, nextInt(random, stream, Integer.bitCount(mask)));
+    }
+
+    /**
+     * Draw a uniform random integer in {@code [0, bound)} and advance the generator.
+     *
+     * @param random generator states
+     * @param stream index of the generator in {@code random}
+     * @param bound upper bound (exclusive), positive
+     * @return the random integer
+     */
+    public static int nextInt(long[] random, int stream, int bound) {
+        long z = mix64(random[stream] += 0x9E3779B97F4A7C15L);
+        return (int) (((z >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * SplitMix64 finalizer, e.g. to derive the initial generator states from a seed.
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Get the index of the n-th (0-based) set bit of a mask.
+     */
+    public static int selectBit(int mask, int n) {
+        for (int i = 0; i < n; i++) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+}
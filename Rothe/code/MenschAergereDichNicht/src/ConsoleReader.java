@@ -0,0 +1,98 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads console lines on a dedicated daemon thread into a queue, so the game loop never blocks on the
+ * terminal: it polls with a timeout instead. Lines typed before they are asked for stay queued and are
+ * used by the next prompt (type-ahead).
+ *
+ * All console input of the game goes through {@link #shared()}; reading {@code System.in} elsewhere would
+ * compete with the reader thread for the same lines.
+ */
+public final class ConsoleReader {
+    private static final String END_OF_INPUT = new String(""); // compared by identity
+
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    private volatile boolean ended; // END_OF_INPUT has been queued
+
+    private static final class Holder {
+        static final ConsoleReader SHARED = new ConsoleReader(System.in, "ConsoleReader");
+    }
+
+    /**
+     * Start reading lines from a stream.
+     *
+     * @param in source of the lines
+     * @param threadName name of the reader thread
+     */
+    ConsoleReader(InputStream in, String threadName) {
+        Thread reader = new Thread(() -> {
+            try (BufferedReader console = new BufferedReader(new InputStreamReader(in))) {
+                String line;
+                while ((line = console.readLine()) != null) {
+                    lines.add(line);
+                }
+            } catch (IOException e) {
+                // treated like the end of the input
+            } finally {
+                lines.add(END_OF_INPUT);
+                ended = true;
+            }
+        }, threadName);
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Get the reader of {@code System.in}, starting it on first use.
+     *
+     * @return the shared console reader
+     */
+    public static ConsoleReader shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Take the next line, waiting as long as necessary.
+     *
+     * @return the line, or {@code null} at the end of the input
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public String take() throws InterruptedException {
+        return unwrap(lines.take());
+    }
+
+    /**
+     * Take the next line, waiting at most the given time.
+     *
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return the line, or {@code null} if none arrived in time or the input has ended
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public String poll(long timeout, TimeUnit unit) throws InterruptedException {
+        String line = lines.poll(timeout, unit);
+        return line == null ? null : unwrap(line);
+    }
+
+    /**
+     * Get the number of lines typed ahead and not yet taken.
+     *
+     * @return number of queued lines
+     */
+    public int getPendingCount() {
+        int count = lines.size();
+        return ended ? Math.max(0, count - 1) : count;
+    }
+
+    private String unwrap(String line) {
+        if (line != END_OF_INPUT) return line;
+        lines.add(END_OF_INPUT); // keep the end visible to later readers
+        return null;
+    }
+}
@@ -0,0 +1,258 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of figure choices keyed by {@link PackedState}, shared by any number of players and threads.
+ * Entries are spread over independently locked segments, each an access-ordered {@link LinkedHashMap}
+ * evicting its least recently used entry once full, so concurrent players rarely contend on a lock.
+ * Hit, miss and eviction counts are kept in {@link LongAdder}s.
+ *
+ * A cache belongs to one strategy, identified by {@link Player#getStrategyFingerprint()} (class and
+ * parameters); players of other strategies cannot use it, since the key holds no strategy.
+ *
+ * A cache can be saved to disk and warm-loaded in a later run; the file records the board
+ * configuration and the strategy and is only accepted for the same ones.
+ */
+public class DecisionCache {
+    private static final int FILE_MAGIC = 0x4D444332; // "MDC2"
+
+    private static final class Segment extends LinkedHashMap<PackedState, Byte> {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+        private final LongAdder evictions;
+
+        private Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PackedState, Byte> eldest) {
+            if (size() <= capacity) return false;
+            evictions.increment();
+            return true;
+        }
+    }
+
+    private final String strategy;
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Create a cache holding about {@code maxEntries} decisions of one strategy.
+     *
+     * @param maxEntries maximum number of cached decisions
+     * @param strategy fingerprint of the strategy, see {@link Player#getStrategyFingerprint()}
+     */
+    public DecisionCache(int maxEntries, String strategy) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be positive");
+        if (strategy == null || strategy.isEmpty()) throw new IllegalArgumentException("strategy must not be empty");
+        this.strategy = strategy;
+        int count = Integer.highestOneBit(Math.max(1, Math.min(maxEntries, 4 * Runtime.getRuntime().availableProcessors())));
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment(Math.max(1, maxEntries / count), this.evictions);
+        }
+        this.segmentMask = count - 1;
+    }
+
+    /**
+     * Look up a cached decision and mark it as recently used.
+     *
+     * @param key the decision's position
+     * @return the cached figure index, or {@code -1} if absent
+     */
+    public int get(PackedState key) {
+        Segment segment = segmentFor(key);
+        Byte figure;
+        synchronized (segment) {
+            figure = segment.get(key);
+        }
+        if (figure == null) {
+            misses.increment();
+            return -1;
+        }
+        hits.increment();
+        return figure;
+    }
+
+    /**
+     * Store a decision, evicting the least recently used entry of its segment if necessary.
+     *
+     * @param key the decision's position
+     * @param figure the chosen figure index
+     */
+    public void put(PackedState key, int figure) {
+        if (figure < 0 || figure > Byte.MAX_VALUE) throw new IllegalArgumentException("Invalid figure index: " + figure);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, (byte) figure);
+        }
+    }
+
+    /**
+     * Get the fingerprint of the strategy whose decisions this cache holds.
+     */
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the share of lookups answered from the cache.
+     *
+     * @return hit rate between 0 and 1, 0 before the first lookup
+     */
+    public double getHitRate() {
+        long h = getHits();
+        long total = h + getMisses();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * Write all cached decisions to a file. The file is replaced atomically.
+     *
+     * @param file target file
+     * @param topology board configuration the decisions belong to
+     * @throws IOException if writing fails
+     */
+    public void save(Path file, BoardTopology topology) throws IOException {
+        List<Map.Entry<PackedState, Byte>> entries = new ArrayList<>();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                entries.addAll(new ArrayList<>(segment.entrySet()));
+            }
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(topology.getPlayerCount());
+            out.writeInt(topology.getFieldsPerPlayer());
+            out.writeInt(topology.getFiguresPerPlayer());
+            out.writeUTF(strategy);
+            out.writeInt(entries.size());
+            for (Map.Entry<PackedState, Byte> entry : entries) {
+                long[] words = entry.getKey().getWords();
+                out.writeByte(words.length);
+                for (long word : words) {
+                    out.writeLong(word);
+                }
+                out.writeByte(entry.getValue());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Warm-load decisions saved by {@link #save(Path, BoardTopology)}.
+     *
+     * @param file file to read
+     * @param topology board configuration the cache is used for
+     * @return number of loaded decisions
+     * @throws IOException if reading fails or the file belongs to another board configuration or strategy
+     */
+    public int load(Path file, BoardTopology topology) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) throw new IOException("Not a decision cache file: " + file);
+            if (in.readInt() != topology.getPlayerCount() || in.readInt() != topology.getFieldsPerPlayer()
+                    || in.readInt() != topology.getFiguresPerPlayer()) {
+                throw new IOException("Decision cache " + file + " belongs to another board configuration");
+            }
+            String stored = in.readUTF();
+            if (!stored.equals(strategy)) {
+                throw new IOException("Decision cache " + file + " belongs to strategy '" + stored + "', not '" + strategy + "'");
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long[] words = new long[in.readUnsignedByte()];
+                for (int w = 0; w < words.length; w++) {
+                    words[w] = in.readLong();
+                }
+                put(PackedState.fromWords(words), in.readByte());
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Play a tournament of heuristic players sharing one cache and report the hit rate.
+     * Usage: {@code DecisionCache [cacheFile] [games] [figures]}; an existing cache file is warm-loaded
+     * before the run and the cache is saved to it afterwards.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path file = args.length > 0 ? Path.of(args[0]) : null;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int figures = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int players = 4;
+        BoardTopology topology = BoardGenerator.shared(players, 0, figures);
+        double[] weights = PlayerHeuristic.getDefaultWeights();
+        DecisionCache cache = new DecisionCache(1 << 20, PlayerHeuristic.fingerprint(weights));
+        if (file != null && Files.exists(file)) {
+            System.out.println("Loaded " + cache.load(file, topology) + " decisions from " + file);
+        }
+        I_PlayerFactory heuristic = PlayerHeuristic.factory(weights);
+        I_PlayerFactory cached = (id, name, numFigures, startField) -> {
+            Player player = heuristic.create(id, name, numFigures, startField);
+            player.setDecisionCache(cache);
+            return player;
+        };
+        long start = System.nanoTime();
+        new Tournament(players, figures, 0, Runtime.getRuntime().availableProcessors(), cached)
+                .run(games, new ResultCollector(50, 20));
+        System.out.printf("%d games in %.2f s, %d cached decisions, hit rate %.1f%% (%d hits, %d misses, %d evictions)%n",
+                games, (System.nanoTime() - start) / 1e9, cache.size(), 100 * cache.getHitRate(),
+                cache.getHits(), cache.getMisses(), cache.getEvictions());
+        if (file != null) {
+            cache.save(file, topology);
+        }
+    }
+
+    private Segment segmentFor(PackedState key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & segmentMask];
+    }
+}
@@ -12,6 +12,15 @@ public class Die6 implements I_Rollable {
         this.random = new java.util.Random();
     }
 
+    /**
+     * Create a new 6-sided die producing a reproducible sequence of rolls.
+     *
+     * @param seed the seed of the sequence
+     */
+    public Die6(long seed) {
+        this.random = new java.util.Random(seed);
+    }
+
     /**
      * Roll this die and return a value between 1 and 6 (inclusive).
      *
@@ -21,4 +30,29 @@ public class Die6 implements I_Rollable {
     public int roll() {
         return this.random.nextInt(6) + 1;
     }
+
+    /**
+     * Reseed this die in place without allocating a new generator.
+     *
+     * @param seed the new seed
+     */
+    @Override
+    public void setSeed(long seed) {
+        this.random.setSeed(seed);
+    }
+
+    /**
+     * Derive independent seeds for several generators from one seed (SplitMix64 finalizer).
+     * Neighbouring seeds and streams give unrelated results, unlike seeding {@link java.util.Random} with {@code seed + stream}.
+     *
+     * @param seed the base seed
+     * @param stream number of the derived generator
+     * @return derived seed
+     */
+    public static long deriveSeed(long seed, long stream) {
+        long z = seed + (stream + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
 }
@@ -0,0 +1,417 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Differential tester of {@link CompactBoards} against the object model ({@link GameManager},
+ * {@link RuleSetStandard}, {@link Field#getDestination(int, boolean)} and {@link Field#addFigure(GameFigure)}).
+ *
+ * Every game is played by the object model with {@link PlayerPC} seats. A listener drives the compact
+ * engine in lockstep: it runs the turn logic of {@link CompactTurns} (the 3-roll house rule, rolling until a figure can move,
+ * one move per turn), draws its own dice and choices from the same derived seeds as {@link Player#reseed(long)}
+ * and compares on every roll
+ * <ul>
+ *   <li>whether a roll is allowed and the rolled value,</li>
+ *   <li>the set of legal moves,</li>
+ *   <li>the chosen figure and the captured figure,</li>
+ *   <li>the progress of every figure after the move,</li>
+ *   <li>the end of the turn and the winner.</li>
+ * </ul>
+ * A divergence can be shrunk to fewer figures and an earliest turn with the same kind of mismatch,
+ * see {@link #shrink(Divergence, int)}.
+ */
+public final class DifferentialRunner {
+    private static final int CHUNK_GAMES = 1024;
+
+    private final int playerCount;
+    private final int figuresPerPlayer;
+    private final int fieldsPerPlayer;
+
+    /**
+     * What the engines disagreed on.
+     */
+    public enum Mismatch {
+        TURN_ORDER, ROLL_PERMISSION, ROLL_VALUE, MOVES, CHOICE, CAPTURE, PROGRESS, TURN_END, WINNER,
+        /** the object model failed with an exception */
+        OBJECT_MODEL
+    }
+
+    /**
+     * A game in which both engines disagreed.
+     */
+    public static final class Divergence {
+        private final int playerCount;
+        private final int figuresPerPlayer;
+        private final int fieldsPerPlayer;
+        private final long seed;
+        private final int turn;
+        private final Mismatch mismatch;
+        private final String message;
+
+        Divergence(int playerCount, int figuresPerPlayer, int fieldsPerPlayer, long seed, int turn, Mismatch mismatch,
+                   String message) {
+            this.playerCount = playerCount;
+            this.figuresPerPlayer = figuresPerPlayer;
+            this.fieldsPerPlayer = fieldsPerPlayer;
+            this.seed = seed;
+            this.turn = turn;
+            this.mismatch = mismatch;
+            this.message = message;
+        }
+
+        public int getPlayerCount() {
+            return playerCount;
+        }
+
+        public int getFiguresPerPlayer() {
+            return figuresPerPlayer;
+        }
+
+        public int getFieldsPerPlayer() {
+            return fieldsPerPlayer;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Get the turn (counted from 0) in which the engines disagreed.
+         */
+        public int getTurn() {
+            return turn;
+        }
+
+        public Mismatch getMismatch() {
+            return mismatch;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d players, %d figures, %d fields per player, seed %d, turn %d, %s: %s",
+                    playerCount, figuresPerPlayer, fieldsPerPlayer, seed, turn, mismatch, message);
+        }
+    }
+
+    /** Thrown by a {@link Checker} when the engines disagree. */
+    private static final class MismatchException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final Mismatch mismatch;
+
+        MismatchException(Mismatch mismatch, String message) {
+            super(message, null, false, false);
+            this.mismatch = mismatch;
+        }
+    }
+
+    /** Thrown by a {@link Checker} to abandon a game after its turn limit. */
+    private static final class TurnLimitReached extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TurnLimitReached() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Create a runner for one board configuration.
+     *
+     * @param playerCount players per game
+     * @param figuresPerPlayer figures per player
+     * @param fieldsPerPlayer ring fields per player, 0 for the classic board size
+     */
+    public DifferentialRunner(int playerCount, int figuresPerPlayer, int fieldsPerPlayer) {
+        BoardGenerator.checkConfiguration(playerCount, fieldsPerPlayer, figuresPerPlayer);
+        this.playerCount = playerCount;
+        this.figuresPerPlayer = figuresPerPlayer;
+        this.fieldsPerPlayer = fieldsPerPlayer;
+    }
+
+    /**
+     * Play one game with both engines.
+     *
+     * @param seed seed of the game
+     * @return the divergence, or {@code null} if both engines agreed
+     */
+    public Divergence check(long seed) {
+        return new Checker().check(seed, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Check the games {@code seed .. seed + games - 1} on several threads.
+     *
+     * @param games number of games
+     * @param seed seed of the first game
+     * @param threads number of worker threads
+     * @param maxDivergences stop once this many divergences were found
+     * @return the divergences found, in no particular order
+     * @throws InterruptedException if interrupted while waiting for the workers
+     * @throws IllegalStateException if checking a game fails; the other workers stop after their current game
+     */
+    public List<Divergence> run(long games, long seed, int threads, int maxDivergences) throws InterruptedException {
+        if (games <= 0 || threads <= 0 || maxDivergences <= 0) {
+            throw new IllegalArgumentException("games, threads and maxDivergences must be positive");
+        }
+        ConcurrentLinkedQueue<Divergence> found = new ConcurrentLinkedQueue<>();
+        AtomicLong nextGame = new AtomicLong();
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // workers are awaited in the order they finish, so the first failure is seen at once
+            ExecutorCompletionService<Void> workers = new ExecutorCompletionService<>(executor);
+            for (int t = 0; t < threads; t++) {
+                workers.submit(() -> {
+                    Checker checker = new Checker();
+                    long first;
+                    while (!stop.get() && (first = nextGame.getAndAdd(CHUNK_GAMES)) < games) {
+                        long last = Math.min(games, first + CHUNK_GAMES);
+                        for (long game = first; game < last && !stop.get(); game++) {
+                            Divergence divergence = checker.check(seed + game, Integer.MAX_VALUE);
+                            if (divergence == null) continue;
+                            found.add(divergence);
+                            if (found.size() >= maxDivergences) stop.set(true);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (int t = 0; t < threads; t++) {
+                workers.take().get();
+            }
+        } catch (ExecutionException e) {
+            stop.set(true);
+            executor.shutdownNow();
+            throw new IllegalStateException("Differential worker failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * Shrink a divergence, keeping its player count, ring and kind of mismatch. Starting from the original seed,
+     * the seeds {@code seed .. seed + seedBudget - 1} are replayed with fewer figures per player and with the
+     * original number; a candidate only counts if it shows the same {@link Mismatch} before the turn of the
+     * best divergence so far, so every replay stops at that turn. The result has the fewest figures found and,
+     * among those, the earliest turn; the given divergence is kept if nothing smaller is found.
+     *
+     * @param divergence divergence to shrink
+     * @param seedBudget number of seeds tried per configuration, starting with the original seed
+     * @return the smallest divergence found
+     */
+    public static Divergence shrink(Divergence divergence, int seedBudget) {
+        if (seedBudget <= 0) throw new IllegalArgumentException("seedBudget must be positive");
+        Divergence best = divergence;
+        for (int figures = 1; figures <= divergence.getFiguresPerPlayer(); figures++) {
+            Checker checker = new DifferentialRunner(divergence.getPlayerCount(), figures, divergence.getFieldsPerPlayer()).new Checker();
+            for (long seed = divergence.getSeed(); seed < divergence.getSeed() + seedBudget; seed++) {
+                // a smaller configuration may take as long as the best; the same one has to be faster
+                int turnLimit = figures < best.getFiguresPerPlayer() ? best.getTurn() + 1 : best.getTurn();
+                Divergence candidate = checker.check(seed, turnLimit);
+                if (candidate != null && candidate.getMismatch() == divergence.getMismatch()) {
+                    best = candidate;
+                }
+            }
+            if (best.getFiguresPerPlayer() == figures) break; // smaller configurations had no divergence
+        }
+        return best;
+    }
+
+    /**
+     * Plays games with one reusable object-model game and one compact slot and compares them on every event.
+     * Must only be used by one thread at a time.
+     */
+    private final class Checker implements I_GameListener {
+        private final GameContext context;
+        private final BoardTopology topology;
+        private final CompactBoards boards;
+        private final Player[] players;
+        private final RuleSetStandard reference; // legal moves of the object model, stateless use only
+        private final Die6[] dice = new Die6[playerCount];
+        private final Random[] choices = new Random[playerCount];
+        private int current; // player whose turn it is in the compact engine
+        private int rolls; // rolls in the current turn
+        private boolean moved; // a figure was moved in the current turn
+        private int turn;
+        private int chosen; // figure the compact engine chose for the last roll, -1 for none
+        private int referenceCapture; // in-game index reported by onCapture, -1 for none
+        private int winner;
+        private int turnLimit; // turns after which the game is abandoned
+
+        Checker() {
+            this.context = new GameContextPool(playerCount, figuresPerPlayer, fieldsPerPlayer).acquire();
+            this.topology = context.getManager().getTopology();
+            this.boards = new CompactBoards(topology, 1);
+            this.players = context.getManager().getPlayers();
+            this.reference = new RuleSetStandard(playerCount, fieldsPerPlayer);
+            for (int p = 0; p < playerCount; p++) {
+                dice[p] = new Die6();
+                choices[p] = new Random();
+            }
+            context.getManager().addListener(this);
+        }
+
+        /**
+         * Play one game with both engines.
+         *
+         * @param seed seed of the game
+         * @param turnLimit the game is abandoned without divergence after this many turns
+         * @return the divergence, or {@code null} if both engines agreed
+         */
+        Divergence check(long seed, int turnLimit) {
+            boards.reset(0);
+            for (int p = 0; p < playerCount; p++) {
+                // the same streams as Player.reseed and PlayerPC.reseedStrategy
+                long playerSeed = Die6.deriveSeed(seed, p);
+                dice[p].setSeed(Die6.deriveSeed(playerSeed, 0));
+                choices[p].setSeed(Die6.deriveSeed(playerSeed, 1));
+            }
+            current = 0;
+            rolls = 0;
+            moved = false;
+            turn = 0;
+            chosen = -1;
+            winner = -1;
+            this.turnLimit = turnLimit;
+            try {
+                context.play(seed);
+            } catch (TurnLimitReached e) {
+                return null;
+            } catch (MismatchException e) {
+                return new Divergence(playerCount, figuresPerPlayer, fieldsPerPlayer, seed, turn, e.mismatch, e.getMessage());
+            } catch (RuntimeException e) {
+                return new Divergence(playerCount, figuresPerPlayer, fieldsPerPlayer, seed, turn, Mismatch.OBJECT_MODEL,
+                        "object model failed: " + e);
+            }
+            return null;
+        }
+
+        private boolean mayRoll() {
+            return !moved && CompactTurns.countRoll(boards, 0, current, rolls) >= 0;
+        }
+
+        @Override
+        public void onRoll(Player player, int rollValue) {
+            expect(player.getId() == current, Mismatch.TURN_ORDER, "P%d rolled, but it is the turn of P%d", player.getId() + 1, current + 1);
+            expect(mayRoll(), Mismatch.ROLL_PERMISSION, "P%d rolled a %d after %d rolls, but may not roll", current + 1, rollValue, rolls);
+            int roll = dice[current].roll();
+            expect(roll == rollValue, Mismatch.ROLL_VALUE, "P%d rolled %d, the compact engine %d", current + 1, rollValue, roll);
+            rolls++;
+
+            // the reference moves are computed by the rule set on the object model before the move
+            int referenceMask = reference.getMovableMask(player, roll);
+            int mask = boards.getMovableMask(0, current, roll);
+            expect(mask == referenceMask, Mismatch.MOVES, "P%d rolled %d: movable figures %s, compact engine %s",
+                    current + 1, roll, maskToString(referenceMask), maskToString(mask));
+
+            chosen = -1;
+            referenceCapture = -1;
+            if (mask != 0) {
+                // PlayerPC picks uniformly among the movable figures in figure order
+                chosen = CompactTurns.selectBit(mask, choices[current].nextInt(Integer.bitCount(mask)));
+            }
+        }
+
+        @Override
+        public void onCapture(GameFigure capturer, GameFigure captured) {
+            expect(referenceCapture < 0, Mismatch.CAPTURE, "P%d captured more than one figure", current + 1);
+            referenceCapture = captured.getOwner().getId() * figuresPerPlayer + captured.getId();
+        }
+
+        @Override
+        public void onMove(Player player, GameFigure figure, Field from, Field to) {
+            expect(figure.getId() == chosen, Mismatch.CHOICE, "P%d moved figure %d, the compact engine chose %d", current + 1, figure.getId(), chosen);
+            int captured = boards.applyMove(0, current, chosen, player.getLastRoll());
+            moved = true;
+            expect(captured == referenceCapture, Mismatch.CAPTURE, "P%d figure %d captured %s, compact engine %s", current + 1, chosen,
+                    figureToString(referenceCapture), figureToString(captured));
+            for (Player owner : players) {
+                int p = owner.getId();
+                for (GameFigure other : owner.getFigures()) {
+                    int progress = topology.getProgress(p, other.getField());
+                    int compact = boards.getProgress(0, p, other.getId());
+                    expect(progress == compact, Mismatch.PROGRESS, "after P%d moved figure %d by %d: P%d figure %d at progress %d, compact engine %d",
+                            current + 1, chosen, player.getLastRoll(), p + 1, other.getId(), progress, compact);
+                }
+            }
+        }
+
+        @Override
+        public void onTurnEnd(Player player) {
+            expect(!mayRoll(), Mismatch.TURN_END, "turn of P%d ended after %d rolls, but it may still roll", current + 1, rolls);
+            if (boards.isAllInGoal(0, current)) {
+                winner = current;
+            } else {
+                current = (current + 1) % playerCount;
+            }
+            rolls = 0;
+            moved = false;
+            turn++;
+            if (turn >= turnLimit && winner < 0) throw new TurnLimitReached();
+        }
+
+        @Override
+        public void onGameEnd(GameResult result) {
+            expect(result.getWinner() == winner, Mismatch.WINNER, "P%d won, compact engine winner %s", result.getWinner() + 1,
+                    winner < 0 ? "none" : "P" + (winner + 1));
+        }
+
+        private void expect(boolean condition, Mismatch mismatch, String format, Object... args) {
+            if (!condition) throw new MismatchException(mismatch, String.format(format, args));
+        }
+
+        private String maskToString(int mask) {
+            StringBuilder text = new StringBuilder("{");
+            for (int f = 0; f < figuresPerPlayer; f++) {
+                if ((mask & (1 << f)) == 0) continue;
+                if (text.length() > 1) text.append(',');
+                text.append(f);
+            }
+            return text.append('}').toString();
+        }
+
+        private String figureToString(int fig) {
+            return fig < 0 ? "nothing" : "P" + (fig / figuresPerPlayer + 1) + " figure " + fig % figuresPerPlayer;
+        }
+    }
+
+    /**
+     * Check many games and print the shrunk divergences.
+     * Usage: {@code DifferentialRunner [games] [players] [figures] [fieldsPerPlayer] [threads] [seed]}
+     */
+    public static void main(String[] args) throws InterruptedException {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int figures = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int fields = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 0;
+
+        long start = System.nanoTime();
+        List<Divergence> divergences = new DifferentialRunner(players, figures, fields).run(games, seed, threads, 10);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (divergences.isEmpty()) {
+            System.out.printf("%d games, no divergence (%.0f games/s)%n", games, games / seconds);
+            return;
+        }
+        System.out.println(divergences.size() + " divergence(s), e.g.");
+        System.out.println("  " + divergences.get(0));
+        Divergence minimal = shrink(divergences.get(0), 10_000);
+        System.out.println("Shrunk to");
+        System.out.println("  " + minimal);
+        System.out.printf("Reproduce with: DifferentialRunner 1 %d %d %d 1 %d%n", minimal.getPlayerCount(),
+                minimal.getFiguresPerPlayer(), minimal.getFieldsPerPlayer(), minimal.getSeed());
+        System.exit(1);
+    }
+}
@@ -0,0 +1,247 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Multi-player expectimax search (max^n at decision nodes) on {@link CompactBoards}, whose move
+ * generation matches {@link RuleSetStandard}.
+ *
+ * One search level is one turn. A chance node averages over the rolls 1-6; while all figures of the
+ * player are in the house the node mixes "moving out within 3 rolls" and "passing", otherwise only
+ * rolls with a legal move count, as the player keeps rolling until a figure can move. At decision
+ * nodes the player to move picks the figure maximizing its own value.
+ *
+ * Chance-node children and the candidate figures of decision nodes are searched in parallel on a
+ * {@link ForkJoinPool}. Splitting is adaptive: nodes close to the leaves and nodes reached while the
+ * worker already has queued surplus tasks are searched sequentially, so small subtrees do not pay
+ * the task overhead. All tasks share one {@link TranspositionTable}.
+ */
+public class ExpectimaxSearch {
+    private static final double WIN_SCORE = 10_000.0;
+    private static final double CHANCE_SIX_IN_THREE_ROLLS = 1.0 - Math.pow(5.0 / 6.0, 3);
+    private static final int SEQUENTIAL_DEPTH = 1; // subtrees of this depth or less are never split
+    private static final int MAX_SURPLUS_TASKS = 2;
+
+    private final BoardTopology topology;
+    private final int depth;
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private final int playerCount;
+    private final int figuresPerPlayer;
+    private final long[] figureKeys; // Zobrist keys per in-game figure and progress + 1
+    private final long[] playerKeys; // Zobrist keys for the player to move
+
+    /**
+     * Create a search.
+     *
+     * @param topology board configuration
+     * @param depth number of turns to search ahead (at least 1)
+     * @param pool pool running the parallel search
+     * @param table transposition table shared by all tasks
+     */
+    public ExpectimaxSearch(BoardTopology topology, int depth, ForkJoinPool pool, TranspositionTable table) {
+        if (depth < 1) throw new IllegalArgumentException("depth must be at least 1");
+        this.topology = topology;
+        this.depth = depth;
+        this.pool = pool;
+        this.table = table;
+        this.playerCount = topology.getPlayerCount();
+        this.figuresPerPlayer = topology.getFiguresPerPlayer();
+        SplittableRandom random = new SplittableRandom(0x5EED);
+        this.figureKeys = new long[playerCount * figuresPerPlayer * (topology.getPathLength() + 1)];
+        for (int i = 0; i < figureKeys.length; i++) {
+            figureKeys[i] = random.nextLong();
+        }
+        this.playerKeys = new long[playerCount];
+        for (int p = 0; p < playerCount; p++) {
+            playerKeys[p] = random.nextLong();
+        }
+    }
+
+    /**
+     * Choose the figure to move for the given roll.
+     *
+     * @param root storage whose slot 0 holds the current position (not modified)
+     * @param player player to move
+     * @param roll the rolled value
+     * @return the figure index with the best expected value, or {@code -1} if no figure can move
+     */
+    public int chooseFigure(CompactBoards root, int player, int roll) {
+        int mask = root.getMovableMask(0, player, roll);
+        if (mask == 0) return -1;
+        if (Integer.bitCount(mask) == 1) return Integer.numberOfTrailingZeros(mask);
+        int[] figures = bits(mask);
+        double[][] values = pool.invoke(ForkJoinTask.adapt(() -> {
+            List<ForkJoinTask<double[]>> tasks = new ArrayList<>();
+            for (int figure : figures) {
+                tasks.add(ForkJoinTask.adapt(() -> moveValue(root, player, figure, roll, depth)));
+            }
+            return joinAll(tasks);
+        }));
+        int best = 0;
+        for (int i = 1; i < figures.length; i++) {
+            if (values[i][player] > values[best][player]) best = i;
+        }
+        return figures[best];
+    }
+
+    /** Value of a position before {@code player} rolls, {@code remaining} turns left to search. */
+    private double[] chanceValue(CompactBoards state, int player, int remaining) {
+        if (remaining == 0) return evaluate(state);
+        long key = hash(state, player);
+        double[] cached = table.get(key, remaining);
+        if (cached != null) return cached;
+
+        double[] result;
+        int next = (player + 1) % playerCount;
+        if (state.isAllInHouse(0, player)) {
+            // Up to 3 rolls; only a 6 allows moving a figure out of the house
+            double[] moved = decisionValue(state, player, 6, remaining);
+            double[] passed = chanceValue(state, next, remaining - 1);
+            result = new double[playerCount];
+            for (int p = 0; p < playerCount; p++) {
+                result[p] = CHANCE_SIX_IN_THREE_ROLLS * moved[p] + (1 - CHANCE_SIX_IN_THREE_ROLLS) * passed[p];
+            }
+        } else {
+            double[][] byRoll = new double[6][];
+            if (shouldSplit(remaining)) {
+                List<ForkJoinTask<double[]>> tasks = new ArrayList<>(6);
+                for (int roll = 1; roll <= 6; roll++) {
+                    int r = roll;
+                    tasks.add(ForkJoinTask.adapt(() -> decisionValue(state, player, r, remaining)));
+                }
+                byRoll = joinAll(tasks);
+            } else {
+                for (int roll = 1; roll <= 6; roll++) {
+                    byRoll[roll - 1] = decisionValue(state, player, roll, remaining);
+                }
+            }
+            // The player rolls again until a figure can move: average over rolls with a legal move
+            result = new double[playerCount];
+            int count = 0;
+            for (double[] values : byRoll) {
+                if (values == null) continue;
+                count++;
+                for (int p = 0; p < playerCount; p++) {
+                    result[p] += values[p];
+                }
+            }
+            if (count == 0) {
+                result = chanceValue(state, next, remaining - 1);
+            } else {
+                for (int p = 0; p < playerCount; p++) {
+                    result[p] /= count;
+                }
+            }
+        }
+        table.put(key, remaining, result);
+        return result;
+    }
+
+    /** Value of the best move for the given roll, or {@code null} if no figure can move. */
+    private double[] decisionValue(CompactBoards state, int player, int roll, int remaining) {
+        int mask = state.getMovableMask(0, player, roll);
+        if (mask == 0) return null;
+        int[] figures = bits(mask);
+        double[][] values;
+        if (figures.length > 1 && shouldSplit(remaining)) {
+            List<ForkJoinTask<double[]>> tasks = new ArrayList<>(figures.length);
+            for (int figure : figures) {
+                tasks.add(ForkJoinTask.adapt(() -> moveValue(state, player, figure, roll, remaining)));
+            }
+            values = joinAll(tasks);
+        } else {
+            values = new double[figures.length][];
+            for (int i = 0; i < figures.length; i++) {
+                values[i] = moveValue(state, player, figures[i], roll, remaining);
+            }
+        }
+        double[] best = values[0];
+        for (int i = 1; i < values.length; i++) {
+            if (values[i][player] > best[player]) best = values[i];
+        }
+        return best;
+    }
+
+    /** Value after moving {@code figure}; the turn then passes to the next player. */
+    private double[] moveValue(CompactBoards state, int player, int figure, int roll, int remaining) {
+        CompactBoards child = state.copy(0);
+        child.applyMove(0, player, figure, roll);
+        if (child.isAllInGoal(0, player)) {
+            double[] values = new double[playerCount];
+            for (int p = 0; p < playerCount; p++) {
+                values[p] = p == player ? WIN_SCORE : -WIN_SCORE;
+            }
+            return values;
+        }
+        return chanceValue(child, (player + 1) % playerCount, remaining - 1);
+    }
+
+    /**
+     * Static evaluation: each player's value is its progress score minus the best opponent's score.
+     * Figures score their progress on the ring; figures in the goal score a full lap plus a bonus.
+     */
+    private double[] evaluate(CompactBoards state) {
+        int ringSize = topology.getRingSize();
+        double[] scores = new double[playerCount];
+        for (int p = 0; p < playerCount; p++) {
+            for (int f = 0; f < figuresPerPlayer; f++) {
+                int progress = state.getProgress(0, p, f);
+                if (progress >= ringSize) {
+                    scores[p] += ringSize + 10 + (progress - ringSize);
+                } else if (progress != BoardTopology.HOUSE) {
+                    scores[p] += 1 + progress;
+                }
+            }
+        }
+        double[] values = new double[playerCount];
+        for (int p = 0; p < playerCount; p++) {
+            double bestOpponent = Double.NEGATIVE_INFINITY;
+            for (int q = 0; q < playerCount; q++) {
+                if (q != p && scores[q] > bestOpponent) bestOpponent = scores[q];
+            }
+            values[p] = playerCount == 1 ? scores[p] : scores[p] - bestOpponent;
+        }
+        return values;
+    }
+
+    private long hash(CompactBoards state, int player) {
+        int stride = topology.getPathLength() + 1;
+        long key = playerKeys[player];
+        for (int p = 0; p < playerCount; p++) {
+            for (int f = 0; f < figuresPerPlayer; f++) {
+                key ^= figureKeys[(p * figuresPerPlayer + f) * stride + state.getProgress(0, p, f) + 1];
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Split only subtrees deep enough to outweigh the task overhead, and only while this worker
+     * has few queued tasks that idle workers could steal.
+     */
+    private static boolean shouldSplit(int remaining) {
+        return remaining > SEQUENTIAL_DEPTH && ForkJoinTask.inForkJoinPool()
+                && ForkJoinTask.getSurplusQueuedTaskCount() <= MAX_SURPLUS_TASKS;
+    }
+
+    private static double[][] joinAll(List<ForkJoinTask<double[]>> tasks) {
+        ForkJoinTask.invokeAll(tasks);
+        double[][] values = new double[tasks.size()][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = tasks.get(i).join();
+        }
+        return values;
+    }
+
+    private static int[] bits(int mask) {
+        int[] indices = new int[Integer.bitCount(mask)];
+        for (int i = 0; mask != 0; i++) {
+            indices[i] = Integer.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+        }
+        return indices;
+    }
+}
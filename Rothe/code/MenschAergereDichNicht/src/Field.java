@@ -4,7 +4,7 @@
  * `Occupation` describing which player's figure stands on it.
  */
 public class Field {
-    private final Occupation occupation;
+    private Occupation occupation; // created when the first figure arrives, most ring and goal fields stay empty
     private Field next; // reference to the next field in the board (for circular board)
     private final int index; // index of the field for easier identification
     private final FieldType type;
@@ -28,7 +28,7 @@ public class Field {
         if (type == null) throw new IllegalArgumentException("Field type must not be null");
         this.index = index;
         this.type = type;
-        this.occupation = new Occupation();
+        this.occupation = null;
         this.next = null;
     }
 
@@ -38,7 +38,7 @@ public class Field {
      * @return {@code true} when a figure occupies this field, {@code false} otherwise
      */
     public boolean isOccupied() {
-        return this.occupation.isOccupied();
+        return this.occupation != null && this.occupation.isOccupied();
     }
 
     /**
@@ -47,7 +47,17 @@ public class Field {
      * @return occupying {@link GameFigure} or {@code null}
      */
     public GameFigure getOccupant() {
-        return this.occupation.getGameFigure();
+        return this.occupation == null ? null : this.occupation.getGameFigure();
+    }
+
+    /**
+     * Get all figures standing on this field.
+     *
+     * @return a copy of the occupying figures, empty when the field is free
+     */
+    public java.util.List<GameFigure> getOccupants() {
+        if (this.occupation == null) return new java.util.ArrayList<>();
+        return this.occupation.getFigures();
     }
 
     /**
@@ -127,7 +137,9 @@ public class Field {
      */
     public void addFigure(GameFigure figure) {
         if (figure == null) throw new IllegalArgumentException("figure must not be null");
-        if (!this.occupation.canAccept(figure.getOwner())) {
+        if (this.occupation == null) {
+            this.occupation = new Occupation();
+        } else if (!this.occupation.canAccept(figure.getOwner())) {
             for (GameFigure fig : this.occupation.getFigures()) {
                 fig.moveToHouse();
             }
@@ -144,6 +156,7 @@ public class Field {
      * @param figure the figure to remove
      */
     public void removeFigure(GameFigure figure) {
+        if (this.occupation == null) return;
         this.occupation.removeFigure(figure);
     }
 
@@ -160,6 +173,7 @@ public class Field {
      * @param notifyFigures if {@code true} will notify figures to clear their references
      */
     public void clearOccupant(boolean notifyFigures) {
+        if (this.occupation == null) return;
         if (notifyFigures) {
             for (GameFigure fig : this.occupation.getFigures()) {
                 fig.clearField();
@@ -175,7 +189,7 @@ public class Field {
      */
     @Override
     public String toString() {
-        java.util.List<GameFigure> figs = this.occupation.getFigures();
+        java.util.List<GameFigure> figs = this.getOccupants();
         if (figs.isEmpty()) return "Field(" + index + "): <empty>";
         StringBuilder sb = new StringBuilder("Field(" + index + "): ");
         for (int i = 0; i < figs.size(); i++) {
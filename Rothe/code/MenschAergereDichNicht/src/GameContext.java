@@ -0,0 +1,40 @@
+/**
+ * A headless game that is played many times. The board, players and figures are created once;
+ * {@link #play(long)} resets them in place and reseeds all dice and strategies before each game,
+ * so repeated simulation allocates no new game setup.
+ * Contexts are handed out by a {@link GameContextPool} and must only be used by one thread at a time.
+ */
+public class GameContext {
+    private final GameContextPool pool;
+    private final GameManager manager;
+
+    GameContext(GameContextPool pool, GameManager manager) {
+        this.pool = pool;
+        this.manager = manager;
+    }
+
+    /**
+     * Reset the game and play it to the end. The same seed always produces the same result.
+     *
+     * @param seed seed of the dice and strategies
+     * @return result of the game
+     */
+    public GameResult play(long seed) {
+        manager.reset(seed);
+        manager.runGame();
+        return manager.getLastResult();
+    }
+
+    /**
+     * Get the underlying game, e.g. to register listeners.
+     *
+     * @return the game manager
+     */
+    public GameManager getManager() {
+        return manager;
+    }
+
+    GameContextPool getPool() {
+        return pool;
+    }
+}
@@ -0,0 +1,70 @@
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out reusable {@link GameContext}s of one board configuration to worker threads.
+ * A context is created only when no idle one is available, so after warm-up the number of
+ * contexts equals the number of concurrently playing threads and no further game setup is allocated.
+ */
+public class GameContextPool {
+    private final int playerCount;
+    private final int figuresPerPlayer;
+    private final int fieldsPerPlayer;
+    private final I_PlayerFactory[] seats;
+    private final ConcurrentLinkedQueue<GameContext> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger created = new AtomicInteger();
+
+    /**
+     * Create an empty pool.
+     *
+     * @param playerCount players per game
+     * @param figuresPerPlayer figures per player
+     * @param fieldsPerPlayer ring fields per player, 0 for the classic board size
+     * @param seats factories creating the players, seat {@code p} uses {@code seats[p % seats.length]};
+     *              all seats play {@link PlayerPC} when none are given
+     */
+    public GameContextPool(int playerCount, int figuresPerPlayer, int fieldsPerPlayer, I_PlayerFactory... seats) {
+        BoardGenerator.checkConfiguration(playerCount, fieldsPerPlayer, figuresPerPlayer);
+        this.playerCount = playerCount;
+        this.figuresPerPlayer = figuresPerPlayer;
+        this.fieldsPerPlayer = fieldsPerPlayer;
+        this.seats = seats.length == 0 ? new I_PlayerFactory[] { PlayerPC::new } : seats.clone();
+    }
+
+    /**
+     * Take an idle context, creating a new one if none is available.
+     *
+     * @return a context owned by the caller until {@link #release(GameContext)}
+     */
+    public GameContext acquire() {
+        GameContext context = idle.poll();
+        if (context != null) return context;
+        created.incrementAndGet();
+        return new GameContext(this, new GameManager(playerCount, figuresPerPlayer, fieldsPerPlayer, new VisualNone(), seats));
+    }
+
+    /**
+     * Return a context to the pool. The caller must not use it afterwards.
+     *
+     * @param context a context acquired from this pool
+     */
+    public void release(GameContext context) {
+        if (context == null || context.getPool() != this) {
+            throw new IllegalArgumentException("Context does not belong to this pool");
+        }
+        idle.offer(context);
+    }
+
+    /**
+     * Get the number of contexts created so far.
+     *
+     * @return created contexts
+     */
+    public int getCreatedCount() {
+        return created.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+}
@@ -42,8 +42,10 @@ public class GameFigure {
     public void setField(Field newField) {
         // if (this.field == newField) return;
         // remove from old field
-        this.field.removeFigure(this);
+        Field oldField = this.field;
+        oldField.removeFigure(this);
         this.field = newField;
+        this.owner.onFigureRelocated(this, oldField, newField);
         this.field.addFigure(this);
     }
 
@@ -58,7 +60,9 @@ public class GameFigure {
     /** Clear used by Field when removing occupant. */
     public void clearField() {
         // Called when a field clears its occupants: move this figure back to its house
+        Field oldField = this.field;
         this.field = this.house;
+        this.owner.onFigureRelocated(this, oldField, this.house);
     }
 
     /** Move this figure forward by the given number of fields. This will update both sides (old and new fields). */
@@ -71,10 +75,12 @@ public class GameFigure {
         newField = this.field.getDestination(numSteps, true);
         
         // remove from old field (clear occupants on this single figure)
-        if (!this.field.isHouse()) {
-            this.field.removeFigure(this);
+        Field oldField = this.field;
+        if (!oldField.isHouse()) {
+            oldField.removeFigure(this);
         }
         this.field = newField;
+        this.owner.onFigureRelocated(this, oldField, newField);
         // set on new field if it exists and is not a house
         if (!this.field.isHouse()) {
             this.field.addFigure(this);
@@ -0,0 +1,296 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Checks move logs written by {@link GameLogWriter}: every recorded roll and move must be legal under
+ * the {@link I_RuleSet} of the game. The log is read once; its lines are grouped by game and every
+ * finished game is replayed on a thread pool on a reused object-model game ({@link GameContextPool}), exactly
+ * like {@link GameManager#runGame()} plays it:
+ * <ul>
+ *   <li>only the player on turn rolls, and only while {@link I_RuleSet#checkRoll(Player)} allows it,</li>
+ *   <li>a player must move when {@link I_RuleSet#checkMove(Player, int)} offers a figure, and only such a figure,</li>
+ *   <li>the turn passes only once it is over, and the game ends exactly when the claimed winner has won.</li>
+ * </ul>
+ * Replay of a game stops at its first violation, since the position is unreliable afterwards.
+ * Games still open at the end of the log are checked as far as they go and counted as incomplete.
+ */
+public final class GameLogValidator {
+    private final int threads;
+    private final Map<String, GameContextPool> pools = new ConcurrentHashMap<>();
+
+    /**
+     * A recorded event that breaks the rules.
+     */
+    public static final class Violation {
+        private final String game;
+        private final int turn;
+        private final String message;
+
+        Violation(String game, int turn, String message) {
+            this.game = game;
+            this.turn = turn;
+            this.message = message;
+        }
+
+        public String getGame() {
+            return game;
+        }
+
+        /**
+         * Get the turn (counted from 0) of the violation.
+         */
+        public int getTurn() {
+            return turn;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "game " + game + ", turn " + turn + ": " + message;
+        }
+    }
+
+    /**
+     * Counts of a validated log.
+     */
+    public static final class Summary {
+        private final long games;
+        private final long events;
+        private final long incomplete;
+        private final long violations;
+
+        Summary(long games, long events, long incomplete, long violations) {
+            this.games = games;
+            this.events = events;
+            this.incomplete = incomplete;
+            this.violations = violations;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getEvents() {
+            return events;
+        }
+
+        public long getIncomplete() {
+            return incomplete;
+        }
+
+        public long getViolations() {
+            return violations;
+        }
+    }
+
+    /**
+     * Create a validator.
+     *
+     * @param threads number of threads replaying games
+     */
+    public GameLogValidator(int threads) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+        this.threads = threads;
+    }
+
+    /**
+     * Validate a log. Violations are reported in the order in which their games end in the log.
+     *
+     * @param in the log
+     * @param violations receives every violation
+     * @return counts of the log
+     * @throws IOException if reading fails
+     * @throws InterruptedException if interrupted while waiting for the replays
+     */
+    public Summary validate(BufferedReader in, Consumer<Violation> violations) throws IOException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Map<String, List<String>> open = new LinkedHashMap<>();
+        // replays are reported in order; the window bounds the finished games held in memory
+        ArrayDeque<Future<Violation>> pending = new ArrayDeque<>();
+        int window = 64 * threads;
+        long games = 0;
+        long events = 0;
+        long violationCount = 0;
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                events++;
+                int space = line.indexOf(' ');
+                String game = space < 0 ? line : line.substring(0, space);
+                List<String> lines = open.computeIfAbsent(game, g -> new ArrayList<>());
+                String event = space < 0 ? "" : line.substring(space + 1);
+                lines.add(event);
+                if (!event.startsWith("end")) continue;
+                open.remove(game);
+                games++;
+                pending.add(executor.submit(() -> check(game, lines)));
+                while (pending.size() > window) {
+                    violationCount += report(pending.remove(), violations);
+                }
+            }
+            long incomplete = open.size();
+            for (Map.Entry<String, List<String>> entry : open.entrySet()) {
+                games++;
+                pending.add(executor.submit(() -> check(entry.getKey(), entry.getValue())));
+            }
+            while (!pending.isEmpty()) {
+                violationCount += report(pending.remove(), violations);
+            }
+            return new Summary(games, events, incomplete, violationCount);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int report(Future<Violation> replay, Consumer<Violation> violations) throws InterruptedException {
+        try {
+            Violation violation = replay.get();
+            if (violation == null) return 0;
+            violations.accept(violation);
+            return 1;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Replay failed", e.getCause());
+        }
+    }
+
+    /**
+     * Replay the events of one game.
+     *
+     * @param game id of the game
+     * @param lines events of the game without the game id, in log order
+     * @return the first violation, or {@code null} if all events are legal
+     */
+    Violation check(String game, List<String> lines) {
+        String[] header = lines.get(0).split(" ");
+        if (header.length != 2 || !header[0].equals("new")) return new Violation(game, 0, "game does not start with 'new'");
+        String[] board = header[1].split("[x:]");
+        GameContextPool pool;
+        try {
+            if (board.length != 3) throw new IllegalArgumentException("Board must be <players>x<figures>:<fieldsPerPlayer>");
+            BoardTopology topology = BoardGenerator.shared(Integer.parseInt(board[0]), Integer.parseInt(board[2]), Integer.parseInt(board[1]));
+            String key = topology.getPlayerCount() + "x" + topology.getFiguresPerPlayer() + ":" + topology.getFieldsPerPlayer();
+            pool = pools.computeIfAbsent(key, k -> new GameContextPool(topology.getPlayerCount(),
+                    topology.getFiguresPerPlayer(), topology.getFieldsPerPlayer()));
+        } catch (IllegalArgumentException e) {
+            return new Violation(game, 0, "invalid board '" + header[1] + "': " + e.getMessage());
+        }
+        GameContext context = pool.acquire();
+        Violation violation = replay(game, lines, context.getManager());
+        // the rule set keeps per-turn state, so a game abandoned within a turn is not reused
+        if (violation == null && lines.get(lines.size() - 1).startsWith("end")) pool.release(context);
+        return violation;
+    }
+
+    private static Violation replay(String game, List<String> lines, GameManager manager) {
+        manager.reset(0);
+        I_RuleSet rules = manager.getRuleSet();
+        Player[] players = manager.getPlayers();
+        int current = 0;
+        int turn = 0;
+        boolean rolled = false; // the current player has rolled in this turn
+        for (int i = 1; i < lines.size(); i++) {
+            String[] event = lines.get(i).split(" ");
+            Player player = players[current];
+            if (event[0].equals("end")) {
+                if (event.length != 2) return new Violation(game, turn, "malformed event '" + lines.get(i) + "'");
+                if (!rolled || rules.checkRoll(player)) {
+                    return new Violation(game, turn, "game ended while P" + (current + 1) + " may still roll");
+                }
+                if (!rules.checkWin(player)) return new Violation(game, turn, "game ended but P" + (current + 1) + " has not won");
+                if (!event[1].equals(String.valueOf(current + 1))) {
+                    return new Violation(game, turn, "winner recorded as P" + event[1] + ", but P" + (current + 1) + " won");
+                }
+                if (i != lines.size() - 1) return new Violation(game, turn, "events after the end of the game");
+                return null;
+            }
+            int who;
+            int roll;
+            int figure;
+            try {
+                if (event.length != 3) throw new NumberFormatException();
+                who = Integer.parseInt(event[0]) - 1;
+                roll = Integer.parseInt(event[1]);
+                figure = event[2].equals("-") ? -1 : Integer.parseInt(event[2]);
+            } catch (NumberFormatException e) {
+                return new Violation(game, turn, "malformed event '" + lines.get(i) + "'");
+            }
+            if (who != current) {
+                if (!rolled) return new Violation(game, turn, "P" + (who + 1) + " rolled, but P" + (current + 1) + " is on turn");
+                if (rules.checkRoll(player)) {
+                    return new Violation(game, turn, "P" + (who + 1) + " rolled, but the turn of P" + (current + 1) + " is not over");
+                }
+                if (rules.checkWin(player)) return new Violation(game, turn, "P" + (who + 1) + " rolled after P" + (current + 1) + " won");
+                current = (current + 1) % players.length;
+                player = players[current];
+                rules.resetLastAction();
+                turn++;
+                rolled = false;
+                if (who != current) return new Violation(game, turn, "P" + (who + 1) + " rolled, but P" + (current + 1) + " is on turn");
+            }
+            if (!rules.checkRoll(player)) return new Violation(game, turn, "P" + (current + 1) + " may not roll again in this turn");
+            rolled = true;
+            if (roll < 1 || roll > 6) return new Violation(game, turn, "P" + (current + 1) + " rolled an invalid " + roll);
+            List<GameFigure> movable = rules.checkMove(player, roll);
+            if (figure < 0) {
+                if (!movable.isEmpty()) {
+                    return new Violation(game, turn, "P" + (current + 1) + " did not move with a " + roll + ", but could move " + movable.size() + " figure(s)");
+                }
+                continue;
+            }
+            GameFigure chosen = null;
+            for (GameFigure candidate : movable) {
+                if (candidate.getId() == figure) chosen = candidate;
+            }
+            if (chosen == null) {
+                return new Violation(game, turn, "P" + (current + 1) + " moved figure " + figure + ", which cannot move with a " + roll);
+            }
+            // the same move as GameManager#runGame(); Field#addFigure sends captured figures home
+            if (chosen.getField().isHouse()) {
+                chosen.moveOutOfHouse();
+            } else {
+                chosen.move(roll);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Validate a move log and print every violation.
+     * Usage: {@code GameLogValidator log [threads]}; exits with status 1 if a violation was found.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: GameLogValidator log [threads]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        Summary summary;
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            summary = new GameLogValidator(threads).validate(in, System.out::println);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games (%d incomplete), %d events, %d violation(s) in %.2f s (%.0f events/s)%n",
+                summary.getGames(), summary.getIncomplete(), summary.getEvents(), summary.getViolations(),
+                seconds, summary.getEvents() / seconds);
+        if (summary.getViolations() > 0) System.exit(1);
+    }
+}
@@ -0,0 +1,111 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Records the rolls and moves of a game as a text move log, e.g. for games played through a server.
+ * Several games may write into the same log; every line starts with the game id and lines are written
+ * atomically, so games can interleave. The log is checked by {@link GameLogValidator}.
+ *
+ * One line per event, fields separated by a space:
+ * <pre>
+ * &lt;game&gt; new &lt;players&gt;x&lt;figures&gt;:&lt;fieldsPerPlayer&gt;
+ * &lt;game&gt; &lt;player&gt; &lt;roll&gt; &lt;figure&gt;     a roll and the figure moved with it, {@code -} for none
+ * &lt;game&gt; end &lt;winner&gt;
+ * </pre>
+ * Players are counted from 1, figures from 0 (see {@link PositionNotation}). Lines starting with {@code #}
+ * are comments.
+ */
+public class GameLogWriter implements I_GameListener {
+    private final PrintWriter out;
+    private final String game;
+    private final BoardTopology topology;
+    private int pendingPlayer = -1; // player of a roll not written yet, -1 for none
+    private int pendingRoll;
+    private boolean started;
+
+    /**
+     * Create a recorder for one game.
+     *
+     * @param out log shared by any number of recorders
+     * @param game id of the game, must not contain whitespace
+     * @param topology board of the game
+     */
+    public GameLogWriter(PrintWriter out, String game, BoardTopology topology) {
+        if (game.isEmpty() || game.chars().anyMatch(Character::isWhitespace) || game.startsWith("#")) {
+            throw new IllegalArgumentException("Invalid game id: '" + game + "'");
+        }
+        this.out = out;
+        this.game = game;
+        this.topology = topology;
+    }
+
+    @Override
+    public void onRoll(Player player, int rollValue) {
+        flushRoll("-");
+        if (!started) {
+            write(game + " new " + topology.getPlayerCount() + "x" + topology.getFiguresPerPlayer() + ":" + topology.getFieldsPerPlayer());
+            started = true;
+        }
+        pendingPlayer = player.getId();
+        pendingRoll = rollValue;
+    }
+
+    @Override
+    public void onMove(Player player, GameFigure figure, Field from, Field to) {
+        flushRoll(String.valueOf(figure.getId()));
+    }
+
+    @Override
+    public void onTurnEnd(Player player) {
+        flushRoll("-");
+    }
+
+    @Override
+    public void onGameEnd(GameResult result) {
+        write(game + " end " + (result.getWinner() + 1));
+        started = false;
+    }
+
+    private void flushRoll(String figure) {
+        if (pendingPlayer < 0) return;
+        write(game + " " + (pendingPlayer + 1) + " " + pendingRoll + " " + figure);
+        pendingPlayer = -1;
+    }
+
+    private void write(String line) {
+        synchronized (out) {
+            out.println(line);
+        }
+    }
+
+    /**
+     * Write the log of seeded {@link PlayerPC} games, played in parallel so the games interleave.
+     * Usage: {@code GameLogWriter file [games] [players] [figures]}
+     */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int figures = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        GameContextPool pool = new GameContextPool(players, figures, 0);
+        try (BufferedWriter file = Files.newBufferedWriter(Paths.get(args[0]), StandardCharsets.UTF_8);
+             PrintWriter out = new PrintWriter(file)) {
+            java.util.stream.IntStream.range(0, games).parallel().forEach(g -> {
+                GameContext context = pool.acquire();
+                GameManager manager = context.getManager();
+                GameLogWriter writer = new GameLogWriter(out, "g" + g, manager.getTopology());
+                manager.addListener(writer);
+                try {
+                    context.play(g);
+                } finally {
+                    manager.removeListener(writer);
+                    pool.release(context);
+                }
+            });
+            if (out.checkError()) throw new IOException("Writing " + args[0] + " failed");
+        }
+    }
+}
@@ -3,77 +3,114 @@ public class GameManager {
     private final Player[] players;
     private final I_RuleSet ruleSet;
     private final I_Visual visual;
+    private final BoardTopology topology;
+    private final ThreatMap threatMap;
     private static final int PLAYER_COUNT_MIN = 4;
-    private static final int PLAYER_COUNT_MAX = 4;
+    private static final int PLAYER_COUNT_MAX = BoardGenerator.PLAYER_COUNT_MAX;
     private static final int FIGURES_PER_PLAYER_MIN = 1;
-    private static final int FIGURES_PER_PLAYER_MAX = 4;
+    private static final int FIGURES_PER_PLAYER_MAX = BoardGenerator.FIGURES_PER_PLAYER_MAX;
+    private static final long INTERACTIVE_TURN_DELAY_MS = 1000;
+    // time the human has per move before the computer moves instead, overridden by -DmoveTimeoutMillis (0: no limit)
+    private static final long INTERACTIVE_MOVE_TIMEOUT_MS = 30_000;
     private final int playerCount; // actual number of players chosen at runtime
-    // Shared scanner for all interactive console input. Do not close directly; closed via shutdown hook.
-    public static final java.util.Scanner SCANNER = new java.util.Scanner(System.in);
-
-    static {
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            try {
-                SCANNER.close();
-            } catch (Exception ignored) {
-            }
-        }));
-    }
-
+    private final long turnDelayMillis; // pause after each move, 0 for headless games
+    private final java.util.List<I_GameListener> listeners = new java.util.ArrayList<>();
+    private GameResult lastResult; // result of the last finished game, null before
+    private long seed; // seed of the current game, see reset(long)
+    private int sideToMove; // player whose turn is next or running
+    private volatile boolean pauseRequested;
     public GameManager() {
         // ask user for desired number of players (bounded by PLAYER_COUNT_MAX)
-        this.playerCount = this.initialPlayersInput();
-        // ask user how many figures per player
-        int figuresPerPlayer = this.initialFiguresInput();
-        this.visual = new VisualASCII();
-        this.ruleSet = new RuleSetStandard(this.playerCount);
+        // and how many figures per player, then play one game on the console
+        // the human plays the first seat, the computer all others
+        this(initialPlayersInput(), initialFiguresInput(), 0, new VisualASCII(), INTERACTIVE_TURN_DELAY_MS,
+                GameManager::createInteractivePlayer);
+        runGame();
+    }
+
+    /**
+     * Create a game without console interaction, e.g. for simulations on large boards.
+     * The game is set up but not started; call {@link #runGame()} to play it.
+     *
+     * @param playerCount number of players (1..{@value BoardGenerator#PLAYER_COUNT_MAX})
+     * @param figuresPerPlayer figures per player (1..{@value BoardGenerator#FIGURES_PER_PLAYER_MAX})
+     * @param fieldsPerPlayer ring fields between two start fields, 0 for the classic board size
+     * @param visual visualization receiving game events (e.g. {@link VisualNone})
+     */
+    public GameManager(int playerCount, int figuresPerPlayer, int fieldsPerPlayer, I_Visual visual) {
+        this(playerCount, figuresPerPlayer, fieldsPerPlayer, visual, 0, PlayerPC::new);
+    }
+
+    /**
+     * Create a game without console interaction with the given strategies.
+     * Seat {@code p} is created by {@code seats[p % seats.length]}.
+     *
+     * @param playerCount number of players
+     * @param figuresPerPlayer figures per player
+     * @param fieldsPerPlayer ring fields between two start fields, 0 for the classic board size
+     * @param visual visualization receiving game events
+     * @param seats factories creating the players
+     */
+    public GameManager(int playerCount, int figuresPerPlayer, int fieldsPerPlayer, I_Visual visual, I_PlayerFactory... seats) {
+        this(playerCount, figuresPerPlayer, fieldsPerPlayer, visual, 0, seats);
+    }
+
+    private GameManager(int playerCount, int figuresPerPlayer, int fieldsPerPlayer, I_Visual visual, long turnDelayMillis,
+                        I_PlayerFactory... seats) {
+        if (visual == null) throw new IllegalArgumentException("visual must not be null");
+        if (seats == null || seats.length == 0) throw new IllegalArgumentException("at least one player factory is required");
+        this.playerCount = playerCount;
+        this.visual = visual;
+        this.turnDelayMillis = turnDelayMillis;
+        this.topology = BoardGenerator.shared(playerCount, fieldsPerPlayer, figuresPerPlayer);
+        this.ruleSet = new RuleSetStandard(this.playerCount, this.topology.getFieldsPerPlayer());
 
-        //int numFields = this.ruleSet.getNumFields();
         int numFields = this.ruleSet.getNumFields();
-        this.fields = new Field[numFields];
-        // Precompute start indices so we can assign START type while creating fields
-        int[] startIndices = new int[this.playerCount];
-        for (int p = 0; p < this.playerCount; p++) {
-            startIndices[p] = p * (fields.length / this.playerCount);
-        }
-        for (int i = 0; i < fields.length; i++) {
-            boolean isStart = false;
-            for (int s : startIndices) if (s == i) { isStart = true; break; }
-            fields[i] = new Field(i, isStart ? FieldType.START : FieldType.NORMAL);
+        if (numFields != this.topology.getRingSize()) {
+            throw new IllegalArgumentException("Fields cannot be equally distributed among players");
         }
+        // The topology links the fields into a circular list and marks every player's start field
+        this.fields = this.topology.createFields();
 
-        // Link fields into a circular list: each field's next points to the following field,
-        // and the last field points back to the first.
-        for (int i = 0; i < fields.length; i++) {
-            Field next = fields[(i + 1) % fields.length];
-            fields[i].setNext(next);
-        }
         this.players = new Player[this.playerCount];
         for (int p = 0; p < players.length; p++) {
-            if (fields.length % players.length != 0) {
-                throw new IllegalArgumentException("Fields cannot be equally distributed among players");
-            }
-            int startIndex = p * (fields.length / players.length);
-            // if (p == 0) players[p] = new PlayerKeyboard(p,"Player " + (p + 1), figuresPerPlayer, fields[startIndex]);
-            // else players[p] = new PlayerPC(p,"Player " + (p + 1), figuresPerPlayer, fields[startIndex]);
-            players[p] = new PlayerPC(p,"Player " + (p + 1), figuresPerPlayer, fields[startIndex]);
+            int startIndex = this.topology.getStartIndex(p);
+            players[p] = seats[p % seats.length].create(p, "Player " + (p + 1), figuresPerPlayer, fields[startIndex]);
         }
-        resetGame();
-        runGame();
+        for (Player player : players) {
+            player.setBoard(this.topology, this.fields, this.players);
+        }
+        this.threatMap = new ThreatMap(this.topology, this.fields, this.players);
+        for (Player player : players) {
+            player.setThreatMap(this.threatMap);
+        }
+        // every game is seeded, so any result can be replayed with reset(result.getSeed())
+        reset(new java.util.Random().nextLong());
     }
 
-    private void runGame() { // ToDo
+    /**
+     * Play the game until one player has won, or until {@link #pause()} stops it at the end of a turn.
+     * The game continues from its current state, so a paused or restored game resumes with the player
+     * to move and the rolls it has already taken; the statistics of the result count from the resume.
+     *
+     * @return the winning player, or {@code null} if the game was paused
+     */
+    public Player runGame() {
         visual.displayMessage("Game Started!");
         visual.displayGameState(fields, players);
         visual.displayPlayboard(fields, players);
         
         boolean gameWon = false;
         Player winner = null;
-        int currentPlayerIndex = 0;
+        int turns = 0;
+        int[] rolls = new int[playerCount];
+        int[] houseExits = new int[playerCount];
+        int[][] captures = new int[playerCount][playerCount];
         
         // Main game loop
         while (!gameWon) {
             ruleSet.resetLastAction();
+            int currentPlayerIndex = this.sideToMove;
             Player currentPlayer = players[currentPlayerIndex];
             visual.displayCurrentPlayer(currentPlayer);
             
@@ -88,6 +125,10 @@ public class GameManager {
                 // Roll the die
                 int rollValue = currentPlayer.roll();
                 visual.displayRoll(currentPlayer, rollValue);
+                rolls[currentPlayerIndex]++;
+                for (I_GameListener listener : listeners) {
+                    listener.onRoll(currentPlayer, rollValue);
+                }
                 
                 // Check which figures can move
                 java.util.List<GameFigure> movableFigures = ruleSet.checkMove(currentPlayer, rollValue);
@@ -100,7 +141,7 @@ public class GameManager {
                 
                 // Player chooses a figure to move
                 GameFigure[] movableArray = movableFigures.toArray(new GameFigure[0]);
-                int chosenFigureIndex = currentPlayer.chooseFigure(movableArray);
+                int chosenFigureIndex = currentPlayer.selectFigure(movableArray);
                 
                 if (chosenFigureIndex < 0 || chosenFigureIndex >= currentPlayer.getFigures().length) {
                     // This should never happen if chooseFigure is implemented correctly
@@ -109,21 +150,39 @@ public class GameManager {
                 }
                 
                 GameFigure chosenFigure = currentPlayer.getFigures()[chosenFigureIndex];
+                Field origin = chosenFigure.getField();
+
+                // Opponent figures on the destination will be sent back to their house
+                Field destination = origin.getDestination(rollValue, true);
+                if (destination.isOccupied() && destination.getOccupant().getOwner() != currentPlayer) {
+                    for (GameFigure captured : destination.getOccupants()) {
+                        captures[currentPlayerIndex][captured.getOwner().getId()]++;
+                        for (I_GameListener listener : listeners) {
+                            listener.onCapture(chosenFigure, captured);
+                        }
+                    }
+                }
 
                 // Move the figure
-                if (chosenFigure.getField().isHouse()) {
+                if (origin.isHouse()) {
                     chosenFigure.moveOutOfHouse();
+                    houseExits[currentPlayerIndex]++;
                     visual.displayMove(currentPlayer, chosenFigure, 0);
                 } else {
                     chosenFigure.move(rollValue);
                     visual.displayMove(currentPlayer, chosenFigure, rollValue);
                 }
+                for (I_GameListener listener : listeners) {
+                    listener.onMove(currentPlayer, chosenFigure, origin, chosenFigure.getField());
+                }
 
                 // Wait a little before displaying to reduce flickering
-                try {
-                    Thread.sleep(1000);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+                if (turnDelayMillis > 0) {
+                    try {
+                        Thread.sleep(turnDelayMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
                 }
                 
                 // Display updated game state
@@ -132,17 +191,122 @@ public class GameManager {
                 break; // End turn after a successful move
             }
             
+            turns++;
+            // Next player's turn; advanced before the listeners, so a game saved at the end of a turn continues with it
+            if (!currentPlayer.isAllInGoal()) {
+                this.sideToMove = (currentPlayerIndex + 1) % playerCount;
+            }
+            for (I_GameListener listener : listeners) {
+                listener.onTurnEnd(currentPlayer);
+            }
+
             // Check for win
             if (ruleSet.checkWin(currentPlayer)) {
                 gameWon = true;
                 winner = currentPlayer;
-            } else {
-                // Next player's turn
-                currentPlayerIndex = (currentPlayerIndex + 1) % playerCount;
+            } else if (pauseRequested) {
+                pauseRequested = false;
+                return null;
             }
         }
         
         visual.displayWinner(winner);
+        this.lastResult = new GameResult(topology, players, seed, winner.getId(), turns, rolls, captures, houseExits);
+        for (I_GameListener listener : listeners) {
+            listener.onGameEnd(this.lastResult);
+        }
+        return winner;
+    }
+
+    /**
+     * Register a listener that is notified about rolls, moves, captures and finished games.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(I_GameListener listener) {
+        if (listener == null) throw new IllegalArgumentException("listener must not be null");
+        this.listeners.add(listener);
+    }
+
+    public void removeListener(I_GameListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Get the result of the last finished game.
+     *
+     * @return the result, or {@code null} if no game has finished yet
+     */
+    public GameResult getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Stop {@link #runGame()} at the end of the current turn, e.g. to park an idle game with {@link #saveState}.
+     * May be called from any thread; has no effect on a game that ends with this turn.
+     */
+    public void pause() {
+        this.pauseRequested = true;
+    }
+
+    /**
+     * Store the state of this game in a slot of a compact storage, e.g. to park an idle game:
+     * the figure positions, the player to move and the rolls it has taken in its turn.
+     * A parked game costs {@link CompactBoards#getBytesPerGame()} bytes instead of a full object graph.
+     * A roll that has not been played yet is not stored, so games are saved between turns (see {@link #pause()}).
+     *
+     * @param boards storage using this game's topology
+     * @param game target slot
+     */
+    public void saveState(CompactBoards boards, int game) {
+        if (boards.getTopology() != this.topology) throw new IllegalArgumentException("Topology mismatch");
+        boards.load(game, players);
+        boards.setTurn(game, sideToMove, ruleSet.getRollsThisTurn());
+    }
+
+    /**
+     * Replace the state of this game with the one stored in a slot of a compact storage;
+     * {@link #runGame()} then continues the stored game.
+     *
+     * @param boards storage using this game's topology
+     * @param game source slot
+     */
+    public void restoreState(CompactBoards boards, int game) {
+        if (boards.getTopology() != this.topology) throw new IllegalArgumentException("Topology mismatch");
+        ruleSet.resumeTurn(boards.getRollsThisTurn(game));
+        this.sideToMove = boards.getSideToMove(game);
+        // Empty the board first, so placing a figure never captures one that is about to move away
+        resetGame();
+        int ringSize = topology.getRingSize();
+        for (Player player : players) {
+            int p = player.getId();
+            for (GameFigure figure : player.getFigures()) {
+                int progress = boards.getProgress(game, p, figure.getId());
+                if (progress == BoardTopology.HOUSE) continue;
+                figure.setField(progress < ringSize
+                        ? fields[topology.getRingIndex(p, progress)]
+                        : player.getGoalFields()[progress - ringSize]);
+            }
+        }
+    }
+
+    /**
+     * Prepare this game for another run without allocating a new board: clears all fields,
+     * returns every figure to its house, gives the first turn to player 0 and reseeds the dice and strategies of all players.
+     * Listeners stay registered. The same seed always replays the same game.
+     *
+     * @param seed seed from which every player's seeds are derived
+     */
+    public void reset(long seed) {
+        this.seed = seed;
+        resetGame();
+        ruleSet.resumeTurn(0);
+        this.sideToMove = 0;
+        this.pauseRequested = false;
+        for (Player player : players) {
+            player.reseed(Die6.deriveSeed(seed, player.getId()));
+        }
+        this.lastResult = null;
     }
 
     private void resetGame() {
@@ -157,14 +321,21 @@ public class GameManager {
         }
     }
 
-    private int initialPlayersInput() {
-        int numPlayers = UserInput.readIntInRange("Enter number of players (" + PLAYER_COUNT_MIN + "-" + PLAYER_COUNT_MAX + "): ", PLAYER_COUNT_MIN, PLAYER_COUNT_MAX, SCANNER);
+    private static Player createInteractivePlayer(int id, String name, int numFigures, Field startField) {
+        if (id != 0) return new PlayerPC(id, name, numFigures, startField);
+        PlayerKeyboard human = new PlayerKeyboard(id, name, numFigures, startField);
+        human.setMoveTimeout(Long.getLong("moveTimeoutMillis", INTERACTIVE_MOVE_TIMEOUT_MS));
+        return human;
+    }
+
+    private static int initialPlayersInput() {
+        int numPlayers = UserInput.readIntInRange("Enter number of players (" + PLAYER_COUNT_MIN + "-" + PLAYER_COUNT_MAX + "): ", PLAYER_COUNT_MIN, PLAYER_COUNT_MAX, ConsoleReader.shared());
         System.out.println("Using " + numPlayers + " player.");
         return numPlayers;
     }
 
-    private int initialFiguresInput() {
-        int numFigures = UserInput.readIntInRange("Enter number of figures per player (" + FIGURES_PER_PLAYER_MIN + "-" + FIGURES_PER_PLAYER_MAX + "): ", FIGURES_PER_PLAYER_MIN, FIGURES_PER_PLAYER_MAX, SCANNER);
+    private static int initialFiguresInput() {
+        int numFigures = UserInput.readIntInRange("Enter number of figures per player (" + FIGURES_PER_PLAYER_MIN + "-" + FIGURES_PER_PLAYER_MAX + "): ", FIGURES_PER_PLAYER_MIN, FIGURES_PER_PLAYER_MAX, ConsoleReader.shared());
         System.out.println("Using " + numFigures + " figure(s) per player.");
         return numFigures;
     }
@@ -180,4 +351,12 @@ public class GameManager {
     public I_RuleSet getRuleSet() {
         return ruleSet;
     }
+
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    public ThreatMap getThreatMap() {
+        return threatMap;
+    }
 }
@@ -0,0 +1,114 @@
+/**
+ * Immutable summary of a finished game: board configuration, the strategy of every seat,
+ * the seed the game was played with, the winner, the number of turns and per-player statistics.
+ */
+public final class GameResult {
+    private final int playerCount;
+    private final int figuresPerPlayer;
+    private final int fieldsPerPlayer;
+    private final String[] strategies;
+    private final long seed;
+    private final int winner;
+    private final int turns;
+    private final int[] rolls;
+    private final int[][] captures;
+    private final int[] houseExits;
+
+    /**
+     * Create a result for a game played on the given board.
+     *
+     * @param topology board configuration of the game
+     * @param players players by seat; their class names are recorded as strategies
+     * @param seed seed of the dice and strategies, see {@link GameManager#reset(long)}
+     * @param winner seat id of the winner
+     * @param turns number of turns played
+     * @param rolls number of rolls per seat
+     * @param captures {@code captures[a][b]} = figures of seat {@code b} captured by seat {@code a}
+     * @param houseExits number of figures each seat moved out of its house
+     */
+    public GameResult(BoardTopology topology, Player[] players, long seed, int winner, int turns,
+                      int[] rolls, int[][] captures, int[] houseExits) {
+        this(topology.getPlayerCount(), topology.getFiguresPerPlayer(), topology.getFieldsPerPlayer(),
+                strategiesOf(players), seed, winner, turns, rolls, captures, houseExits);
+    }
+
+    GameResult(int playerCount, int figuresPerPlayer, int fieldsPerPlayer, String[] strategies, long seed, int winner,
+               int turns, int[] rolls, int[][] captures, int[] houseExits) {
+        if (winner < 0 || winner >= playerCount) throw new IllegalArgumentException("Invalid winner: " + winner);
+        this.playerCount = playerCount;
+        this.figuresPerPlayer = figuresPerPlayer;
+        this.fieldsPerPlayer = fieldsPerPlayer;
+        this.strategies = strategies.clone();
+        this.seed = seed;
+        this.winner = winner;
+        this.turns = turns;
+        this.rolls = rolls.clone();
+        this.captures = new int[playerCount][];
+        for (int p = 0; p < playerCount; p++) {
+            this.captures[p] = captures[p].clone();
+        }
+        this.houseExits = houseExits.clone();
+    }
+
+    static String[] strategiesOf(Player[] players) {
+        String[] names = new String[players.length];
+        for (int p = 0; p < players.length; p++) {
+            names[p] = players[p].getClass().getSimpleName();
+        }
+        return names;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getFiguresPerPlayer() {
+        return figuresPerPlayer;
+    }
+
+    public int getFieldsPerPlayer() {
+        return fieldsPerPlayer;
+    }
+
+    /**
+     * Get the strategy (player class name) playing on a seat.
+     */
+    public String getStrategy(int seat) {
+        return strategies[seat];
+    }
+
+    /**
+     * Get the seed the game was played with; resetting a game with this seed replays it.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getWinner() {
+        return winner;
+    }
+
+    public int getTurns() {
+        return turns;
+    }
+
+    public int getRolls(int seat) {
+        return rolls[seat];
+    }
+
+    /**
+     * Get how many figures of seat {@code victim} were captured by seat {@code capturer}.
+     */
+    public int getCaptures(int capturer, int victim) {
+        return captures[capturer][victim];
+    }
+
+    public int getHouseExits(int seat) {
+        return houseExits[seat];
+    }
+
+    @Override
+    public String toString() {
+        return "GameResult(seed=" + seed + ", winner=" + winner + " " + strategies[winner] + ", turns=" + turns + ")";
+    }
+}
@@ -0,0 +1,206 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Fixed-size binary encoding of the {@link GameResult}s of one configuration, used for journals and
+ * result batches. The configuration and the strategies of all seats are the same for every result and
+ * are therefore not part of a record; a record holds the seed, the winner, the number of turns and the
+ * per-seat rolls, captures and house exits.
+ */
+public final class GameResultCodec {
+    private final int playerCount;
+    private final int figuresPerPlayer;
+    private final int fieldsPerPlayer;
+    private final String[] strategies;
+
+    /**
+     * Create a codec for results of the given configuration.
+     *
+     * @param playerCount players per game
+     * @param figuresPerPlayer figures per player
+     * @param fieldsPerPlayer ring fields per player
+     * @param strategies strategy name of every seat
+     */
+    public GameResultCodec(int playerCount, int figuresPerPlayer, int fieldsPerPlayer, String[] strategies) {
+        if (strategies == null || strategies.length != playerCount) {
+            throw new IllegalArgumentException("Expected one strategy per seat");
+        }
+        this.playerCount = playerCount;
+        this.figuresPerPlayer = figuresPerPlayer;
+        this.fieldsPerPlayer = fieldsPerPlayer;
+        this.strategies = strategies.clone();
+    }
+
+    /**
+     * Create a codec for the results of a game.
+     *
+     * @param manager game whose configuration and seats are encoded
+     * @return codec for the game's results
+     */
+    public static GameResultCodec of(GameManager manager) {
+        BoardTopology topology = manager.getTopology();
+        return new GameResultCodec(topology.getPlayerCount(), topology.getFiguresPerPlayer(),
+                topology.getFieldsPerPlayer(), GameResult.strategiesOf(manager.getPlayers()));
+    }
+
+    /**
+     * Create a codec for a configuration without setting up a game.
+     *
+     * @param playerCount players per game
+     * @param figuresPerPlayer figures per player
+     * @param fieldsPerPlayer ring fields per player, 0 for the classic board size
+     * @param seats strategy of every seat, seat {@code p} plays {@code seats[p % seats.length]}
+     * @return codec for results of games of this configuration, like {@link #of(GameManager)}
+     */
+    @SafeVarargs
+    public static GameResultCodec of(int playerCount, int figuresPerPlayer, int fieldsPerPlayer, Class<? extends Player>... seats) {
+        if (seats.length == 0) throw new IllegalArgumentException("at least one strategy is required");
+        BoardTopology topology = BoardGenerator.shared(playerCount, fieldsPerPlayer, figuresPerPlayer);
+        String[] strategies = new String[playerCount];
+        for (int seat = 0; seat < playerCount; seat++) {
+            // the same names as GameResult.strategiesOf
+            strategies[seat] = seats[seat % seats.length].getSimpleName();
+        }
+        return new GameResultCodec(playerCount, figuresPerPlayer, topology.getFieldsPerPlayer(), strategies);
+    }
+
+    /**
+     * Create a codec matching a result.
+     *
+     * @param sample any result of the configuration
+     * @return codec for results like {@code sample}
+     */
+    public static GameResultCodec of(GameResult sample) {
+        String[] strategies = new String[sample.getPlayerCount()];
+        for (int seat = 0; seat < strategies.length; seat++) {
+            strategies[seat] = sample.getStrategy(seat);
+        }
+        return new GameResultCodec(sample.getPlayerCount(), sample.getFiguresPerPlayer(), sample.getFieldsPerPlayer(), strategies);
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getFiguresPerPlayer() {
+        return figuresPerPlayer;
+    }
+
+    public int getFieldsPerPlayer() {
+        return fieldsPerPlayer;
+    }
+
+    public String getStrategy(int seat) {
+        return strategies[seat];
+    }
+
+    /**
+     * Write the configuration and strategies, e.g. into a file header.
+     *
+     * @param out target
+     * @throws IOException if writing fails
+     */
+    public void writeHeader(DataOutput out) throws IOException {
+        out.writeInt(playerCount);
+        out.writeInt(figuresPerPlayer);
+        out.writeInt(fieldsPerPlayer);
+        for (String strategy : strategies) {
+            out.writeUTF(strategy);
+        }
+    }
+
+    /**
+     * Read a codec written by {@link #writeHeader(DataOutput)}.
+     *
+     * @param in source
+     * @return the codec
+     * @throws IOException if reading fails or the header is invalid
+     */
+    public static GameResultCodec readHeader(DataInput in) throws IOException {
+        int playerCount = in.readInt();
+        int figuresPerPlayer = in.readInt();
+        int fieldsPerPlayer = in.readInt();
+        if (playerCount <= 0 || playerCount > BoardGenerator.PLAYER_COUNT_MAX) throw new IOException("Invalid player count: " + playerCount);
+        String[] strategies = new String[playerCount];
+        for (int seat = 0; seat < playerCount; seat++) {
+            strategies[seat] = in.readUTF();
+        }
+        return new GameResultCodec(playerCount, figuresPerPlayer, fieldsPerPlayer, strategies);
+    }
+
+    /**
+     * Check whether another codec encodes the same configuration and strategies.
+     *
+     * @param other codec to compare with
+     * @return {@code true} if records of both codecs are interchangeable
+     */
+    public boolean matches(GameResultCodec other) {
+        return other.playerCount == playerCount && other.figuresPerPlayer == figuresPerPlayer
+                && other.fieldsPerPlayer == fieldsPerPlayer && Arrays.equals(other.strategies, strategies);
+    }
+
+    /**
+     * Get the size of one record in bytes.
+     *
+     * @return record size
+     */
+    public int getRecordSize() {
+        // seed, winner, turns, rolls, captures, house exits
+        return Long.BYTES + 1 + Integer.BYTES + (2 * playerCount + playerCount * playerCount) * Integer.BYTES;
+    }
+
+    /**
+     * Append a result at the buffer's position.
+     *
+     * @param buffer target with at least {@link #getRecordSize()} bytes remaining
+     * @param result result of this codec's configuration
+     */
+    public void write(ByteBuffer buffer, GameResult result) {
+        if (result.getPlayerCount() != playerCount) throw new IllegalArgumentException("Result of another configuration");
+        buffer.putLong(result.getSeed());
+        buffer.put((byte) result.getWinner());
+        buffer.putInt(result.getTurns());
+        for (int seat = 0; seat < playerCount; seat++) {
+            buffer.putInt(result.getRolls(seat));
+        }
+        for (int seat = 0; seat < playerCount; seat++) {
+            for (int victim = 0; victim < playerCount; victim++) {
+                buffer.putInt(result.getCaptures(seat, victim));
+            }
+        }
+        for (int seat = 0; seat < playerCount; seat++) {
+            buffer.putInt(result.getHouseExits(seat));
+        }
+    }
+
+    /**
+     * Read the result at the buffer's position.
+     *
+     * @param buffer source with at least {@link #getRecordSize()} bytes remaining
+     * @return the decoded result
+     */
+    public GameResult read(ByteBuffer buffer) {
+        long seed = buffer.getLong();
+        int winner = buffer.get();
+        int turns = buffer.getInt();
+        int[] rolls = new int[playerCount];
+        int[][] captures = new int[playerCount][playerCount];
+        int[] houseExits = new int[playerCount];
+        for (int seat = 0; seat < playerCount; seat++) {
+            rolls[seat] = buffer.getInt();
+        }
+        for (int seat = 0; seat < playerCount; seat++) {
+            for (int victim = 0; victim < playerCount; victim++) {
+                captures[seat][victim] = buffer.getInt();
+            }
+        }
+        for (int seat = 0; seat < playerCount; seat++) {
+            houseExits[seat] = buffer.getInt();
+        }
+        return new GameResult(playerCount, figuresPerPlayer, fieldsPerPlayer, strategies, seed, winner, turns,
+                rolls, captures, houseExits);
+    }
+}
@@ -0,0 +1,122 @@
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Simulated games as a lazy {@link Stream} of {@link GameResult}s.
+ * Game {@code i} of a stream is played with seed {@code seed + i} (like game {@code i} of a {@link Tournament}),
+ * so every game depends only on its position in the stream. A parallel stream therefore yields the same
+ * results for the same seed no matter how the fork/join pool splits the work, e.g.
+ * {@code GameResults.stream(4, 4, 0, 42, n).parallel().collect(ResultCollector.collecting(50, 20))}.
+ *
+ * Games are played with {@link GameManager} and {@link RuleSetStandard} on pooled {@link GameContext}s.
+ */
+public final class GameResults {
+    private GameResults() {
+    }
+
+    /**
+     * Get an infinite stream of games with the given configuration.
+     *
+     * @param playerCount players per game
+     * @param figuresPerPlayer figures per player
+     * @param fieldsPerPlayer ring fields per player, 0 for the classic board size
+     * @param seed seed of the first game
+     * @param seats factories creating the players, seat {@code p} uses {@code seats[p % seats.length]};
+     *              all seats play {@link PlayerPC} when none are given
+     * @return a sequential, ordered stream of unknown size; use {@link Stream#limit(long)} to bound it
+     */
+    public static Stream<GameResult> stream(int playerCount, int figuresPerPlayer, int fieldsPerPlayer, long seed,
+                                            I_PlayerFactory... seats) {
+        GameContextPool pool = new GameContextPool(playerCount, figuresPerPlayer, fieldsPerPlayer, seats);
+        return StreamSupport.stream(new SeedRangeSpliterator(pool, seed, 0, Long.MAX_VALUE, false), false);
+    }
+
+    /**
+     * Get a stream of a given number of games with the given configuration. Its size is known, so e.g.
+     * {@link Stream#toArray()} allocates the result once and {@link Stream#count()} plays no games.
+     *
+     * @param playerCount players per game
+     * @param figuresPerPlayer figures per player
+     * @param fieldsPerPlayer ring fields per player, 0 for the classic board size
+     * @param seed seed of the first game
+     * @param games number of games
+     * @param seats factories creating the players, seat {@code p} uses {@code seats[p % seats.length]};
+     *              all seats play {@link PlayerPC} when none are given
+     * @return a sequential, ordered stream of {@code games} results
+     */
+    public static Stream<GameResult> stream(int playerCount, int figuresPerPlayer, int fieldsPerPlayer, long seed,
+                                            long games, I_PlayerFactory... seats) {
+        if (games < 0) throw new IllegalArgumentException("games must not be negative");
+        GameContextPool pool = new GameContextPool(playerCount, figuresPerPlayer, fieldsPerPlayer, seats);
+        return StreamSupport.stream(new SeedRangeSpliterator(pool, seed, 0, games, true), false);
+    }
+
+    /**
+     * Splittable source of the games {@code [from, to)}. Splitting halves the index range, so every
+     * game keeps its seed regardless of which thread plays it. Only a bounded range reports its size;
+     * the range of an infinite stream merely stands for "until the consumer stops".
+     */
+    private static final class SeedRangeSpliterator implements Spliterator<GameResult> {
+        private final GameContextPool pool;
+        private final long seed;
+        private long from;
+        private final long to;
+        private final boolean sized;
+
+        SeedRangeSpliterator(GameContextPool pool, long seed, long from, long to, boolean sized) {
+            this.pool = pool;
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.sized = sized;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super GameResult> action) {
+            if (from >= to) return false;
+            GameContext context = pool.acquire();
+            try {
+                action.accept(context.play(seed + from++));
+            } finally {
+                pool.release(context);
+            }
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super GameResult> action) {
+            if (from >= to) return;
+            // one context for the whole remaining range
+            GameContext context = pool.acquire();
+            try {
+                while (from < to) {
+                    action.accept(context.play(seed + from++));
+                }
+            } finally {
+                pool.release(context);
+            }
+        }
+
+        @Override
+        public Spliterator<GameResult> trySplit() {
+            long size = to - from;
+            if (size < 2) return null;
+            long middle = from + size / 2;
+            SeedRangeSpliterator prefix = new SeedRangeSpliterator(pool, seed, from, middle, sized);
+            this.from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return sized ? ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE : ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+}
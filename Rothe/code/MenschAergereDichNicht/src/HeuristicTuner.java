@@ -0,0 +1,259 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Evolves weight vectors of {@link PlayerHeuristic} with a genetic algorithm.
+ * The fitness of a candidate is its win rate on seat 0 against {@link PlayerHeuristic}s with the default
+ * weights. All candidates of a generation play the same seeds, so they are compared on identical dice,
+ * and candidates are evaluated in parallel on the common fork/join pool. The games are pooled: a worker
+ * reuses one game and only swaps the weights of seat 0 for every candidate.
+ *
+ * Each generation keeps the best candidates, fills the rest with blended and mutated children of
+ * tournament-selected parents and is written to a checkpoint file, from which tuning can be resumed.
+ * Weight vectors are scaled to unit length, since only their direction changes the decisions.
+ */
+public class HeuristicTuner {
+    private static final int FILE_MAGIC = 0x4D485431; // "MHT1"
+    private static final int ELITES = 2;
+    private static final int SELECTION_SIZE = 3;
+    private static final double MUTATION_SIGMA = 0.15;
+
+    private final int playerCount;
+    private final int figuresPerPlayer;
+    private final int gamesPerCandidate;
+    private final GameContextPool pool; // seat 0 is the candidate, see rate
+    private double[][] population;
+    private double[] fitness;
+    private double[] bestWeights; // best candidate of the last rated generation
+    private int generation;
+
+    /**
+     * Create a tuner with a population around the default weights.
+     *
+     * @param playerCount players per game
+     * @param figuresPerPlayer figures per player
+     * @param populationSize number of candidates per generation
+     * @param gamesPerCandidate games played to rate one candidate
+     * @param seed seed of the initial population
+     */
+    public HeuristicTuner(int playerCount, int figuresPerPlayer, int populationSize, int gamesPerCandidate, long seed) {
+        if (populationSize <= ELITES) throw new IllegalArgumentException("populationSize must be larger than " + ELITES);
+        if (gamesPerCandidate <= 0) throw new IllegalArgumentException("gamesPerCandidate must be positive");
+        this.pool = new GameContextPool(playerCount, figuresPerPlayer, 0, PlayerHeuristic::new);
+        this.playerCount = playerCount;
+        this.figuresPerPlayer = figuresPerPlayer;
+        this.gamesPerCandidate = gamesPerCandidate;
+        Random random = new Random(seed);
+        this.population = new double[populationSize][];
+        this.population[0] = normalize(PlayerHeuristic.getDefaultWeights());
+        for (int i = 1; i < populationSize; i++) {
+            this.population[i] = mutate(this.population[0], random, 1.0);
+        }
+        this.fitness = new double[populationSize];
+    }
+
+    /**
+     * Rate the current population and replace it with the next generation.
+     *
+     * @return fitness of the best candidate of the rated generation
+     */
+    public double evolve() {
+        long seed = Die6.deriveSeed(generation, 0);
+        double[][] candidates = population;
+        fitness = IntStream.range(0, candidates.length).parallel()
+                .mapToDouble(i -> rate(candidates[i], seed))
+                .toArray();
+        Integer[] order = rank();
+        double best = fitness[order[0]];
+        Random random = new Random(Die6.deriveSeed(generation, 1));
+        double[][] next = new double[candidates.length][];
+        for (int i = 0; i < ELITES; i++) {
+            next[i] = candidates[order[i]];
+        }
+        for (int i = ELITES; i < next.length; i++) {
+            double[] a = candidates[select(random)];
+            double[] b = candidates[select(random)];
+            double mix = random.nextDouble();
+            double[] child = new double[a.length];
+            for (int k = 0; k < child.length; k++) {
+                child[k] = mix * a[k] + (1 - mix) * b[k];
+            }
+            next[i] = mutate(child, random, MUTATION_SIGMA);
+        }
+        this.bestWeights = candidates[order[0]];
+        this.population = next;
+        this.generation++;
+        return best;
+    }
+
+    /**
+     * Get the best weights of the last rated generation.
+     *
+     * @return weights, or the default weights before the first generation
+     */
+    public double[] getBest() {
+        return (bestWeights != null ? bestWeights : population[0]).clone();
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    /** Win rate of a candidate on seat 0; every candidate plays the games seed, seed + 1, ... */
+    private double rate(double[] weights, long seed) {
+        GameContext context = pool.acquire();
+        try {
+            ((PlayerHeuristic) context.getManager().getPlayers()[0]).setWeights(weights);
+            int wins = 0;
+            for (int game = 0; game < gamesPerCandidate; game++) {
+                if (context.play(seed + game).getWinner() == 0) wins++;
+            }
+            return (double) wins / gamesPerCandidate;
+        } finally {
+            pool.release(context);
+        }
+    }
+
+    /** Candidate indices sorted by descending fitness, ties by index. */
+    private Integer[] rank() {
+        Integer[] order = new Integer[fitness.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> fitness[a] != fitness[b] ? Double.compare(fitness[b], fitness[a]) : Integer.compare(a, b));
+        return order;
+    }
+
+    /** Tournament selection: the fittest of a few random candidates. */
+    private int select(Random random) {
+        int best = random.nextInt(fitness.length);
+        for (int i = 1; i < SELECTION_SIZE; i++) {
+            int other = random.nextInt(fitness.length);
+            if (fitness[other] > fitness[best]) best = other;
+        }
+        return best;
+    }
+
+    private static double[] mutate(double[] weights, Random random, double sigma) {
+        double[] mutated = new double[weights.length];
+        for (int k = 0; k < weights.length; k++) {
+            mutated[k] = weights[k] + random.nextGaussian() * sigma;
+        }
+        return normalize(mutated);
+    }
+
+    private static double[] normalize(double[] weights) {
+        double length = 0;
+        for (double w : weights) {
+            length += w * w;
+        }
+        length = Math.sqrt(length);
+        if (length == 0) return weights;
+        double[] normalized = new double[weights.length];
+        for (int k = 0; k < weights.length; k++) {
+            normalized[k] = weights[k] / length;
+        }
+        return normalized;
+    }
+
+    /**
+     * Write the generation counter, the population to rate next and the best weights so far.
+     * The file is replaced atomically, so an interrupted run leaves the previous checkpoint intact.
+     *
+     * @param file checkpoint file
+     * @throws IOException if writing fails
+     */
+    public void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(playerCount);
+            out.writeInt(figuresPerPlayer);
+            out.writeInt(PlayerHeuristic.FEATURE_COUNT);
+            out.writeInt(generation);
+            out.writeInt(population.length);
+            for (double[] weights : population) {
+                writeWeights(out, weights);
+            }
+            writeWeights(out, getBest());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Resume from a checkpoint written by {@link #save(Path)}.
+     *
+     * @param file checkpoint file
+     * @throws IOException if reading fails or the checkpoint belongs to another configuration
+     */
+    public void load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) throw new IOException("Not a tuner checkpoint: " + file);
+            if (in.readInt() != playerCount || in.readInt() != figuresPerPlayer
+                    || in.readInt() != PlayerHeuristic.FEATURE_COUNT) {
+                throw new IOException("Checkpoint " + file + " belongs to another configuration");
+            }
+            int savedGeneration = in.readInt();
+            double[][] saved = new double[in.readInt()][];
+            if (saved.length <= ELITES) throw new IOException("Checkpoint " + file + " has too few candidates");
+            for (int i = 0; i < saved.length; i++) {
+                saved[i] = readWeights(in);
+            }
+            this.bestWeights = readWeights(in);
+            this.population = saved;
+            this.fitness = new double[saved.length];
+            this.generation = savedGeneration;
+        }
+    }
+
+    private static void writeWeights(DataOutputStream out, double[] weights) throws IOException {
+        for (double w : weights) {
+            out.writeDouble(w);
+        }
+    }
+
+    private static double[] readWeights(DataInputStream in) throws IOException {
+        double[] weights = new double[PlayerHeuristic.FEATURE_COUNT];
+        for (int k = 0; k < weights.length; k++) {
+            weights[k] = in.readDouble();
+        }
+        return weights;
+    }
+
+    /**
+     * Tune weights, checkpointing after every generation.
+     * Usage: {@code HeuristicTuner [checkpointFile] [generations] [population] [gamesPerCandidate] [players] [figures]};
+     * an existing checkpoint is resumed.
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "tuner.bin");
+        int generations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int populationSize = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int games = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+        int players = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+        int figures = args.length > 5 ? Integer.parseInt(args[5]) : 4;
+
+        HeuristicTuner tuner = new HeuristicTuner(players, figures, populationSize, games, 1);
+        if (Files.exists(file)) {
+            tuner.load(file);
+            System.out.println("Resumed " + file + " at generation " + tuner.getGeneration());
+        }
+        while (tuner.getGeneration() < generations) {
+            long start = System.nanoTime();
+            double best = tuner.evolve();
+            tuner.save(file);
+            System.out.printf("Generation %d: best win rate %.3f in %.1f s, weights %s%n", tuner.getGeneration(), best,
+                    (System.nanoTime() - start) / 1e9, Arrays.toString(tuner.getBest()));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * Interface for picking the figure to move in a game stored in {@link CompactBoards},
+ * see {@link CompactTurns#playTurn(CompactBoards, int, int, long[], int, I_FigureChooser)}.
+ */
+public interface I_FigureChooser {
+    /**
+     * Choose one of the movable figures.
+     *
+     * @param boards storage holding the game
+     * @param game slot of the game
+     * @param player player to move
+     * @param roll the roll to play
+     * @param mask movable figures of the player, bit {@code i} for figure {@code i}; never 0
+     * @return the figure to move, one of the bits of {@code mask}
+     */
+    int choose(CompactBoards boards, int game, int player, int roll, int mask);
+}
@@ -0,0 +1,46 @@
+/**
+ * Interface for objects that want to follow a running game without rendering it,
+ * e.g. statistics, recorders or network publishers.
+ * All methods have empty default implementations so listeners only override what they need.
+ */
+public interface I_GameListener {
+    /**
+     * Called after a player rolled the die.
+     *
+     * @param player the player who rolled
+     * @param rollValue the value rolled
+     */
+    default void onRoll(Player player, int rollValue) { }
+
+    /**
+     * Called before a move that sends an opponent figure back to its house.
+     *
+     * @param capturer the figure that is moved onto the occupied field
+     * @param captured the opponent figure that is sent back to its house
+     */
+    default void onCapture(GameFigure capturer, GameFigure captured) { }
+
+    /**
+     * Called after a figure was moved.
+     *
+     * @param player the player who moved
+     * @param figure the moved figure
+     * @param from the field the figure stood on before the move (its house when moving out)
+     * @param to the field the figure stands on after the move
+     */
+    default void onMove(Player player, GameFigure figure, Field from, Field to) { }
+
+    /**
+     * Called when the turn of a player is complete.
+     *
+     * @param player the player whose turn ended
+     */
+    default void onTurnEnd(Player player) { }
+
+    /**
+     * Called once a player has won the game.
+     *
+     * @param result summary of the finished game
+     */
+    default void onGameEnd(GameResult result) { }
+}
@@ -0,0 +1,13 @@
+/**
+ * Interface for the move a {@link PlayerKeyboard} makes when its human does not answer in time.
+ */
+public interface I_MoveFallback {
+    /**
+     * Choose a figure on behalf of a player.
+     *
+     * @param player the player to move
+     * @param movableFigures figures that can be moved with the current roll, never empty
+     * @return index of the chosen figure in the player's figure array
+     */
+    int choose(Player player, GameFigure[] movableFigures);
+}
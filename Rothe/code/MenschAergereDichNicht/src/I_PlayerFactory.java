@@ -0,0 +1,16 @@
+/**
+ * Interface for creating the player of a seat.
+ * The signature matches the player constructors, so e.g. {@code PlayerPC::new} can be used directly.
+ */
+public interface I_PlayerFactory {
+    /**
+     * Create a player.
+     *
+     * @param id player ID (seat)
+     * @param name player name
+     * @param numFigures number of figures this player owns
+     * @param startField the starting field for this player's figures
+     * @return the new player
+     */
+    Player create(int id, String name, int numFigures, Field startField);
+}
@@ -9,4 +9,11 @@ public interface I_Rollable {
      * @return integer result of the roll
      */
     int roll();
+
+    /**
+     * Restart the sequence of results, so the same seed always produces the same rolls.
+     *
+     * @param seed the new seed
+     */
+    void setSeed(long seed);
 }
@@ -43,4 +43,18 @@ public interface I_RuleSet {
      * 
      */
     void resetLastAction();
+
+    /**
+     * Get the number of rolls the active player has taken in the current turn.
+     *
+     * @return the rolls of this turn
+     */
+    int getRollsThisTurn();
+
+    /**
+     * Continue a turn in which the active player has already rolled, e.g. after restoring a parked game.
+     *
+     * @param rolls rolls the active player has taken in this turn
+     */
+    void resumeTurn(int rolls);
 }
@@ -0,0 +1,272 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Plays a league between registered strategies on worker threads and keeps a rating for each of them.
+ *
+ * Ratings follow the Bayesian Bradley-Terry model of Weng and Lin (the "full pair" variant used by
+ * TrueSkill-like systems): every strategy has a mean {@code mu} and an uncertainty {@code sigma}. The winner of
+ * a game ranks above all other seats, which tie among themselves. A rating is updated as soon as its
+ * game finishes, without waiting for other games.
+ *
+ * The scheduler fills the seats of the next match with the strategies whose ratings are the most
+ * uncertain, counting strategies that are already playing as less urgent, so fewer games are needed
+ * until the ranking is stable. Every strategy takes at most one seat of a match, so the league needs at
+ * least as many strategies as seats. Seat order is shuffled to even out seat advantages.
+ */
+public class LeagueRunner {
+    private static final double INITIAL_MU = 25.0;
+    private static final double INITIAL_SIGMA = INITIAL_MU / 3;
+    private static final double BETA = INITIAL_SIGMA / 2;
+    private static final double KAPPA = 1e-4; // lower bound of the variance factor
+
+    private final int playerCount;
+    private final int figuresPerPlayer;
+    private final List<Entry> entries = new ArrayList<>();
+    private final java.util.Random scheduleRandom;
+    private long nextSeed;
+
+    /**
+     * A registered strategy and its rating.
+     */
+    public static final class Entry {
+        private final String name;
+        private final I_PlayerFactory factory;
+        private double mu = INITIAL_MU;
+        private double sigma = INITIAL_SIGMA;
+        private int games;
+        private int wins;
+        private int playing; // matches in progress
+
+        private Entry(String name, I_PlayerFactory factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getMu() {
+            return mu;
+        }
+
+        public double getSigma() {
+            return sigma;
+        }
+
+        /**
+         * Get the conservative rating {@code mu - 3 sigma} used for the ranking.
+         */
+        public double getConservativeRating() {
+            return mu - 3 * sigma;
+        }
+
+        public int getGames() {
+            return games;
+        }
+
+        public int getWins() {
+            return wins;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-24s mu=%6.2f sigma=%5.2f games=%6d wins=%6d", name, mu, sigma, games, wins);
+        }
+    }
+
+    /**
+     * Create an empty league.
+     *
+     * @param playerCount seats per match
+     * @param figuresPerPlayer figures per player
+     * @param seed seed of the scheduler and of the games
+     */
+    public LeagueRunner(int playerCount, int figuresPerPlayer, long seed) {
+        BoardGenerator.checkConfiguration(playerCount, 0, figuresPerPlayer);
+        if (playerCount < 2) throw new IllegalArgumentException("A league needs at least 2 seats per match");
+        this.playerCount = playerCount;
+        this.figuresPerPlayer = figuresPerPlayer;
+        this.scheduleRandom = new java.util.Random(seed);
+        this.nextSeed = seed;
+    }
+
+    /**
+     * Register a strategy. Must not be called while the league is running.
+     *
+     * @param name unique display name
+     * @param factory factory creating the strategy's players
+     */
+    public synchronized void register(String name, I_PlayerFactory factory) {
+        if (name == null || factory == null) throw new IllegalArgumentException("name and factory must not be null");
+        for (Entry entry : entries) {
+            if (entry.name.equals(name)) throw new IllegalArgumentException("Duplicate strategy: " + name);
+        }
+        entries.add(new Entry(name, factory));
+    }
+
+    /**
+     * Play matches until {@code games} have finished.
+     *
+     * @param games number of matches to play
+     * @param threads number of worker threads
+     * @throws InterruptedException if interrupted while waiting for the workers
+     * @throws IllegalStateException if fewer strategies than seats per match are registered, or if a match
+     *         fails; the other workers stop after their current match
+     */
+    public void run(int games, int threads) throws InterruptedException {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+        synchronized (this) {
+            // a strategy in two seats would be rated against itself and updated twice per match
+            if (entries.size() < playerCount) {
+                throw new IllegalStateException("Register at least " + playerCount + " strategies for " + playerCount + " seats");
+            }
+        }
+        int[] remaining = { games };
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // workers are awaited in the order they finish, so the first failure is seen at once
+        ExecutorCompletionService<Void> workers = new ExecutorCompletionService<>(executor);
+        for (int t = 0; t < threads; t++) {
+            workers.submit(() -> {
+                while (true) {
+                    Entry[] seats;
+                    long seed;
+                    synchronized (this) {
+                        if (remaining[0] <= 0) return null;
+                        remaining[0]--;
+                        seats = schedule();
+                        seed = nextSeed++;
+                    }
+                    try {
+                        int winner = play(seats, seed);
+                        synchronized (this) {
+                            update(seats, winner);
+                        }
+                    } finally {
+                        synchronized (this) {
+                            for (Entry seat : seats) {
+                                seat.playing--;
+                            }
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        for (int t = 0; t < threads; t++) {
+            try {
+                workers.take().get();
+            } catch (ExecutionException e) {
+                synchronized (this) {
+                    remaining[0] = 0;
+                }
+                executor.shutdownNow();
+                throw new IllegalStateException("League worker failed", e.getCause());
+            }
+        }
+    }
+
+    /** Pick the seats of the next match; caller holds the lock. */
+    private Entry[] schedule() {
+        List<Entry> candidates = new ArrayList<>(entries);
+        // most uncertain first; strategies already playing count as less urgent
+        candidates.sort(Comparator.comparingDouble((Entry e) -> -e.sigma * e.sigma / (1 + e.playing)));
+        Entry[] seats = new Entry[playerCount];
+        for (int s = 0; s < playerCount; s++) {
+            seats[s] = candidates.get(s);
+        }
+        for (int s = seats.length - 1; s > 0; s--) {
+            int other = scheduleRandom.nextInt(s + 1);
+            Entry swap = seats[s];
+            seats[s] = seats[other];
+            seats[other] = swap;
+        }
+        for (Entry seat : seats) {
+            seat.playing++;
+        }
+        return seats;
+    }
+
+    private int play(Entry[] seats, long seed) {
+        I_PlayerFactory[] factories = new I_PlayerFactory[seats.length];
+        for (int s = 0; s < seats.length; s++) {
+            factories[s] = seats[s].factory;
+        }
+        GameManager manager = new GameManager(playerCount, figuresPerPlayer, 0, new VisualNone(), factories);
+        manager.reset(seed);
+        return manager.runGame().getId();
+    }
+
+    /** Weng-Lin Bradley-Terry full-pair update of all seats; caller holds the lock. */
+    private void update(Entry[] seats, int winner) {
+        int n = seats.length;
+        double[] muDelta = new double[n];
+        double[] varianceFactor = new double[n];
+        for (int i = 0; i < n; i++) {
+            double variance = seats[i].sigma * seats[i].sigma;
+            double omega = 0;
+            double delta = 0;
+            for (int q = 0; q < n; q++) {
+                if (q == i) continue;
+                double c = Math.sqrt(variance + seats[q].sigma * seats[q].sigma + 2 * BETA * BETA);
+                double p = 1 / (1 + Math.exp((seats[q].mu - seats[i].mu) / c));
+                double score = i == winner ? 1 : (q == winner ? 0 : 0.5);
+                omega += variance / c * (score - p);
+                double gamma = seats[i].sigma / c;
+                delta += gamma * variance / (c * c) * p * (1 - p);
+            }
+            muDelta[i] = omega;
+            varianceFactor[i] = Math.max(1 - delta, KAPPA);
+        }
+        for (int i = 0; i < n; i++) {
+            Entry entry = seats[i];
+            entry.mu += muDelta[i];
+            entry.sigma *= Math.sqrt(varianceFactor[i]);
+            entry.games++;
+            if (i == winner) entry.wins++;
+        }
+    }
+
+    /**
+     * Get a snapshot of the ranking, best conservative rating first.
+     *
+     * @return the registered strategies in ranking order
+     */
+    public synchronized List<Entry> getStandings() {
+        List<Entry> standings = new ArrayList<>(entries);
+        standings.sort(Comparator.comparingDouble(Entry::getConservativeRating).reversed());
+        return standings;
+    }
+
+    /**
+     * Run a league between the built-in strategies and print the standings.
+     * Usage: {@code LeagueRunner [games] [players] [figures] [threads] [policyFile]}
+     */
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int figures = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        LeagueRunner league = new LeagueRunner(players, figures, 1);
+        league.register("PlayerPC", PlayerPC::new);
+        league.register("PlayerHeuristic", PlayerHeuristic::new);
+        league.register("PlayerHeuristic(progress)", PlayerHeuristic.factory(1, 0, 0, 0));
+        league.register("PlayerHeuristic(capture)", PlayerHeuristic.factory(0.2, 0, 1, 0.2));
+        if (args.length > 4) {
+            league.register("PlayerLearned", PlayerLearned.factory(LinearPolicy.load(java.nio.file.Paths.get(args[4]))));
+        }
+        long start = System.nanoTime();
+        league.run(games, threads);
+        System.out.printf("%d games in %.1f s%n", games, (System.nanoTime() - start) / 1e9);
+        for (Entry entry : league.getStandings()) {
+            System.out.println(entry);
+        }
+    }
+}
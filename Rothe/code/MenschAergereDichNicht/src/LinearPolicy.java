@@ -0,0 +1,132 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Linear value function over {@link PolicyFeatures}: the value of a position for a player is the dot
+ * product of its features with the weight vector and estimates the player's chance to win.
+ * A move is chosen by evaluating the position after every legal move (the afterstate) and taking
+ * the best one, so playing costs one feature extraction and one dot product per movable figure.
+ *
+ * Weights are stored as a flat file: magic {@code "MLP1"}, the feature count and the weights as
+ * big-endian doubles, read with a single bulk transfer.
+ */
+public final class LinearPolicy {
+    private static final int FILE_MAGIC = 0x4D4C5031; // "MLP1"
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final double[] weights;
+
+    /**
+     * Create a policy with the given weights.
+     *
+     * @param weights {@link PolicyFeatures#COUNT} weights
+     */
+    public LinearPolicy(double[] weights) {
+        if (weights == null || weights.length != PolicyFeatures.COUNT) {
+            throw new IllegalArgumentException("Expected " + PolicyFeatures.COUNT + " weights");
+        }
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Get a copy of the weights.
+     *
+     * @return weight vector
+     */
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    /**
+     * Compute the value of an encoded position.
+     *
+     * @param features features from {@link PolicyFeatures#extract(CompactBoards, int, int, double[])}
+     * @return estimated chance to win
+     */
+    public double value(double[] features) {
+        double value = 0;
+        for (int i = 0; i < weights.length; i++) {
+            value += weights[i] * features[i];
+        }
+        return value;
+    }
+
+    /**
+     * Choose the figure whose move leads to the position with the highest value.
+     *
+     * @param encoder feature encoder of the board
+     * @param boards storage holding the position in {@code game} and a free slot {@code scratch}
+     * @param game slot of the current position; not modified
+     * @param scratch slot used to try the moves
+     * @param player player to move
+     * @param roll value of the roll
+     * @param mask movable figures, see {@link CompactBoards#getMovableMask(int, int, int)}; must not be 0
+     * @param features buffer of {@link PolicyFeatures#COUNT} values
+     * @return index of the chosen figure
+     */
+    public int choose(PolicyFeatures encoder, CompactBoards boards, int game, int scratch, int player, int roll,
+                      int mask, double[] features) {
+        if (Integer.bitCount(mask) == 1) return Integer.numberOfTrailingZeros(mask);
+        int best = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int rest = mask; rest != 0; rest &= rest - 1) {
+            int figure = Integer.numberOfTrailingZeros(rest);
+            boards.copyGame(game, boards, scratch);
+            boards.applyMove(scratch, player, figure, roll);
+            encoder.extract(boards, scratch, player, features);
+            double value = value(features);
+            if (value > bestValue) {
+                bestValue = value;
+                best = figure;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Write the weights to a file. The file is replaced atomically.
+     *
+     * @param file target file
+     * @throws IOException if writing fails
+     */
+    public void save(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + weights.length * Double.BYTES);
+        buffer.putInt(FILE_MAGIC).putInt(weights.length);
+        buffer.asDoubleBuffer().put(weights);
+        buffer.rewind(); // the double view does not advance this buffer, write from the header on
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read weights written by {@link #save(Path)}.
+     *
+     * @param file weights file
+     * @return the policy
+     * @throws IOException if reading fails or the file does not match the feature encoding
+     */
+    public static LinearPolicy load(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != FILE_MAGIC) {
+            throw new IOException("Not a policy file: " + file);
+        }
+        int count = buffer.getInt();
+        if (count != PolicyFeatures.COUNT || buffer.remaining() != count * Double.BYTES) {
+            throw new IOException("Policy file " + file + " does not match the feature encoding");
+        }
+        double[] weights = new double[count];
+        buffer.asDoubleBuffer().get(weights);
+        return new LinearPolicy(weights);
+    }
+}
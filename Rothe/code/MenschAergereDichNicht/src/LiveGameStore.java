@@ -0,0 +1,531 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Event-sourced storage of many live games on one board configuration, e.g. the games of a server.
+ *
+ * The positions are kept in a {@link CompactBoards}. Every change is an event (game created, move, turn
+ * passed, game removed) that is checked against the rules of {@link CompactBoards} (which follow
+ * {@link RuleSetStandard}), applied and appended to the current log segment {@code events-<n>.log}.
+ * Events are buffered and made durable together by {@link #sync()}, so a server can sync once per tick
+ * instead of once per move.
+ *
+ * After a configured number of events a new segment is started and a snapshot of all games is written to
+ * {@code snapshot.bin} by a background thread, which then deletes the segments covered by the snapshot, so
+ * the log never grows much beyond one snapshot interval and no move waits for the snapshot to be written.
+ * A failed snapshot is reported by the next {@link #sync()}. Opening the store loads the snapshot and replays
+ * the remaining segments through the same rule checks; a record torn by a crash is cut off.
+ *
+ * A turn ends with a move, or without one when all figures of the player are in the house and none of
+ * its rolls was a 6. Rolls that do not end the turn change nothing and are not logged.
+ */
+public final class LiveGameStore implements AutoCloseable {
+    private static final int SNAPSHOT_MAGIC = 0x4D4C5331; // "MLS1"
+    private static final String SNAPSHOT_FILE = "snapshot.bin";
+    private static final String SEGMENT_PREFIX = "events-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int RECORD_BYTES = 12; // type, game, player, roll, figure, CRC
+    private static final int BUFFER_RECORDS = 4096;
+
+    private static final byte CREATE = 1;
+    private static final byte MOVE = 2;
+    private static final byte PASS = 3;
+    private static final byte REMOVE = 4;
+
+    private static final byte FREE = 0;
+    private static final byte RUNNING = 1;
+    private static final byte FINISHED = 2;
+
+    private final Path directory;
+    private final BoardTopology topology;
+    private final int capacity;
+    private final int snapshotEvents;
+    private final CompactBoards boards;
+    private final byte[] status;
+    private final byte[] currentPlayers;
+    private final byte[] winners;
+    private final int[] turns;
+    private final ByteBuffer pending = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES);
+    private final CRC32 crc = new CRC32();
+    private int activeGames;
+    private long segment;
+    private FileChannel log;
+    private long eventsSinceSnapshot;
+    private Thread snapshotWriter; // writes the latest snapshot, null before the first
+    private volatile FileChannel retired; // segment covered by the snapshot being written, until it is durable
+    private volatile IOException snapshotFailure; // why the last snapshot failed, null if none did
+
+    /**
+     * Open the store in a directory, recovering all games stored there.
+     *
+     * @param directory directory of the snapshot and log segments
+     * @param topology board of all games
+     * @param capacity maximum number of games at the same time
+     * @param snapshotEvents events between two snapshots
+     * @throws IOException if the files cannot be read, or belong to another configuration or are corrupt
+     */
+    public LiveGameStore(Path directory, BoardTopology topology, int capacity, int snapshotEvents) throws IOException {
+        if (snapshotEvents <= 0) throw new IllegalArgumentException("snapshotEvents must be positive");
+        this.directory = directory;
+        this.topology = topology;
+        this.capacity = capacity;
+        this.snapshotEvents = snapshotEvents;
+        this.boards = new CompactBoards(topology, capacity);
+        this.status = new byte[capacity];
+        this.currentPlayers = new byte[capacity];
+        this.winners = new byte[capacity];
+        this.turns = new int[capacity];
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    /**
+     * Start a new game with every figure in its house; player 0 moves first.
+     *
+     * @return id of the game
+     * @throws IOException if the event cannot be logged
+     * @throws IllegalStateException if the store is full
+     */
+    public synchronized int createGame() throws IOException {
+        for (int game = 0; game < capacity; game++) {
+            if (status[game] == FREE) {
+                apply(CREATE, game, 0, 0, 0);
+                append(CREATE, game, 0, 0, 0);
+                return game;
+            }
+        }
+        throw new IllegalStateException("All " + capacity + " game slots are in use");
+    }
+
+    /**
+     * End the turn of the current player with a move.
+     *
+     * @param game game id
+     * @param player player to move, must be the current player
+     * @param roll the roll that allowed the move
+     * @param figure figure to move, must be movable with the roll
+     * @return in-game index of the captured figure ({@code player * figuresPerPlayer + figure}), or -1
+     * @throws IOException if the event cannot be logged
+     * @throws IllegalArgumentException if the move breaks the rules
+     */
+    public synchronized int move(int game, int player, int roll, int figure) throws IOException {
+        int captured = apply(MOVE, game, player, roll, figure);
+        append(MOVE, game, player, roll, figure);
+        return captured;
+    }
+
+    /**
+     * End the turn of the current player without a move; only allowed while all its figures are in the house.
+     *
+     * @param game game id
+     * @param player the current player
+     * @throws IOException if the event cannot be logged
+     * @throws IllegalArgumentException if the player has figures outside the house
+     */
+    public synchronized void pass(int game, int player) throws IOException {
+        apply(PASS, game, player, 0, 0);
+        append(PASS, game, player, 0, 0);
+    }
+
+    /**
+     * Remove a game and free its id.
+     *
+     * @param game game id
+     * @throws IOException if the event cannot be logged
+     */
+    public synchronized void removeGame(int game) throws IOException {
+        apply(REMOVE, game, 0, 0, 0);
+        append(REMOVE, game, 0, 0, 0);
+    }
+
+    /** Check an event against the rules and apply it; the single code path for live events and replay. */
+    private int apply(byte type, int game, int player, int roll, int figure) {
+        if (game < 0 || game >= capacity) throw new IllegalArgumentException("Unknown game: " + game);
+        if (type == CREATE) {
+            if (status[game] != FREE) throw new IllegalArgumentException("Game " + game + " already exists");
+            boards.reset(game);
+            status[game] = RUNNING;
+            currentPlayers[game] = 0;
+            winners[game] = -1;
+            turns[game] = 0;
+            activeGames++;
+            return -1;
+        }
+        if (status[game] == FREE) throw new IllegalArgumentException("Unknown game: " + game);
+        if (type == REMOVE) {
+            status[game] = FREE;
+            activeGames--;
+            return -1;
+        }
+        if (status[game] == FINISHED) throw new IllegalStateException("Game " + game + " is finished");
+        if (player != currentPlayers[game]) throw new IllegalArgumentException("Player " + player + " is not on turn");
+        int captured = -1;
+        if (type == MOVE) {
+            if (roll < 1 || roll > 6) throw new IllegalArgumentException("Invalid roll: " + roll);
+            if (figure < 0 || figure >= topology.getFiguresPerPlayer()
+                    || (boards.getMovableMask(game, player, roll) & (1 << figure)) == 0) {
+                throw new IllegalArgumentException("Figure " + figure + " cannot move with a " + roll);
+            }
+            captured = boards.applyMove(game, player, figure, roll);
+        } else if (type == PASS) {
+            if (!boards.isAllInHouse(game, player)) throw new IllegalArgumentException("Only a player with all figures in the house may pass");
+        } else {
+            throw new IllegalArgumentException("Unknown event type: " + type);
+        }
+        turns[game]++;
+        if (boards.isAllInGoal(game, player)) {
+            status[game] = FINISHED;
+            winners[game] = (byte) player;
+        } else {
+            currentPlayers[game] = (byte) ((player + 1) % topology.getPlayerCount());
+        }
+        return captured;
+    }
+
+    private void append(byte type, int game, int player, int roll, int figure) throws IOException {
+        if (!pending.hasRemaining()) flush(false);
+        int start = pending.position();
+        pending.put(type).putInt(game).put((byte) player).put((byte) roll).put((byte) figure);
+        crc.reset();
+        ByteBuffer record = pending.duplicate();
+        record.position(start).limit(start + RECORD_BYTES - Integer.BYTES);
+        crc.update(record);
+        pending.putInt((int) crc.getValue());
+        if (++eventsSinceSnapshot >= snapshotEvents && snapshotFailure == null
+                && (snapshotWriter == null || !snapshotWriter.isAlive())) {
+            startSnapshot();
+        }
+    }
+
+    private void flush(boolean force) throws IOException {
+        pending.flip();
+        while (pending.hasRemaining()) {
+            log.write(pending);
+        }
+        pending.clear();
+        if (force) log.force(false);
+    }
+
+    /**
+     * Make all events so far durable.
+     *
+     * @throws IOException if writing fails
+     */
+    public synchronized void sync() throws IOException {
+        checkSnapshot();
+        FileChannel covered = retired;
+        if (covered != null) {
+            try {
+                covered.force(false);
+            } catch (ClosedChannelException e) {
+                // the snapshot writer made the segment durable before closing it
+            }
+        }
+        flush(true);
+    }
+
+    /**
+     * Write a snapshot of all games now and delete the log segments it covers.
+     *
+     * @throws IOException if writing fails
+     */
+    public void snapshot() throws IOException {
+        Thread writer;
+        synchronized (this) {
+            writer = startSnapshot();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing a snapshot");
+        }
+        checkSnapshot();
+    }
+
+    /**
+     * Continue the log in a new segment and write a snapshot of the games up to here in the background.
+     * Only the encoding of the games happens on the calling thread.
+     */
+    private Thread startSnapshot() throws IOException {
+        awaitSnapshot(); // snapshots are written one after the other
+        flush(false);
+        FileChannel covered = log;
+        long next = segment + 1;
+        byte[] state = encodeSnapshot(next);
+        openSegment(next);
+        eventsSinceSnapshot = 0;
+        retired = covered;
+        Thread writer = new Thread(() -> writeSnapshot(covered, next, state), "LiveGameStore snapshot");
+        writer.setDaemon(true);
+        snapshotWriter = writer;
+        writer.start();
+        return writer;
+    }
+
+    private byte[] encodeSnapshot(long next) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(topology.getPlayerCount());
+        out.writeInt(topology.getFiguresPerPlayer());
+        out.writeInt(topology.getFieldsPerPlayer());
+        out.writeLong(next);
+        out.writeInt(activeGames);
+        for (int game = 0; game < capacity; game++) {
+            if (status[game] == FREE) continue;
+            out.writeInt(game);
+            out.writeByte(status[game]);
+            out.writeByte(currentPlayers[game]);
+            out.writeByte(winners[game]);
+            out.writeInt(turns[game]);
+            for (int p = 0; p < topology.getPlayerCount(); p++) {
+                for (int f = 0; f < topology.getFiguresPerPlayer(); f++) {
+                    out.writeByte(boards.getProgress(game, p, f) + 1);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Runs on the snapshot writer: make the covered segment durable, then replace the snapshot and delete the segments. */
+    private void writeSnapshot(FileChannel covered, long next, byte[] state) {
+        try {
+            try {
+                covered.force(false);
+            } finally {
+                retired = null;
+                covered.close();
+            }
+            Path file = directory.resolve(SNAPSHOT_FILE);
+            Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(state);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteSegmentsBefore(next);
+        } catch (IOException e) {
+            snapshotFailure = e;
+        }
+    }
+
+    private void awaitSnapshot() throws IOException {
+        if (snapshotWriter == null) return;
+        try {
+            snapshotWriter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a snapshot");
+        }
+    }
+
+    private void checkSnapshot() throws IOException {
+        if (snapshotFailure != null) throw new IOException("Writing a snapshot failed", snapshotFailure);
+    }
+
+    private void recover() throws IOException {
+        long first = 0;
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(file)) first = loadSnapshot(file);
+        deleteSegmentsBefore(first);
+        List<Long> segments = listSegments();
+        long last = first - 1;
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_BYTES);
+        for (int i = 0; i < segments.size(); i++) {
+            last = segments.get(i);
+            if (!replay(getSegmentPath(last), buffer)) {
+                // a segment is only torn if nothing was synced after it, so the later segments hold no synced events
+                for (int j = i + 1; j < segments.size(); j++) {
+                    Files.delete(getSegmentPath(segments.get(j)));
+                }
+                break;
+            }
+        }
+        // continue in a fresh segment, so recovered segments are never appended to
+        openSegment(Math.max(first, last + 1));
+    }
+
+    /** Load the snapshot; returns the first segment it does not cover. */
+    private long loadSnapshot(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("Not a game snapshot: " + file);
+            if (in.readInt() != topology.getPlayerCount() || in.readInt() != topology.getFiguresPerPlayer()
+                    || in.readInt() != topology.getFieldsPerPlayer()) {
+                throw new IOException("Snapshot " + file + " belongs to another configuration");
+            }
+            long next = in.readLong();
+            int games = in.readInt();
+            for (int i = 0; i < games; i++) {
+                int game = in.readInt();
+                if (game < 0 || game >= capacity) throw new IOException("Snapshot holds game " + game + ", capacity is " + capacity);
+                status[game] = in.readByte();
+                currentPlayers[game] = in.readByte();
+                winners[game] = in.readByte();
+                turns[game] = in.readInt();
+                boards.reset(game);
+                for (int p = 0; p < topology.getPlayerCount(); p++) {
+                    for (int f = 0; f < topology.getFiguresPerPlayer(); f++) {
+                        boards.setProgress(game, p, f, in.readUnsignedByte() - 1);
+                    }
+                }
+            }
+            activeGames = games;
+            return next;
+        }
+    }
+
+    /** Replay a segment; returns false if it ended with a torn or corrupt record, which is cut off. */
+    private boolean replay(Path path, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long offset = 0;
+            while (offset + RECORD_BYTES <= size) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), (size - offset) / RECORD_BYTES * RECORD_BYTES));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offset + buffer.position()) < 0) break;
+                }
+                buffer.flip();
+                while (buffer.remaining() >= RECORD_BYTES) {
+                    int start = buffer.position();
+                    crc.reset();
+                    crc.update(buffer.array(), start, RECORD_BYTES - Integer.BYTES);
+                    if (buffer.getInt(start + RECORD_BYTES - Integer.BYTES) != (int) crc.getValue()) {
+                        channel.truncate(offset);
+                        return false;
+                    }
+                    byte type = buffer.get();
+                    int game = buffer.getInt();
+                    int player = buffer.get();
+                    int roll = buffer.get();
+                    int figure = buffer.get();
+                    buffer.getInt();
+                    try {
+                        apply(type, game, player, roll, figure);
+                        eventsSinceSnapshot++; // replayed events count towards the next snapshot
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        throw new IOException("Invalid event in " + path + ": " + e.getMessage(), e);
+                    }
+                    offset += RECORD_BYTES;
+                }
+            }
+            if (offset < size) {
+                channel.truncate(offset);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        segment = number;
+        log = FileChannel.open(getSegmentPath(number), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private Path getSegmentPath(long number) {
+        return directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+    }
+
+    /** Numbers of all log segments, ascending. */
+    private List<Long> listSegments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private void deleteSegmentsBefore(long number) throws IOException {
+        for (long old : listSegments()) {
+            if (old < number) Files.delete(getSegmentPath(old));
+        }
+    }
+
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    public synchronized int getActiveGameCount() {
+        return activeGames;
+    }
+
+    /**
+     * Check whether a game id is in use (running or finished and not yet removed).
+     */
+    public synchronized boolean exists(int game) {
+        return game >= 0 && game < capacity && status[game] != FREE;
+    }
+
+    public synchronized int getCurrentPlayer(int game) {
+        return currentPlayers[game];
+    }
+
+    /**
+     * Get the winner of a game, or -1 while it is running.
+     */
+    public synchronized int getWinner(int game) {
+        return winners[game];
+    }
+
+    public synchronized int getTurns(int game) {
+        return turns[game];
+    }
+
+    /**
+     * Get the progress of a figure, see {@link BoardTopology}.
+     */
+    public synchronized int getProgress(int game, int player, int figure) {
+        return boards.getProgress(game, player, figure);
+    }
+
+    /**
+     * Get the figures the current player of a game may move with a roll.
+     *
+     * @return bit mask over the player's figure indices
+     */
+    public synchronized int getMovableMask(int game, int roll) {
+        return boards.getMovableMask(game, currentPlayers[game], roll);
+    }
+
+    /**
+     * Wait for a running snapshot, sync all events and close the log. The games stay on disk and are recovered
+     * when the store is opened again.
+     *
+     * @throws IOException if writing fails, or if a snapshot had failed before
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            awaitSnapshot();
+            flush(true);
+        } finally {
+            log.close();
+        }
+        checkSnapshot();
+    }
+}
@@ -2,63 +2,84 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Occupation holds an optional player and a list of occupying game figures from that player.
+ * Occupation holds the game figures standing on a field; the occupying player is the owner of those figures.
  * All figures on a field must belong to the same player.
+ * Figures are kept in a small array that is only allocated once the field is entered, since most
+ * fields are empty and hold at most one figure.
  */
 public class Occupation {
-    private Player player;
-    private final List<GameFigure> figures;
+    private GameFigure[] figures; // null until the first figure arrives
+    private int count;
 
     public Occupation() {
-        this.player = null;
-        this.figures = new ArrayList<>();
+        this.figures = null;
+        this.count = 0;
     }
 
     public boolean isOccupied() {
-        return !this.figures.isEmpty();
+        return this.count > 0;
     }
 
     public Player getPlayer() {
-        return player;
+        return this.count == 0 ? null : this.figures[0].getOwner();
     }
 
     public List<GameFigure> getFigures() {
-        return new ArrayList<>(this.figures);
+        List<GameFigure> copy = new ArrayList<>(this.count);
+        for (int i = 0; i < this.count; i++) {
+            copy.add(this.figures[i]);
+        }
+        return copy;
     }
 
     public GameFigure getGameFigure() {
-        return this.figures.isEmpty() ? null : this.figures.get(0);
+        return this.count == 0 ? null : this.figures[0];
     }
 
     public void addFigure(GameFigure figure) {
         if (figure == null) throw new IllegalArgumentException("figure must not be null");
-        if (!this.figures.isEmpty() && !this.player.equals(figure.getOwner())) {
+        if (this.count > 0 && !this.getPlayer().equals(figure.getOwner())) {
             throw new IllegalArgumentException(
                 "Cannot add figure from " + figure.getOwner().getName() +
-                " to field occupied by " + this.player.getName()
+                " to field occupied by " + this.getPlayer().getName()
             );
         }
-        if (this.figures.isEmpty()) {
-            this.player = figure.getOwner();
+        if (this.indexOf(figure) >= 0) {
+            return;
         }
-        if (!this.figures.contains(figure)) {
-            this.figures.add(figure);
+        if (this.figures == null) {
+            this.figures = new GameFigure[1];
+        } else if (this.count == this.figures.length) {
+            this.figures = java.util.Arrays.copyOf(this.figures, this.count * 2);
         }
+        this.figures[this.count++] = figure;
     }
 
     public void removeFigure(GameFigure figure) {
-        this.figures.remove(figure);
-        if (this.figures.isEmpty()) {
-            this.player = null;
+        int index = this.indexOf(figure);
+        if (index < 0) {
+            return;
         }
+        // keep the arrival order, the first figure is reported as the occupant
+        System.arraycopy(this.figures, index + 1, this.figures, index, this.count - index - 1);
+        this.figures[--this.count] = null;
     }
 
     public boolean canAccept(Player player) {
-        return this.figures.isEmpty() || this.player.equals(player);
+        return this.count == 0 || this.getPlayer().equals(player);
     }
 
     public void clear() {
-        this.figures.clear();
-        this.player = null;
+        for (int i = 0; i < this.count; i++) {
+            this.figures[i] = null;
+        }
+        this.count = 0;
+    }
+
+    private int indexOf(GameFigure figure) {
+        for (int i = 0; i < this.count; i++) {
+            if (this.figures[i] == figure) return i;
+        }
+        return -1;
     }
 }
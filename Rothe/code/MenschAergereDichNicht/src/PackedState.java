@@ -0,0 +1,102 @@
+import java.util.Arrays;
+
+/**
+ * Compact, immutable key describing a decision: the progress of every figure on the board,
+ * the player to move and the rolled value. The low 16 bits of the first word hold player and roll,
+ * followed by one byte per figure (progress + 1).
+ * Used as key of the {@link DecisionCache}.
+ */
+public final class PackedState {
+    private static final int HEADER_BITS = 16; // player and roll
+
+    private final long[] words;
+    private final int hash;
+
+    private PackedState(long[] words) {
+        this.words = words;
+        this.hash = Arrays.hashCode(words);
+    }
+
+    /**
+     * Pack the current position of an object-model game.
+     *
+     * @param topology board configuration
+     * @param players all players, indexed by id
+     * @param player player to move
+     * @param roll rolled value
+     * @return the packed key
+     */
+    public static PackedState of(BoardTopology topology, Player[] players, int player, int roll) {
+        int figures = topology.getFiguresPerPlayer();
+        long[] words = new long[wordCount(topology)];
+        words[0] = (long) player << 3 | roll;
+        for (int p = 0; p < players.length; p++) {
+            GameFigure[] owned = players[p].getFigures();
+            for (int f = 0; f < figures; f++) {
+                pack(words, p * figures + f, topology.getProgress(p, owned[f].getField()) + 1);
+            }
+        }
+        return new PackedState(words);
+    }
+
+    /**
+     * Pack the position of a game slot of a {@link CompactBoards} storage.
+     *
+     * @param boards storage holding the game
+     * @param game game slot
+     * @param player player to move
+     * @param roll rolled value
+     * @return the packed key
+     */
+    public static PackedState of(CompactBoards boards, int game, int player, int roll) {
+        BoardTopology topology = boards.getTopology();
+        int figures = topology.getFiguresPerPlayer();
+        long[] words = new long[wordCount(topology)];
+        words[0] = (long) player << 3 | roll;
+        for (int p = 0; p < topology.getPlayerCount(); p++) {
+            for (int f = 0; f < figures; f++) {
+                pack(words, p * figures + f, boards.getProgress(game, p, f) + 1);
+            }
+        }
+        return new PackedState(words);
+    }
+
+    /**
+     * Restore a key from its words, e.g. when loading a persisted cache.
+     */
+    static PackedState fromWords(long[] words) {
+        return new PackedState(words.clone());
+    }
+
+    long[] getWords() {
+        return words.clone();
+    }
+
+    public int getPlayer() {
+        return (int) (words[0] >>> 3) & 0xFF;
+    }
+
+    public int getRoll() {
+        return (int) words[0] & 0x7;
+    }
+
+    private static int wordCount(BoardTopology topology) {
+        int figures = topology.getPlayerCount() * topology.getFiguresPerPlayer();
+        return (HEADER_BITS + figures * Byte.SIZE + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static void pack(long[] words, int figure, int storedProgress) {
+        int bit = HEADER_BITS + figure * Byte.SIZE; // byte aligned, never crosses a word boundary
+        words[bit >>> 6] |= (long) storedProgress << (bit & 63);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof PackedState && Arrays.equals(words, ((PackedState) other).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -11,6 +11,17 @@ public abstract class Player {
     private final int numFigures;
     private final I_Rollable die;
     private final int id;
+    private int lastRoll; // value of the most recent roll, 0 before the first roll
+    private BoardTopology topology; // board this player sits at, set by GameManager
+    private Field[] boardFields;
+    private Player[] allPlayers;
+    private DecisionCache decisionCache; // optional, only consulted by deterministic strategies
+    private ThreatMap threatMap; // shared by all players of a game, set by GameManager
+    // Location aggregates, kept up to date by GameFigure on every relocation (bit f = figure f)
+    private int houseMask;
+    private int goalMask;
+    private int numFiguresInHouse;
+    private int numFiguresInGoal;
 
     /**
      * Create a player with the given name, number of figures, and starting field.
@@ -26,6 +37,13 @@ public abstract class Player {
         this.name = name;
         this.startField = startField;
         this.numFigures = numFigures;
+        if (numFigures < 0 || numFigures >= Integer.SIZE) {
+            throw new IllegalArgumentException("numFigures must be between 0 and " + (Integer.SIZE - 1));
+        }
+
+        // Every figure starts in the house
+        this.houseMask = (1 << numFigures) - 1;
+        this.numFiguresInHouse = numFigures;
 
         // Create figures and place them in the player's house
         this.figures = new GameFigure[this.numFigures];
@@ -56,12 +74,145 @@ public abstract class Player {
      */
     protected abstract int chooseFigure(GameFigure[] movableFigures);
 
+    /**
+     * Tell whether {@link #chooseFigure(GameFigure[])} always picks the same figure for the same
+     * position and roll. Only such strategies use a {@link DecisionCache}.
+     *
+     * @return {@code true} for deterministic strategies; {@code false} by default
+     */
+    protected boolean isDeterministic() {
+        return false;
+    }
+
+    /**
+     * Identify the strategy including its parameters. A {@link DecisionCache} only serves players with the
+     * fingerprint it was created for, so strategies with different parameters never share decisions.
+     * Deterministic strategies with parameters must include them.
+     *
+     * @return the fingerprint; the class name by default
+     */
+    public String getStrategyFingerprint() {
+        return this.getClass().getName();
+    }
+
+    /**
+     * Let this player share decisions through the given cache (if the strategy is deterministic).
+     *
+     * @param cache the cache to consult, or {@code null} to disable caching
+     * @throws IllegalArgumentException if the cache belongs to another strategy
+     */
+    public void setDecisionCache(DecisionCache cache) {
+        if (cache != null && !cache.getStrategy().equals(this.getStrategyFingerprint())) {
+            throw new IllegalArgumentException("Decision cache of strategy '" + cache.getStrategy()
+                    + "' cannot be used by '" + this.getStrategyFingerprint() + "'");
+        }
+        this.decisionCache = cache;
+    }
+
+    protected DecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+
+    /**
+     * Choose a figure for the last roll, consulting the decision cache first when one is set.
+     * Called by {@link GameManager}; delegates to {@link #chooseFigure(GameFigure[])} on a cache miss.
+     *
+     * @param movableFigures array of figures that are movable
+     * @return index of the chosen figure in this player's figure array
+     */
+    public final int selectFigure(GameFigure[] movableFigures) {
+        if (this.decisionCache == null || !this.isDeterministic() || this.topology == null || movableFigures.length < 2) {
+            return this.chooseFigure(movableFigures);
+        }
+        PackedState key = PackedState.of(this.topology, this.allPlayers, this.id, this.lastRoll);
+        int cached = this.decisionCache.get(key);
+        for (GameFigure figure : movableFigures) {
+            if (figure.getId() == cached) return cached;
+        }
+        int chosen = this.chooseFigure(movableFigures);
+        if (chosen >= 0) this.decisionCache.put(key, chosen);
+        return chosen;
+    }
+
     public String getName() {
         return name;
     }
 
+    /**
+     * Reseed this player's die and any randomness of its strategy, so a game replays identically.
+     *
+     * @param seed the new seed
+     */
+    public void reseed(long seed) {
+        this.die.setSeed(Die6.deriveSeed(seed, 0));
+        this.reseedStrategy(Die6.deriveSeed(seed, 1));
+        this.lastRoll = 0;
+    }
+
+    /**
+     * Reseed the random choices of the strategy. Strategies without randomness do nothing.
+     *
+     * @param seed the new seed
+     */
+    protected void reseedStrategy(long seed) {
+    }
+
     public int roll() {
-        return die.roll();
+        this.lastRoll = die.roll();
+        return this.lastRoll;
+    }
+
+    /**
+     * Get the value of this player's most recent roll, e.g. the roll a figure is chosen for.
+     *
+     * @return last roll, 0 if the player has not rolled yet
+     */
+    protected int getLastRoll() {
+        return lastRoll;
+    }
+
+    /**
+     * Tell this player which board it plays on. Called by {@link GameManager} once all players exist,
+     * so strategies can look at the whole game state when choosing a figure.
+     *
+     * @param topology the board configuration
+     * @param fields the ring fields of the board
+     * @param players all players of the game, indexed by id
+     */
+    public void setBoard(BoardTopology topology, Field[] fields, Player[] players) {
+        this.topology = topology;
+        this.boardFields = fields;
+        this.allPlayers = players;
+    }
+
+    protected BoardTopology getTopology() {
+        return topology;
+    }
+
+    protected Field[] getBoardFields() {
+        return boardFields;
+    }
+
+    protected Player[] getAllPlayers() {
+        return allPlayers;
+    }
+
+    /**
+     * Attach the threat index of the game. Every relocation of this player's figures is reported to it.
+     *
+     * @param threatMap the game's threat index, or {@code null} to detach
+     */
+    void setThreatMap(ThreatMap threatMap) {
+        this.threatMap = threatMap;
+    }
+
+    /**
+     * Get the threat index of the game, e.g. for heuristic strategies weighing capture risks.
+     *
+     * @return the threat index, or {@code null} when the player is not part of a game
+     */
+    protected ThreatMap getThreatMap() {
+        return threatMap;
     }
 
     public int getId() {
@@ -87,23 +238,89 @@ public abstract class Player {
     }
 
     public int getNumFiguresInHouse() {
-        int count = 0;
-        for (GameFigure figure : this.figures) {
-            Field f = figure.getField();
-            if (f.isHouse()) {
-                count++;
-            }
-        }
-        return count;
+        return numFiguresInHouse;
+    }
+
+    public int getNumFiguresInGoal() {
+        return numFiguresInGoal;
+    }
+
+    /**
+     * Get the number of figures standing on ring fields (neither in the house nor in the goal).
+     *
+     * @return number of figures on the board
+     */
+    public int getNumFiguresOnBoard() {
+        return numFigures - numFiguresInHouse - numFiguresInGoal;
+    }
+
+    public boolean isAllInHouse() {
+        return numFiguresInHouse == numFigures;
+    }
+
+    public boolean isAllInGoal() {
+        return numFiguresInGoal == numFigures;
+    }
+
+    /**
+     * Get the figures standing in the house as a bit mask: bit {@code f} is set when figure {@code f} is in the house.
+     *
+     * @return house bit mask
+     */
+    public int getHouseMask() {
+        return houseMask;
+    }
+
+    /**
+     * Get the figures standing on ring fields as a bit mask over the figure indices.
+     *
+     * @return board bit mask
+     */
+    public int getBoardMask() {
+        return ((1 << numFigures) - 1) & ~(houseMask | goalMask);
+    }
+
+    /**
+     * Get the figures standing in the goal as a bit mask over the figure indices.
+     *
+     * @return goal bit mask
+     */
+    public int getGoalMask() {
+        return goalMask;
     }
 
     public void moveFigureOutOfHouse() {
-        for (GameFigure figure : this.figures) {
-            Field f = figure.getField();
-            if (f.isHouse()) {
-                figure.setField(this.startField);
-                return;
-            }
+        if (houseMask != 0) {
+            this.figures[Integer.numberOfTrailingZeros(houseMask)].setField(this.startField);
+        }
+    }
+
+    /**
+     * Update the location aggregates and the threat index after one of this player's figures changed its field.
+     * Called by {@link GameFigure} for every relocation, including captures and resets.
+     *
+     * @param figure the relocated figure
+     * @param from field the figure stood on before
+     * @param to field the figure stands on now
+     */
+    void onFigureRelocated(GameFigure figure, Field from, Field to) {
+        int bit = 1 << figure.getId();
+        if (from.isHouse()) {
+            houseMask &= ~bit;
+            numFiguresInHouse--;
+        } else if (from.isGoal()) {
+            goalMask &= ~bit;
+            numFiguresInGoal--;
+        }
+        if (to.isHouse()) {
+            houseMask |= bit;
+            numFiguresInHouse++;
+        } else if (to.isGoal()) {
+            goalMask |= bit;
+            numFiguresInGoal++;
+        }
+        if (threatMap != null) {
+            threatMap.relocate(this.id, from, to);
         }
     }
 
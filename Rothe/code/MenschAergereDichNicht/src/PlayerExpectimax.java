@@ -0,0 +1,84 @@
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A computer player searching a few turns ahead with {@link ExpectimaxSearch}.
+ * The search runs in parallel on a {@link ForkJoinPool}.
+ * Its choices are not cached in a {@link DecisionCache}: the transposition table is kept between moves
+ * and filled in parallel, so a choice can depend on earlier searches and on timing.
+ */
+public class PlayerExpectimax extends Player {
+    public static final int DEFAULT_DEPTH = 3;
+    private static final int TABLE_SLOTS = 1 << 16;
+
+    private final int depth;
+    private final ForkJoinPool pool;
+    private ExpectimaxSearch search; // created once the board is known
+    private CompactBoards position;
+
+    /**
+     * Create a search player with the default depth using the common pool.
+     *
+     * @param id player ID
+     * @param name player name
+     * @param numFigures number of figures this player owns
+     * @param startField the starting field for this player's figures
+     */
+    public PlayerExpectimax(int id, String name, int numFigures, Field startField) {
+        this(id, name, numFigures, startField, DEFAULT_DEPTH, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a search player.
+     *
+     * @param id player ID
+     * @param name player name
+     * @param numFigures number of figures this player owns
+     * @param startField the starting field for this player's figures
+     * @param depth number of turns to search ahead
+     * @param pool pool running the search
+     */
+    public PlayerExpectimax(int id, String name, int numFigures, Field startField, int depth, ForkJoinPool pool) {
+        super(id, name, numFigures, startField);
+        if (depth < 1) throw new IllegalArgumentException("depth must be at least 1");
+        if (pool == null) throw new IllegalArgumentException("pool must not be null");
+        this.depth = depth;
+        this.pool = pool;
+    }
+
+    /**
+     * Get a factory for search players with the given depth and pool.
+     */
+    public static I_PlayerFactory factory(int depth, ForkJoinPool pool) {
+        return (id, name, numFigures, startField) -> new PlayerExpectimax(id, name, numFigures, startField, depth, pool);
+    }
+
+    @Override
+    public void setBoard(BoardTopology topology, Field[] fields, Player[] players) {
+        super.setBoard(topology, fields, players);
+        this.search = new ExpectimaxSearch(topology, this.depth, this.pool, new TranspositionTable(TABLE_SLOTS));
+        this.position = new CompactBoards(topology, 1);
+    }
+
+    /**
+     * Choose the movable figure with the best expected value for the last roll.
+     *
+     * @param movableFigures array of figures that are movable
+     * @return index of the chosen figure in this player's figure array
+     */
+    @Override
+    protected int chooseFigure(GameFigure[] movableFigures) {
+        if (movableFigures == null || movableFigures.length == 0) {
+            System.out.println(this.getName() + " has no movable figures.");
+            return -1;
+        }
+        if (movableFigures.length == 1 || this.search == null) {
+            return movableFigures[0].getId();
+        }
+        this.position.load(0, this.getAllPlayers());
+        int figure = this.search.chooseFigure(this.position, this.getId(), this.getLastRoll());
+        for (GameFigure movable : movableFigures) {
+            if (movable.getId() == figure) return figure;
+        }
+        throw new IllegalStateException("Search chose a figure the rule set does not allow to move");
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * A computer player scoring every movable figure with a weighted sum of features.
+ * The features are computed from the game's {@link ThreatMap}, so a decision costs a few array lookups:
+ * <ul>
+ *   <li>{@link #PROGRESS}: fields gained by the move (negative when an overshoot wraps around the ring), per 6 fields</li>
+ *   <li>{@link #SAFETY}: opponent figures threatening the figure before the move minus those threatening its destination</li>
+ *   <li>{@link #CAPTURE}: 1 when the move captures an opponent figure</li>
+ *   <li>{@link #HOUSE_EXIT}: 1 when the move brings a figure out of the house</li>
+ * </ul>
+ */
+public class PlayerHeuristic extends Player {
+    public static final int PROGRESS = 0;
+    public static final int SAFETY = 1;
+    public static final int CAPTURE = 2;
+    public static final int HOUSE_EXIT = 3;
+    public static final int FEATURE_COUNT = 4;
+    private static final double[] DEFAULT_WEIGHTS = { 1.0, 0.5, 2.0, 1.5 };
+
+    private final double[] weights; // changed in place by setWeights
+    private final double[] features = new double[FEATURE_COUNT];
+
+    /**
+     * Create a heuristic player with the default weights.
+     *
+     * @param id player ID
+     * @param name player name
+     * @param numFigures number of figures this player owns
+     * @param startField the starting field for this player's figures
+     */
+    public PlayerHeuristic(int id, String name, int numFigures, Field startField) {
+        this(id, name, numFigures, startField, DEFAULT_WEIGHTS);
+    }
+
+    /**
+     * Create a heuristic player.
+     *
+     * @param id player ID
+     * @param name player name
+     * @param numFigures number of figures this player owns
+     * @param startField the starting field for this player's figures
+     * @param weights one weight per feature, indexed by the feature constants
+     */
+    public PlayerHeuristic(int id, String name, int numFigures, Field startField, double[] weights) {
+        super(id, name, numFigures, startField);
+        if (weights == null || weights.length != FEATURE_COUNT) {
+            throw new IllegalArgumentException("Expected " + FEATURE_COUNT + " weights");
+        }
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Get a factory for heuristic players sharing the given weights.
+     */
+    public static I_PlayerFactory factory(double... weights) {
+        double[] copy = weights.clone();
+        return (id, name, numFigures, startField) -> new PlayerHeuristic(id, name, numFigures, startField, copy);
+    }
+
+    /**
+     * Get a copy of the default weights.
+     *
+     * @return default weight vector
+     */
+    public static double[] getDefaultWeights() {
+        return DEFAULT_WEIGHTS.clone();
+    }
+
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    /**
+     * Replace the weights, e.g. to rate another candidate on a reused game.
+     *
+     * @param weights one weight per feature, indexed by the feature constants
+     * @throws IllegalStateException if a {@link DecisionCache} is attached, since it holds the old decisions
+     */
+    public void setWeights(double... weights) {
+        if (weights == null || weights.length != FEATURE_COUNT) {
+            throw new IllegalArgumentException("Expected " + FEATURE_COUNT + " weights");
+        }
+        if (this.getDecisionCache() != null) throw new IllegalStateException("Detach the decision cache before changing weights");
+        System.arraycopy(weights, 0, this.weights, 0, FEATURE_COUNT);
+    }
+
+    /**
+     * Get the fingerprint of heuristic players with the given weights, e.g. to create their {@link DecisionCache}.
+     *
+     * @param weights one weight per feature
+     * @return the fingerprint, see {@link Player#getStrategyFingerprint()}
+     */
+    public static String fingerprint(double... weights) {
+        return PlayerHeuristic.class.getName() + java.util.Arrays.toString(weights);
+    }
+
+    @Override
+    public String getStrategyFingerprint() {
+        return fingerprint(weights);
+    }
+
+    /**
+     * The score only depends on the position and the roll.
+     */
+    @Override
+    protected boolean isDeterministic() {
+        return true;
+    }
+
+    /**
+     * Choose the movable figure with the highest weighted score for the last roll.
+     * Ties go to the figure listed first.
+     *
+     * @param movableFigures array of figures that are movable
+     * @return index of the chosen figure in this player's figure array
+     */
+    @Override
+    protected int chooseFigure(GameFigure[] movableFigures) {
+        if (movableFigures == null || movableFigures.length == 0) {
+            System.out.println(this.getName() + " has no movable figures.");
+            return -1;
+        }
+        ThreatMap threats = this.getThreatMap();
+        if (movableFigures.length == 1 || threats == null) {
+            return movableFigures[0].getId();
+        }
+        GameFigure best = null;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (GameFigure figure : movableFigures) {
+            computeFeatures(threats, this.getTopology(), figure, this.getLastRoll(), features);
+            double score = 0;
+            for (int i = 0; i < FEATURE_COUNT; i++) {
+                score += weights[i] * features[i];
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = figure;
+            }
+        }
+        return best.getId();
+    }
+
+    /**
+     * Compute the features of moving a figure by the given roll.
+     *
+     * @param threats the game's threat index
+     * @param topology the board configuration
+     * @param figure the figure to move; the move must be legal
+     * @param roll value of the roll (1..6)
+     * @param out array receiving {@link #FEATURE_COUNT} feature values
+     */
+    static void computeFeatures(ThreatMap threats, BoardTopology topology, GameFigure figure, int roll, double[] out) {
+        int player = figure.getOwner().getId();
+        int progress = topology.getProgress(player, figure.getField());
+        int destination = topology.getDestinationProgress(progress, roll);
+        int target = threats.getTarget(figure, roll);
+        boolean fromHouse = progress == BoardTopology.HOUSE;
+        out[PROGRESS] = fromHouse ? 0 : (destination - progress) / 6.0;
+        out[SAFETY] = threats.getRisk(figure) - (target < 0 ? 0 : threats.getThreatCount(target, player));
+        out[CAPTURE] = threats.getVictim(figure, roll) != null ? 1 : 0;
+        out[HOUSE_EXIT] = fromHouse ? 1 : 0;
+    }
+}
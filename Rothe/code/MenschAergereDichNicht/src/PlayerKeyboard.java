@@ -1,10 +1,15 @@
-// uses GameManager.SCANNER for console input
 /**
  * A keyboard-controlled player.
  * Prompts the user via console to choose a figure (1..numFigures).
+ * Input comes from a {@link ConsoleReader}, so answers typed ahead are used by the next prompt. With a move
+ * timeout, the {@link I_MoveFallback} moves for the human once the deadline has passed (by default the strategy
+ * of {@link PlayerPC}), so the game keeps its pace.
  */
 public class PlayerKeyboard extends Player {
-    // no per-instance scanner: reuse shared GameManager.SCANNER
+    private final java.util.Random random = new java.util.Random();
+    private ConsoleReader console = ConsoleReader.shared();
+    private long moveTimeoutMillis; // 0: wait for the human
+    private I_MoveFallback fallback = (player, movable) -> PlayerPC.chooseRandom(player, movable, this.random);
 
     /**
      * Create a keyboard player.
@@ -17,6 +22,41 @@ public class PlayerKeyboard extends Player {
         super(id ,name, numFigures, startField);
     }
 
+    /**
+     * Set the time the human has for a move before the fallback moves instead.
+     *
+     * @param millis time per move in milliseconds, 0 to wait without limit
+     */
+    public void setMoveTimeout(long millis) {
+        if (millis < 0) throw new IllegalArgumentException("millis must not be negative");
+        this.moveTimeoutMillis = millis;
+    }
+
+    /**
+     * Set the move made when the move timeout expires or the console input has ended.
+     *
+     * @param fallback the fallback strategy
+     */
+    public void setFallback(I_MoveFallback fallback) {
+        if (fallback == null) throw new IllegalArgumentException("fallback must not be null");
+        this.fallback = fallback;
+    }
+
+    /**
+     * Set the console the moves are read from.
+     *
+     * @param console console reader, {@link ConsoleReader#shared()} by default
+     */
+    public void setConsole(ConsoleReader console) {
+        if (console == null) throw new IllegalArgumentException("console must not be null");
+        this.console = console;
+    }
+
+    @Override
+    protected void reseedStrategy(long seed) {
+        this.random.setSeed(seed);
+    }
+
     /**
      * Prompt the player to choose a figure from the given movable indices.
      * Displays which figures can be moved and asks the user to pick one.
@@ -49,14 +89,20 @@ public class PlayerKeyboard extends Player {
             if (i > 0) System.out.print(", ");
             System.out.print(movableIndices[i] + 1); // display 1-based
         }
-        System.out.println("):");
+        System.out.println(moveTimeoutMillis > 0 ? ") within " + (moveTimeoutMillis + 999) / 1000 + " s:" : "):");
         // for (int i = 0; i < movableIndices.length; i++) {
         //     System.out.println((movableIndices[i] + 1) + " Figure " + (movableIndices[i] + 1));
         // }
 
+        long deadline = System.nanoTime() + moveTimeoutMillis * 1_000_000L;
         while (true) {
             System.out.print("> ");
-            String line = GameManager.SCANNER.nextLine();
+            String line = readLine(deadline);
+            if (line == null) {
+                int chosen = fallback.choose(this, movableFigures);
+                System.out.println("No choice in time, moving figure " + (chosen + 1) + ".");
+                return chosen;
+            }
             try {
                 int choice = Integer.parseInt(line.trim());
                 for (int idx : movableIndices) {
@@ -73,4 +119,16 @@ public class PlayerKeyboard extends Player {
             }
         }
     }
+
+    /** Next console line, or null once the deadline has passed or the input has ended. */
+    private String readLine(long deadline) {
+        try {
+            if (moveTimeoutMillis == 0) return console.take();
+            long remaining = deadline - System.nanoTime();
+            return remaining > 0 ? console.poll(remaining, java.util.concurrent.TimeUnit.NANOSECONDS) : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
 }
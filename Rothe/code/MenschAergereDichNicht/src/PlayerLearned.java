@@ -0,0 +1,76 @@
+/**
+ * A computer player following a {@link LinearPolicy} trained by self-play with {@link PolicyTrainer}.
+ * For every movable figure the position after the move is encoded with {@link PolicyFeatures} and valued
+ * with a dot product; the figure leading to the best position is chosen.
+ */
+public class PlayerLearned extends Player {
+    private final LinearPolicy policy;
+    private final double[] features = new double[PolicyFeatures.COUNT];
+    private PolicyFeatures encoder; // created once the board is known
+    private CompactBoards position; // slot 0: current position, slot 1: scratch
+
+    /**
+     * Create a learned player.
+     *
+     * @param id player ID
+     * @param name player name
+     * @param numFigures number of figures this player owns
+     * @param startField the starting field for this player's figures
+     * @param policy the trained policy
+     */
+    public PlayerLearned(int id, String name, int numFigures, Field startField, LinearPolicy policy) {
+        super(id, name, numFigures, startField);
+        if (policy == null) throw new IllegalArgumentException("policy must not be null");
+        this.policy = policy;
+    }
+
+    /**
+     * Get a factory for learned players sharing one policy.
+     */
+    public static I_PlayerFactory factory(LinearPolicy policy) {
+        return (id, name, numFigures, startField) -> new PlayerLearned(id, name, numFigures, startField, policy);
+    }
+
+    @Override
+    public void setBoard(BoardTopology topology, Field[] fields, Player[] players) {
+        super.setBoard(topology, fields, players);
+        this.encoder = new PolicyFeatures(topology);
+        this.position = new CompactBoards(topology, 2);
+    }
+
+    @Override
+    public String getStrategyFingerprint() {
+        return PlayerLearned.class.getName() + java.util.Arrays.toString(policy.getWeights());
+    }
+
+    /**
+     * The policy only depends on the position and the roll.
+     */
+    @Override
+    protected boolean isDeterministic() {
+        return true;
+    }
+
+    /**
+     * Choose the movable figure leading to the position with the highest value.
+     *
+     * @param movableFigures array of figures that are movable
+     * @return index of the chosen figure in this player's figure array
+     */
+    @Override
+    protected int chooseFigure(GameFigure[] movableFigures) {
+        if (movableFigures == null || movableFigures.length == 0) {
+            System.out.println(this.getName() + " has no movable figures.");
+            return -1;
+        }
+        if (movableFigures.length == 1 || this.encoder == null) {
+            return movableFigures[0].getId();
+        }
+        int mask = 0;
+        for (GameFigure figure : movableFigures) {
+            mask |= 1 << figure.getId();
+        }
+        this.position.load(0, this.getAllPlayers());
+        return this.policy.choose(this.encoder, this.position, 0, 1, this.getId(), this.getLastRoll(), mask, this.features);
+    }
+}
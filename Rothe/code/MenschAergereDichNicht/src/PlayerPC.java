@@ -3,6 +3,7 @@
  * Randomly chooses a figure from the available movable figures.
  */
 public class PlayerPC extends Player {
+    private final java.util.Random random = new java.util.Random();
 
     /**
      * Create a computer player.
@@ -16,6 +17,11 @@ public class PlayerPC extends Player {
         super(id, name, numFigures, startField);
     }
 
+    @Override
+    protected void reseedStrategy(long seed) {
+        this.random.setSeed(seed);
+    }
+
     /**
      * Randomly choose a figure from the given movable figures.
      *
@@ -29,15 +35,28 @@ public class PlayerPC extends Player {
             return -1;
         }
 
+        return chooseRandom(this, movableFigures, this.random);
+    }
+
+    /**
+     * Randomly choose a figure for a player, the strategy of a computer player.
+     * Also moves for a {@link PlayerKeyboard} whose human did not answer in time.
+     *
+     * @param player the player to move
+     * @param movableFigures figures of the player that are movable, not empty
+     * @param random source of the choice
+     * @return index of the chosen figure in the player's figure array
+     */
+    static int chooseRandom(Player player, GameFigure[] movableFigures, java.util.Random random) {
         // Map movable figures to their indices within this player's figure array
-        GameFigure[] all = this.getFigures();
-        int randomIndex = (int) (Math.random() * movableFigures.length);
+        GameFigure[] all = player.getFigures();
+        int randomIndex = random.nextInt(movableFigures.length);
         GameFigure chosenFigure = movableFigures[randomIndex];
         
         // Find the index of the chosen figure in the player's figure array
         for (int j = 0; j < all.length; j++) {
             if (all[j] == chosenFigure) {
-                // System.out.println(this.getName() + " (PC) chose figure " + (j + 1));
+                // System.out.println(player.getName() + " (PC) chose figure " + (j + 1));
                 return j;
             }
         }
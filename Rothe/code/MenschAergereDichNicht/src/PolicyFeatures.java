@@ -0,0 +1,135 @@
+/**
+ * Compact feature encoding of a {@link CompactBoards} position from the view of one player,
+ * used by {@link LinearPolicy}. Features are aggregates, so they do not depend on the order of
+ * figures or opponents:
+ * figures in the house and the goal, mean progress, figures on the last ring stretch and
+ * threatened figures for the player, and the same quantities (mean and leader) for the opponents.
+ *
+ * Instances hold scratch arrays and must only be used by one thread at a time.
+ */
+public final class PolicyFeatures {
+    public static final int BIAS = 0;
+    public static final int OWN_HOUSE = 1;
+    public static final int OWN_GOAL = 2;
+    public static final int OWN_PROGRESS = 3;
+    public static final int OWN_THREATENED = 4;
+    public static final int OWN_HOME_STRETCH = 5;
+    public static final int OWN_RISK = 6;
+    public static final int OPP_HOUSE = 7;
+    public static final int OPP_GOAL = 8;
+    public static final int OPP_LEADER_GOAL = 9;
+    public static final int OPP_PROGRESS = 10;
+    public static final int OPP_LEADER_PROGRESS = 11;
+    public static final int OPP_THREATENED = 12;
+    public static final int OPP_HOME_STRETCH = 13;
+    public static final int COUNT = 14;
+
+    private final BoardTopology topology;
+    private final int playerCount;
+    private final int figuresPerPlayer;
+    private final int ringSize;
+    private final int[] threats; // [player * ringSize + ringIndex] figures of player able to land there
+
+    public PolicyFeatures(BoardTopology topology) {
+        if (topology == null) throw new IllegalArgumentException("topology must not be null");
+        this.topology = topology;
+        this.playerCount = topology.getPlayerCount();
+        this.figuresPerPlayer = topology.getFiguresPerPlayer();
+        this.ringSize = topology.getRingSize();
+        this.threats = new int[this.playerCount * this.ringSize];
+    }
+
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Encode a position from the view of a player.
+     *
+     * @param boards storage holding the position
+     * @param game slot of the position
+     * @param player the player whose chances are described
+     * @param out array receiving {@link #COUNT} feature values
+     */
+    public void extract(CompactBoards boards, int game, int player, double[] out) {
+        countThreats(boards, game);
+        double figures = figuresPerPlayer;
+        double pathLength = topology.getPathLength();
+        double oppHouse = 0, oppGoal = 0, oppProgress = 0, oppThreatened = 0, oppStretch = 0;
+        double leaderGoal = 0, leaderProgress = 0;
+        for (int p = 0; p < playerCount; p++) {
+            int house = boards.getNumFiguresInHouse(game, p);
+            int goal = boards.getNumFiguresInGoal(game, p);
+            int progressSum = 0;
+            int stretch = 0;
+            int threatened = 0;
+            int risk = 0;
+            for (int f = 0; f < figuresPerPlayer; f++) {
+                int progress = boards.getProgress(game, p, f);
+                progressSum += progress + 1;
+                if (progress < 0 || progress >= ringSize) continue;
+                if (progress >= ringSize - 6) stretch++;
+                int attackers = getThreatCount(topology.getRingIndex(p, progress), p);
+                if (attackers > 0) threatened++;
+                risk += attackers;
+            }
+            double progress = progressSum / (figures * pathLength);
+            if (p == player) {
+                out[OWN_HOUSE] = house / figures;
+                out[OWN_GOAL] = goal / figures;
+                out[OWN_PROGRESS] = progress;
+                out[OWN_THREATENED] = threatened / figures;
+                out[OWN_HOME_STRETCH] = stretch / figures;
+                out[OWN_RISK] = risk / (figures * playerCount);
+            } else {
+                oppHouse += house / figures;
+                oppGoal += goal / figures;
+                oppProgress += progress;
+                oppThreatened += threatened / figures;
+                oppStretch += stretch / figures;
+                leaderGoal = Math.max(leaderGoal, goal / figures);
+                leaderProgress = Math.max(leaderProgress, progress);
+            }
+        }
+        double opponents = Math.max(1, playerCount - 1);
+        out[BIAS] = 1;
+        out[OPP_HOUSE] = oppHouse / opponents;
+        out[OPP_GOAL] = oppGoal / opponents;
+        out[OPP_LEADER_GOAL] = leaderGoal;
+        out[OPP_PROGRESS] = oppProgress / opponents;
+        out[OPP_LEADER_PROGRESS] = leaderProgress;
+        out[OPP_THREATENED] = oppThreatened / opponents;
+        out[OPP_HOME_STRETCH] = oppStretch / opponents;
+    }
+
+    /** Same reachability as {@link ThreatMap}, recomputed for the whole position. */
+    private void countThreats(CompactBoards boards, int game) {
+        java.util.Arrays.fill(threats, 0);
+        for (int p = 0; p < playerCount; p++) {
+            int base = p * ringSize;
+            boolean houseCounted = false;
+            for (int f = 0; f < figuresPerPlayer; f++) {
+                int progress = boards.getProgress(game, p, f);
+                if (progress == BoardTopology.HOUSE) {
+                    // any house figure may leave with a 6; they all threaten the same field
+                    if (!houseCounted) threats[base + topology.getStartIndex(p)]++;
+                    houseCounted = true;
+                    continue;
+                }
+                if (progress >= ringSize) continue;
+                for (int roll = 1; roll <= 6; roll++) {
+                    int destination = topology.getDestinationProgress(progress, roll);
+                    if (destination < ringSize) threats[base + topology.getRingIndex(p, destination)]++;
+                }
+            }
+        }
+    }
+
+    private int getThreatCount(int ringIndex, int victim) {
+        int count = 0;
+        for (int p = 0; p < playerCount; p++) {
+            if (p != victim) count += threats[p * ringSize + ringIndex];
+        }
+        return count;
+    }
+}
@@ -0,0 +1,185 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.IntStream;
+
+/**
+ * Trains a {@link LinearPolicy} with TD(λ) by self-play on {@link CompactBoards}.
+ * Every seat plays with the same weights; after each of its moves a player's afterstate is valued and the
+ * previous value is moved towards it, and at the end towards 1 for the winner and 0 for everybody else.
+ * Moves are chosen greedily, with a small share of random moves for exploration.
+ *
+ * Games are played in rounds of a fixed number of chunks. The chunks of a round run in parallel on the
+ * common fork/join pool with a frozen copy of the weights; each returns its mean TD update per step, and the
+ * weights move by the average over all chunks, summed in chunk order. Training is therefore deterministic
+ * for a seed no matter how many cores take part.
+ * Turns are played with {@link CompactTurns}, like {@link BatchSimulator}.
+ */
+public class PolicyTrainer {
+    private static final int GAMES_PER_CHUNK = 4;
+    private static final int CHUNKS_PER_UPDATE = 16; // fixed, so results do not depend on the core count
+
+    private final BoardTopology topology;
+    private final double alpha;
+    private final double lambda;
+    private final double epsilon;
+    private final double[] weights;
+
+    /**
+     * Create a trainer starting from all-zero weights.
+     *
+     * @param topology board to train on
+     * @param alpha learning rate
+     * @param lambda trace decay of TD(λ), 0..1
+     * @param epsilon share of random exploration moves, 0..1
+     */
+    public PolicyTrainer(BoardTopology topology, double alpha, double lambda, double epsilon) {
+        if (topology == null) throw new IllegalArgumentException("topology must not be null");
+        if (alpha <= 0) throw new IllegalArgumentException("alpha must be positive");
+        if (lambda < 0 || lambda > 1) throw new IllegalArgumentException("lambda must be between 0 and 1");
+        if (epsilon < 0 || epsilon > 1) throw new IllegalArgumentException("epsilon must be between 0 and 1");
+        this.topology = topology;
+        this.alpha = alpha;
+        this.lambda = lambda;
+        this.epsilon = epsilon;
+        this.weights = new double[PolicyFeatures.COUNT];
+    }
+
+    /**
+     * Continue training from the weights of an existing policy.
+     *
+     * @param policy the policy to start from
+     */
+    public void setWeights(LinearPolicy policy) {
+        System.arraycopy(policy.getWeights(), 0, this.weights, 0, this.weights.length);
+    }
+
+    public LinearPolicy getPolicy() {
+        return new LinearPolicy(weights);
+    }
+
+    /**
+     * Play one epoch of self-play games and update the weights.
+     *
+     * @param games number of games, rounded up to whole rounds
+     * @param seed seed of the epoch; every chunk derives its dice and exploration from it
+     */
+    public void trainEpoch(int games, long seed) {
+        if (games <= 0) throw new IllegalArgumentException("games must be positive");
+        int gamesPerRound = GAMES_PER_CHUNK * CHUNKS_PER_UPDATE;
+        int rounds = (games + gamesPerRound - 1) / gamesPerRound;
+        for (int round = 0; round < rounds; round++) {
+            LinearPolicy frozen = getPolicy();
+            long roundSeed = Die6.deriveSeed(seed, round);
+            double[][] deltas = IntStream.range(0, CHUNKS_PER_UPDATE).parallel()
+                    .mapToObj(chunk -> playChunk(frozen, Die6.deriveSeed(roundSeed, chunk)))
+                    .toArray(double[][]::new);
+            for (double[] delta : deltas) {
+                for (int i = 0; i < weights.length; i++) {
+                    weights[i] += delta[i] / CHUNKS_PER_UPDATE;
+                }
+            }
+        }
+    }
+
+    /** Play one chunk with frozen weights and return the mean weight change per TD step. */
+    private double[] playChunk(LinearPolicy policy, long seed) {
+        PolicyFeatures encoder = new PolicyFeatures(topology);
+        CompactBoards boards = new CompactBoards(topology, 2);
+        int playerCount = topology.getPlayerCount();
+        double[] delta = new double[PolicyFeatures.COUNT];
+        double[] features = new double[PolicyFeatures.COUNT];
+        double[][] traces = new double[playerCount][PolicyFeatures.COUNT];
+        double[] previousValues = new double[playerCount];
+        boolean[] started = new boolean[playerCount];
+        long[] random = { seed };
+        I_FigureChooser chooser = (board, game, player, roll, mask) -> {
+            if (epsilon > 0 && CompactTurns.nextInt(random, 0, 1 << 20) < epsilon * (1 << 20)) {
+                return CompactTurns.pickUniform(random, 0, mask);
+            }
+            return policy.choose(encoder, board, game, 1, player, roll, mask, features);
+        };
+        int steps = 0;
+        for (int g = 0; g < GAMES_PER_CHUNK; g++) {
+            boards.reset(0);
+            java.util.Arrays.fill(started, false);
+            int player = 0;
+            while (true) {
+                // slot 1 is the policy's scratch slot for trying moves
+                CompactTurns.playTurn(boards, 0, player, random, 0, chooser);
+                // TD step of the mover: move its previous afterstate value towards the new one
+                encoder.extract(boards, 0, player, features);
+                double value = policy.value(features);
+                double[] trace = traces[player];
+                if (started[player]) {
+                    addScaled(delta, trace, alpha * (value - previousValues[player]));
+                    steps++;
+                    for (int i = 0; i < trace.length; i++) {
+                        trace[i] = lambda * trace[i] + features[i];
+                    }
+                } else {
+                    System.arraycopy(features, 0, trace, 0, trace.length);
+                    started[player] = true;
+                }
+                previousValues[player] = value;
+                if (boards.isAllInGoal(0, player)) break;
+                player = (player + 1) % playerCount;
+            }
+            for (int p = 0; p < playerCount; p++) {
+                if (started[p]) {
+                    addScaled(delta, traces[p], alpha * ((p == player ? 1 : 0) - previousValues[p]));
+                    steps++;
+                }
+            }
+        }
+        for (int i = 0; i < delta.length; i++) {
+            delta[i] /= Math.max(1, steps);
+        }
+        return delta;
+    }
+
+    private static void addScaled(double[] target, double[] source, double factor) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += factor * source[i];
+        }
+    }
+
+    /**
+     * Train a policy, save it and compare it with {@link PlayerPC} opponents.
+     * Usage: {@code PolicyTrainer [weightsFile] [epochs] [gamesPerEpoch] [players] [figures]};
+     * an existing weights file is used as the starting point.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "policy.bin");
+        int epochs = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int gamesPerEpoch = args.length > 2 ? Integer.parseInt(args[2]) : 4096;
+        int players = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int figures = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+        BoardTopology topology = BoardGenerator.shared(players, 0, figures);
+
+        PolicyTrainer trainer = new PolicyTrainer(topology, 0.1, 0.7, 0.05);
+        if (Files.exists(file)) {
+            long loadStart = System.nanoTime();
+            trainer.setWeights(LinearPolicy.load(file));
+            System.out.printf("Loaded %s in %.2f ms%n", file, (System.nanoTime() - loadStart) / 1e6);
+        }
+        long start = System.nanoTime();
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            trainer.trainEpoch(gamesPerEpoch, epoch);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d self-play games in %.1f s (%.0f games/s)%n",
+                (long) epochs * gamesPerEpoch, seconds, epochs * gamesPerEpoch / seconds);
+        LinearPolicy policy = trainer.getPolicy();
+        policy.save(file);
+        System.out.println("Weights: " + java.util.Arrays.toString(policy.getWeights()));
+
+        ResultCollector collector = new ResultCollector(50, 20);
+        Tournament tournament = new Tournament(players, figures, 0, Runtime.getRuntime().availableProcessors(),
+                PlayerLearned.factory(policy), PlayerPC::new);
+        tournament.setSeed(0);
+        tournament.run(10_000, collector);
+        System.out.println("Learned vs. random: " + collector.getWinsByStrategy() + " of " + collector.getGamesByStrategy());
+    }
+}
@@ -0,0 +1,204 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Evaluates positions given in {@link PositionNotation}: the legal moves of the side to move for every
+ * roll, and the win probability of every player estimated from random rollouts played with a
+ * {@link BatchSimulator} (figures chosen like {@link PlayerPC}).
+ *
+ * When a roll is pending, only that roll's moves are listed and each of them gets its own rollouts,
+ * so the output shows the win probability of the side to move after every move; the overall estimate
+ * is their average, as if the figure were chosen at random.
+ *
+ * Rollouts of position {@code i} are seeded with {@code Die6.deriveSeed(seed, i)}, so the output does not
+ * depend on the number of threads.
+ */
+public final class PositionEvaluator {
+    private final int rollouts;
+
+    /**
+     * Create an evaluator.
+     *
+     * @param rollouts number of rollouts per position
+     */
+    public PositionEvaluator(int rollouts) {
+        if (rollouts <= 0) throw new IllegalArgumentException("rollouts must be positive");
+        this.rollouts = rollouts;
+    }
+
+    /**
+     * Estimate the win probability of every player.
+     *
+     * @param position position to evaluate
+     * @param seed seed of the rollouts
+     * @return win probability indexed by player id
+     */
+    public double[] estimateWins(PositionNotation position, long seed) {
+        BoardTopology topology = position.getTopology();
+        CompactBoards boards = new CompactBoards(topology, 1);
+        position.store(boards, 0);
+        int side = position.getSideToMove();
+        int mask = position.getRoll() == 0 ? 0 : boards.getMovableMask(0, side, position.getRoll());
+        if (mask == 0) {
+            // no roll pending, or the pending roll cannot be played and the side to move rolls again
+            return rollout(boards, side, position.getRolls(), rollouts, seed);
+        }
+        double[] wins = new double[topology.getPlayerCount()];
+        int moves = Integer.bitCount(mask);
+        for (int figure = 0; figure < topology.getFiguresPerPlayer(); figure++) {
+            if ((mask & (1 << figure)) == 0) continue;
+            double[] move = estimateMove(boards, side, figure, position.getRoll(), Die6.deriveSeed(seed, figure));
+            for (int p = 0; p < wins.length; p++) {
+                wins[p] += move[p] / moves;
+            }
+        }
+        return wins;
+    }
+
+    /** Win probabilities after {@code player} moved {@code figure} by {@code roll}. */
+    private double[] estimateMove(CompactBoards boards, int player, int figure, int roll, long seed) {
+        CompactBoards after = boards.copy(0);
+        after.applyMove(0, player, figure, roll);
+        int moves = Integer.bitCount(boards.getMovableMask(0, player, roll));
+        return rollout(after, (player + 1) % after.getTopology().getPlayerCount(), 0, Math.max(1, rollouts / moves), seed);
+    }
+
+    private static double[] rollout(CompactBoards boards, int player, int rolls, int games, long seed) {
+        BoardTopology topology = boards.getTopology();
+        double[] wins = new double[topology.getPlayerCount()];
+        for (int p = 0; p < wins.length; p++) {
+            if (boards.isAllInGoal(0, p)) { // the game is already decided
+                wins[p] = 1;
+                return wins;
+            }
+        }
+        BatchSimulator simulator = new BatchSimulator(topology, games, seed);
+        for (int g = 0; g < games; g++) {
+            simulator.setPosition(g, boards, 0, player, rolls);
+        }
+        while (simulator.playTurn() > 0) {
+            // play until every rollout has a winner
+        }
+        for (int g = 0; g < games; g++) {
+            wins[simulator.getWinner(g)] += 1.0 / games;
+        }
+        return wins;
+    }
+
+    /**
+     * Evaluate one line of input.
+     * The result is the position followed by the moves per roll and the win probabilities, separated by tabs.
+     * Moves are written as {@code figure(from>to)}, a capture is marked with {@code x}, e.g.
+     * {@code 6:0(h>0),2(5>11x)}. Invalid positions give {@code error: <message>} instead.
+     *
+     * @param line position in {@link PositionNotation}
+     * @param seed seed of the rollouts
+     * @return the result line
+     */
+    public String evaluate(String line, long seed) {
+        PositionNotation position;
+        try {
+            position = PositionNotation.parse(line);
+        } catch (IllegalArgumentException e) {
+            return line.trim() + "\terror: " + e.getMessage();
+        }
+        BoardTopology topology = position.getTopology();
+        CompactBoards boards = new CompactBoards(topology, 1);
+        position.store(boards, 0);
+        int side = position.getSideToMove();
+        StringBuilder result = new StringBuilder(position.toString()).append('\t');
+        double[] wins = position.getRoll() == 0 ? estimateWins(position, seed) : new double[topology.getPlayerCount()];
+        int firstRoll = position.getRoll() == 0 ? 1 : position.getRoll();
+        int lastRoll = position.getRoll() == 0 ? 6 : position.getRoll();
+        for (int roll = firstRoll; roll <= lastRoll; roll++) {
+            if (roll > firstRoll) result.append(' ');
+            result.append(roll).append(':');
+            int mask = boards.getMovableMask(0, side, roll);
+            if (mask == 0) result.append('-');
+            if (mask == 0 && position.getRoll() != 0) wins = estimateWins(position, seed);
+            for (int figure = 0; figure < topology.getFiguresPerPlayer(); figure++) {
+                if ((mask & (1 << figure)) == 0) continue;
+                if ((mask & ((1 << figure) - 1)) != 0) result.append(',');
+                int from = boards.getProgress(0, side, figure);
+                int to = topology.getDestinationProgress(from, roll);
+                boolean capture = boards.getOccupant(0, boards.getCell(side, to)) >= 0;
+                result.append(figure).append('(').append(PositionNotation.formatField(topology, from)).append('>')
+                        .append(PositionNotation.formatField(topology, to)).append(capture ? "x" : "").append(')');
+                if (position.getRoll() != 0) {
+                    // same rollouts as estimateWins, so the overall estimate is the average of the moves
+                    double[] move = estimateMove(boards, side, figure, roll, Die6.deriveSeed(seed, figure));
+                    result.append(String.format(Locale.ROOT, "=%.3f", move[side]));
+                    for (int p = 0; p < wins.length; p++) {
+                        wins[p] += move[p] / Integer.bitCount(mask);
+                    }
+                }
+            }
+        }
+        result.append('\t');
+        for (int p = 0; p < wins.length; p++) {
+            if (p > 0) result.append(' ');
+            result.append(String.format(Locale.ROOT, "%.3f", wins[p]));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Evaluate a file of positions, one per line, in parallel and print the results in input order.
+     * Blank lines and lines starting with {@code #} are copied unchanged.
+     * Usage: {@code PositionEvaluator input [rollouts] [threads] [seed]}, use {@code -} to read standard input.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.out.println("Usage: PositionEvaluator input [rollouts] [threads] [seed]");
+            return;
+        }
+        int rollouts = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        PositionEvaluator evaluator = new PositionEvaluator(rollouts);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // results are printed in order; the window bounds the lines held in memory
+        ArrayDeque<Future<String>> pending = new ArrayDeque<>();
+        int window = 4 * threads;
+        try (BufferedReader in = args[0].equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8);
+             PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            String line;
+            long index = 0;
+            while ((line = in.readLine()) != null) {
+                String position = line;
+                long positionSeed = Die6.deriveSeed(seed, index++);
+                if (position.isBlank() || position.startsWith("#")) {
+                    pending.add(CompletableFuture.completedFuture(position));
+                } else {
+                    pending.add(executor.submit(() -> evaluator.evaluate(position, positionSeed)));
+                }
+                while (pending.size() > window) {
+                    out.println(pending.remove().get());
+                }
+            }
+            while (!pending.isEmpty()) {
+                out.println(pending.remove().get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Evaluation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
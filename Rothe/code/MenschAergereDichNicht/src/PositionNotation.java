@@ -0,0 +1,231 @@
+import java.util.Arrays;
+
+/**
+ * A complete game state in a compact one-line text notation, e.g.
+ * <pre>
+ * 4x4:10 h,h,0,g3/h,h,h,h/12,h,h,h/h,h,h,h 1 0 -
+ * </pre>
+ * The tokens are separated by whitespace:
+ * <ol>
+ *   <li>board: {@code <players>x<figures>:<fieldsPerPlayer>}</li>
+ *   <li>figures: one group per player separated by {@code /}, one entry per figure separated by {@code ,}:
+ *       {@code h} for the house, the ring progress {@code 0..ringSize-1} counted from the player's start field,
+ *       or {@code g<i>} for goal field {@code i}, see {@link BoardTopology}</li>
+ *   <li>side to move: player number, counted from 1</li>
+ *   <li>rolls the side to move has taken in this turn (at most {@value RuleSetStandard#MAX_ROLLS_ALL_IN_HOUSE})</li>
+ *   <li>pending roll: {@code 1..6} when the last roll still has to be played, {@code -} otherwise (optional)</li>
+ * </ol>
+ * Positions are immutable and validated: no two figures may share a field.
+ */
+public final class PositionNotation {
+    private final BoardTopology topology;
+    private final int[] progress; // [player * figuresPerPlayer + figure]
+    private final int sideToMove;
+    private final int rolls;
+    private final int roll; // 0 when no roll is pending
+
+    /**
+     * Create a position.
+     *
+     * @param topology board configuration
+     * @param progress progress of every figure, indexed by {@code player * figuresPerPlayer + figure}
+     * @param sideToMove id of the player to move
+     * @param rolls rolls the side to move has taken in this turn
+     * @param roll pending roll, 0 for none
+     * @throws IllegalArgumentException if the position is invalid
+     */
+    public PositionNotation(BoardTopology topology, int[] progress, int sideToMove, int rolls, int roll) {
+        if (topology == null) throw new IllegalArgumentException("topology must not be null");
+        if (progress.length != topology.getPlayerCount() * topology.getFiguresPerPlayer()) {
+            throw new IllegalArgumentException("Expected " + topology.getPlayerCount() * topology.getFiguresPerPlayer()
+                    + " figures, got " + progress.length);
+        }
+        if (sideToMove < 0 || sideToMove >= topology.getPlayerCount()) {
+            throw new IllegalArgumentException("Side to move out of range: " + (sideToMove + 1));
+        }
+        if (rolls < 0 || rolls > RuleSetStandard.MAX_ROLLS_ALL_IN_HOUSE) {
+            throw new IllegalArgumentException("Rolls must be between 0 and " + RuleSetStandard.MAX_ROLLS_ALL_IN_HOUSE);
+        }
+        if (roll < 0 || roll > 6) throw new IllegalArgumentException("Roll must be between 1 and 6");
+        if (roll != 0 && rolls == 0) throw new IllegalArgumentException("A pending roll counts as a roll of the turn");
+        this.topology = topology;
+        this.progress = progress.clone();
+        this.sideToMove = sideToMove;
+        this.rolls = rolls;
+        this.roll = roll;
+        // placing the figures rejects progress values out of range and shared fields
+        store(new CompactBoards(topology, 1), 0);
+    }
+
+    /**
+     * Parse a position.
+     *
+     * @param text position in the notation described above
+     * @return the position
+     * @throws IllegalArgumentException if the text is not a valid position
+     */
+    public static PositionNotation parse(String text) {
+        String[] tokens = text.trim().split("\\s+");
+        if (tokens.length < 4 || tokens.length > 5) {
+            throw new IllegalArgumentException("Expected 4 or 5 tokens: board figures side rolls [roll]");
+        }
+        String[] board = tokens[0].split("[x:]");
+        if (board.length != 3) throw new IllegalArgumentException("Board must be <players>x<figures>:<fieldsPerPlayer>");
+        int players = parseInt(board[0], "players");
+        int figures = parseInt(board[1], "figures");
+        BoardTopology topology = BoardGenerator.shared(players, parseInt(board[2], "fieldsPerPlayer"), figures);
+
+        String[] groups = tokens[1].split("/", -1);
+        if (groups.length != players) throw new IllegalArgumentException("Expected " + players + " figure groups");
+        int[] progress = new int[players * figures];
+        for (int p = 0; p < players; p++) {
+            String[] entries = groups[p].split(",", -1);
+            if (entries.length != figures) {
+                throw new IllegalArgumentException("Expected " + figures + " figures for player " + (p + 1));
+            }
+            for (int f = 0; f < figures; f++) {
+                progress[p * figures + f] = parseField(topology, entries[f]);
+            }
+        }
+        int side = parseInt(tokens[2], "side to move") - 1;
+        int rolls = parseInt(tokens[3], "rolls");
+        int roll = tokens.length < 5 || tokens[4].equals("-") ? 0 : parseInt(tokens[4], "roll");
+        return new PositionNotation(topology, progress, side, rolls, roll);
+    }
+
+    private static int parseField(BoardTopology topology, String entry) {
+        if (entry.equals("h")) return BoardTopology.HOUSE;
+        if (entry.startsWith("g")) {
+            int goal = parseInt(entry.substring(1), "goal field");
+            if (goal < 0 || goal >= topology.getFiguresPerPlayer()) throw new IllegalArgumentException("Goal field out of range: " + entry);
+            return topology.getRingSize() + goal;
+        }
+        int ring = parseInt(entry, "ring progress");
+        if (ring < 0 || ring >= topology.getRingSize()) throw new IllegalArgumentException("Ring progress out of range: " + entry);
+        return ring;
+    }
+
+    private static int parseInt(String text, String what) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": '" + text + "'");
+        }
+    }
+
+    /**
+     * Capture the figure positions of an object-model game.
+     *
+     * @param game the game
+     * @param sideToMove id of the player to move
+     * @param rolls rolls the side to move has taken in this turn
+     * @param roll pending roll, 0 for none
+     * @return the position
+     */
+    public static PositionNotation of(GameManager game, int sideToMove, int rolls, int roll) {
+        BoardTopology topology = game.getTopology();
+        int figures = topology.getFiguresPerPlayer();
+        int[] progress = new int[topology.getPlayerCount() * figures];
+        for (Player player : game.getPlayers()) {
+            for (GameFigure figure : player.getFigures()) {
+                progress[player.getId() * figures + figure.getId()] = topology.getProgress(player.getId(), figure.getField());
+            }
+        }
+        return new PositionNotation(topology, progress, sideToMove, rolls, roll);
+    }
+
+    /**
+     * Set up an object-model game in this position, so {@link GameManager#runGame()} continues from it.
+     *
+     * @param game game with the same board configuration
+     * @throws IllegalArgumentException if a roll is pending, which a {@link GameManager} cannot resume
+     */
+    public void applyTo(GameManager game) {
+        if (game.getTopology() != topology) throw new IllegalArgumentException("Board configuration mismatch");
+        if (roll != 0) throw new IllegalArgumentException("A pending roll cannot be resumed by a GameManager");
+        CompactBoards boards = new CompactBoards(topology, 1);
+        store(boards, 0);
+        game.restoreState(boards, 0);
+    }
+
+    /**
+     * Place the figures and the turn state (side to move and rolls) into a slot of a compact storage.
+     *
+     * @param boards storage with this position's topology
+     * @param game target slot
+     */
+    public void store(CompactBoards boards, int game) {
+        if (boards.getTopology() != topology) throw new IllegalArgumentException("Board configuration mismatch");
+        boards.reset(game);
+        int figures = topology.getFiguresPerPlayer();
+        for (int i = 0; i < progress.length; i++) {
+            if (progress[i] != BoardTopology.HOUSE) boards.setProgress(game, i / figures, i % figures, progress[i]);
+        }
+        boards.setTurn(game, sideToMove, rolls);
+    }
+
+    public BoardTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Get the progress of a figure, see {@link BoardTopology}.
+     */
+    public int getProgress(int player, int figure) {
+        return progress[player * topology.getFiguresPerPlayer() + figure];
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public int getRolls() {
+        return rolls;
+    }
+
+    /**
+     * Get the roll still to be played, or 0 when the side to move has to roll.
+     */
+    public int getRoll() {
+        return roll;
+    }
+
+    /**
+     * Format a progress value like the figure entries of the notation.
+     *
+     * @param topology board configuration
+     * @param progress progress, see {@link BoardTopology}
+     * @return {@code h}, the ring progress or {@code g<i>}
+     */
+    public static String formatField(BoardTopology topology, int progress) {
+        if (progress == BoardTopology.HOUSE) return "h";
+        if (progress >= topology.getRingSize()) return "g" + (progress - topology.getRingSize());
+        return String.valueOf(progress);
+    }
+
+    @Override
+    public String toString() {
+        int figures = topology.getFiguresPerPlayer();
+        StringBuilder text = new StringBuilder();
+        text.append(topology.getPlayerCount()).append('x').append(figures).append(':').append(topology.getFieldsPerPlayer()).append(' ');
+        for (int i = 0; i < progress.length; i++) {
+            if (i > 0) text.append(i % figures == 0 ? '/' : ',');
+            text.append(formatField(topology, progress[i]));
+        }
+        text.append(' ').append(sideToMove + 1).append(' ').append(rolls).append(' ');
+        return text.append(roll == 0 ? "-" : String.valueOf(roll)).toString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof PositionNotation)) return false;
+        PositionNotation position = (PositionNotation) other;
+        return topology == position.topology && sideToMove == position.sideToMove && rolls == position.rolls
+                && roll == position.roll && Arrays.equals(progress, position.progress);
+    }
+
+    @Override
+    public int hashCode() {
+        return ((Arrays.hashCode(progress) * 31 + sideToMove) * 31 + rolls) * 31 + roll;
+    }
+}
@@ -0,0 +1,248 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collector;
+
+/**
+ * Aggregates {@link GameResult}s reported concurrently by many worker threads.
+ * All counters are {@link LongAdder}s: each recording thread updates its own striped cell, so
+ * no lock is taken and the cost of {@link #record(GameResult)} stays flat as threads are added.
+ * Reading sums the cells, which makes snapshots more expensive than updates.
+ *
+ * Collected are wins per seat, wins and games per strategy, a histogram of game lengths and
+ * a capture matrix counting how often each seat captured a figure of each other seat.
+ */
+public class ResultCollector {
+    private final int maxSeats;
+    private final int bucketWidth;
+    private final LongAdder games = new LongAdder();
+    private final LongAdder[] winsBySeat;
+    private final LongAdder[] lengthHistogram;
+    private final LongAdder[] captureMatrix; // [capturer * maxSeats + victim]
+    private final ConcurrentHashMap<String, LongAdder> winsByStrategy = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> gamesByStrategy = new ConcurrentHashMap<>();
+
+    /**
+     * Create a collector for up to {@link BoardGenerator#PLAYER_COUNT_MAX} seats.
+     *
+     * @param bucketWidth number of turns per histogram bucket
+     * @param bucketCount number of histogram buckets; longer games go into the last bucket
+     */
+    public ResultCollector(int bucketWidth, int bucketCount) {
+        if (bucketWidth <= 0 || bucketCount <= 0) throw new IllegalArgumentException("Histogram size must be positive");
+        this.maxSeats = BoardGenerator.PLAYER_COUNT_MAX;
+        this.bucketWidth = bucketWidth;
+        this.winsBySeat = newAdders(this.maxSeats);
+        this.lengthHistogram = newAdders(bucketCount);
+        this.captureMatrix = newAdders(this.maxSeats * this.maxSeats);
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Add a finished game. Safe to call from any number of threads at the same time.
+     *
+     * @param result the finished game
+     */
+    public void record(GameResult result) {
+        int seats = result.getPlayerCount();
+        int winner = result.getWinner();
+        games.increment();
+        winsBySeat[winner].increment();
+        counter(winsByStrategy, result.getStrategy(winner)).increment();
+        for (int seat = 0; seat < seats; seat++) {
+            counter(gamesByStrategy, result.getStrategy(seat)).increment();
+            for (int victim = 0; victim < seats; victim++) {
+                int captures = result.getCaptures(seat, victim);
+                if (captures != 0) captureMatrix[seat * maxSeats + victim].add(captures);
+            }
+        }
+        int bucket = Math.min(result.getTurns() / bucketWidth, lengthHistogram.length - 1);
+        lengthHistogram[bucket].increment();
+    }
+
+    /**
+     * Get a collector gathering a stream of results into a new {@link ResultCollector}.
+     * All threads of a parallel stream record into the same instance, so no partial results are merged.
+     *
+     * @param bucketWidth number of turns per histogram bucket
+     * @param bucketCount number of histogram buckets
+     * @return a concurrent, unordered collector
+     */
+    public static Collector<GameResult, ?, ResultCollector> collecting(int bucketWidth, int bucketCount) {
+        return Collector.of(() -> new ResultCollector(bucketWidth, bucketCount), ResultCollector::record,
+                ResultCollector::merge, Collector.Characteristics.CONCURRENT, Collector.Characteristics.UNORDERED,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * Add all counts of another collector with the same histogram layout to this one.
+     *
+     * @param other the collector to add; not modified
+     * @return this collector
+     */
+    public ResultCollector merge(ResultCollector other) {
+        if (other == this) return this;
+        if (other.bucketWidth != bucketWidth || other.lengthHistogram.length != lengthHistogram.length) {
+            throw new IllegalArgumentException("Histogram layouts differ");
+        }
+        games.add(other.games.sum());
+        add(winsBySeat, other.winsBySeat);
+        add(lengthHistogram, other.lengthHistogram);
+        add(captureMatrix, other.captureMatrix);
+        other.winsByStrategy.forEach((key, adder) -> counter(winsByStrategy, key).add(adder.sum()));
+        other.gamesByStrategy.forEach((key, adder) -> counter(gamesByStrategy, key).add(adder.sum()));
+        return this;
+    }
+
+    /**
+     * Write a snapshot of all counts, e.g. into a checkpoint. Should not race with {@link #record(GameResult)}
+     * if the snapshot must match a known set of games.
+     *
+     * @param out target
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(bucketWidth);
+        out.writeInt(lengthHistogram.length);
+        out.writeLong(games.sum());
+        writeSums(out, winsBySeat);
+        writeSums(out, lengthHistogram);
+        writeSums(out, captureMatrix);
+        writeCounters(out, winsByStrategy);
+        writeCounters(out, gamesByStrategy);
+    }
+
+    /**
+     * Read a collector written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in source
+     * @return a new collector holding the written counts
+     * @throws IOException if reading fails
+     */
+    public static ResultCollector readFrom(DataInput in) throws IOException {
+        ResultCollector collector = new ResultCollector(in.readInt(), in.readInt());
+        collector.games.add(in.readLong());
+        readSums(in, collector.winsBySeat);
+        readSums(in, collector.lengthHistogram);
+        readSums(in, collector.captureMatrix);
+        readCounters(in, collector.winsByStrategy);
+        readCounters(in, collector.gamesByStrategy);
+        return collector;
+    }
+
+    private static void writeSums(DataOutput out, LongAdder[] adders) throws IOException {
+        for (LongAdder adder : adders) {
+            out.writeLong(adder.sum());
+        }
+    }
+
+    private static void readSums(DataInput in, LongAdder[] adders) throws IOException {
+        for (LongAdder adder : adders) {
+            adder.add(in.readLong());
+        }
+    }
+
+    private static void writeCounters(DataOutput out, ConcurrentHashMap<String, LongAdder> map) throws IOException {
+        Map<String, Long> values = snapshot(map);
+        out.writeInt(values.size());
+        for (Map.Entry<String, Long> entry : values.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    private static void readCounters(DataInput in, ConcurrentHashMap<String, LongAdder> map) throws IOException {
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            counter(map, in.readUTF()).add(in.readLong());
+        }
+    }
+
+    private static void add(LongAdder[] target, LongAdder[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i].add(source[i].sum());
+        }
+    }
+
+    private static LongAdder counter(ConcurrentHashMap<String, LongAdder> map, String key) {
+        // get() first: after warm-up every strategy is present and no bin lock is touched
+        LongAdder adder = map.get(key);
+        return adder != null ? adder : map.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    public long getGameCount() {
+        return games.sum();
+    }
+
+    /**
+     * Get the number of wins per seat.
+     *
+     * @return wins indexed by seat id
+     */
+    public long[] getWinsBySeat() {
+        return sums(winsBySeat);
+    }
+
+    /**
+     * Get the number of wins per strategy (player class name), sorted by name.
+     */
+    public Map<String, Long> getWinsByStrategy() {
+        return snapshot(winsByStrategy);
+    }
+
+    /**
+     * Get the number of seats each strategy played, sorted by name.
+     */
+    public Map<String, Long> getGamesByStrategy() {
+        return snapshot(gamesByStrategy);
+    }
+
+    /**
+     * Get the histogram of game lengths. Bucket {@code i} counts games with
+     * {@code i * bucketWidth} to {@code (i + 1) * bucketWidth - 1} turns, the last bucket also all longer games.
+     */
+    public long[] getLengthHistogram() {
+        return sums(lengthHistogram);
+    }
+
+    public int getBucketWidth() {
+        return bucketWidth;
+    }
+
+    /**
+     * Get the capture matrix: {@code [capturer][victim]} = captured figures of seat {@code victim}
+     * taken by seat {@code capturer}.
+     */
+    public long[][] getCaptureMatrix() {
+        long[][] matrix = new long[maxSeats][maxSeats];
+        for (int i = 0; i < captureMatrix.length; i++) {
+            matrix[i / maxSeats][i % maxSeats] = captureMatrix[i].sum();
+        }
+        return matrix;
+    }
+
+    private static long[] sums(LongAdder[] adders) {
+        long[] values = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            values[i] = adders[i].sum();
+        }
+        return values;
+    }
+
+    private static Map<String, Long> snapshot(ConcurrentHashMap<String, LongAdder> map) {
+        Map<String, Long> values = new TreeMap<>();
+        map.forEach((key, adder) -> values.put(key, adder.sum()));
+        return values;
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Column layout of {@link GameResult}s in columnar result files: seed, winner and turns, followed by
+ * the rolls of every seat, the capture matrix row by row and the house exits of every seat.
+ * The configuration and strategies are the same for all rows and are stored once in the file header.
+ */
+final class ResultColumns {
+    static final int SEED = 0;
+    static final int WINNER = 1;
+    static final int TURNS = 2;
+    private static final int FIRST_SEAT_COLUMN = 3;
+
+    private ResultColumns() {
+    }
+
+    static int getCount(int playerCount) {
+        return FIRST_SEAT_COLUMN + 2 * playerCount + playerCount * playerCount;
+    }
+
+    static int rolls(int seat) {
+        return FIRST_SEAT_COLUMN + seat;
+    }
+
+    static int captures(int playerCount, int capturer, int victim) {
+        return FIRST_SEAT_COLUMN + playerCount + capturer * playerCount + victim;
+    }
+
+    static int houseExits(int playerCount, int seat) {
+        return FIRST_SEAT_COLUMN + playerCount + playerCount * playerCount + seat;
+    }
+
+    /** Bytes per value of a column. */
+    static int getWidth(int column) {
+        return column == SEED ? Long.BYTES : column == WINNER ? 1 : Integer.BYTES;
+    }
+
+    static String getName(int playerCount, int column) {
+        if (column == SEED) return "seed";
+        if (column == WINNER) return "winner";
+        if (column == TURNS) return "turns";
+        int index = column - FIRST_SEAT_COLUMN;
+        if (index < playerCount) return "rolls[" + index + "]";
+        index -= playerCount;
+        if (index < playerCount * playerCount) return "captures[" + index / playerCount + "][" + index % playerCount + "]";
+        return "houseExits[" + (index - playerCount * playerCount) + "]";
+    }
+
+    /** Write the column values of a result into {@code row}. */
+    static void extract(GameResult result, long[] row) {
+        int playerCount = result.getPlayerCount();
+        row[SEED] = result.getSeed();
+        row[WINNER] = result.getWinner();
+        row[TURNS] = result.getTurns();
+        for (int seat = 0; seat < playerCount; seat++) {
+            row[rolls(seat)] = result.getRolls(seat);
+            row[houseExits(playerCount, seat)] = result.getHouseExits(seat);
+            for (int victim = 0; victim < playerCount; victim++) {
+                row[captures(playerCount, seat, victim)] = result.getCaptures(seat, victim);
+            }
+        }
+    }
+}
@@ -5,14 +5,28 @@
 import java.util.ArrayList;
 import java.util.List;
 public class RuleSetStandard implements I_RuleSet {
-    private static final int MAX_ROLLS_ALL_IN_HOUSE = 3;
+    /** Rolls per turn while all figures of the player are in the house. */
+    public static final int MAX_ROLLS_ALL_IN_HOUSE = 3;
     private final int playerCount;
+    private final int fieldsPerPlayer; // 0 = classic board size for the player count
     private ActionType lastActionType = ActionType.NONE;
     private int rollsThisTurn = 0;
 
     public RuleSetStandard(int playerCount) {
+        this(playerCount, 0);
+    }
+
+    /**
+     * Create a rule set for a board with a configurable ring length.
+     *
+     * @param playerCount number of players
+     * @param fieldsPerPlayer ring fields between two start fields, 0 for the classic board size
+     */
+    public RuleSetStandard(int playerCount, int fieldsPerPlayer) {
         if (playerCount <= 0) throw new IllegalArgumentException("playerCount must be positive");
+        if (fieldsPerPlayer < 0) throw new IllegalArgumentException("fieldsPerPlayer must not be negative");
         this.playerCount = playerCount;
+        this.fieldsPerPlayer = fieldsPerPlayer;
     }
 
     @Override
@@ -23,17 +37,8 @@ public class RuleSetStandard implements I_RuleSet {
             return false;
         }
         
-        // Check if all figures are in house
-        boolean allInHouse = true;
-        for (GameFigure figure : player.getFigures()) {
-            if (!figure.getField().isHouse()) {
-                allInHouse = false;
-                break;
-            }
-        }
-        
         // If all figures are in house, allow up to 3 rolls
-        if (allInHouse) {
+        if (player.isAllInHouse()) {
             if (rollsThisTurn >= MAX_ROLLS_ALL_IN_HOUSE) {
                 this.rollsThisTurn = 0; // Reset for next turn
                 return false;
@@ -44,12 +49,10 @@ public class RuleSetStandard implements I_RuleSet {
         }
         
         // A player may roll if they have at least one figure not in the goal
-        for (GameFigure figure : player.getFigures()) {
-            if (!figure.getField().isGoal()) {
-                rollsThisTurn = 1; // Regular roll
-                lastActionType = ActionType.ROLL;
-                return true;
-            }
+        if (!player.isAllInGoal()) {
+            rollsThisTurn = 1; // Regular roll
+            lastActionType = ActionType.ROLL;
+            return true;
         }
         return false;
     }
@@ -62,44 +65,7 @@ public class RuleSetStandard implements I_RuleSet {
         }
         
         for (GameFigure figure : player.getFigures()) {
-            Field fieldStartOfMove = figure.getField();
-            
-            // Skip figures that are already in goal
-            if (fieldStartOfMove.isGoal()) {
-                continue;
-            }
-            
-            // Figures in house can only move out with a roll of 6
-            if (fieldStartOfMove.isHouse()) {
-                if (rollValue == 6) {
-                    if(fieldStartOfMove.getNext().isOccupied()) {
-                        // Check if destination is occupied by someone else
-                        // This means a player cannot place more than 1 figure on the same field
-                        // but can kick opponents' figures
-                        if (fieldStartOfMove.getNext().getOccupant().getOwner() != figure.getOwner()){
-                            movableFigures.add(figure);
-                        }
-                    }
-                    else{
-                        // Destination is free
-                        movableFigures.add(figure);
-                    }
-                }
-                continue;
-            }
-
-            // Check destination field for occupancy
-            Field fieldDestination = fieldStartOfMove.getDestination(rollValue, true);
-            if(fieldDestination.isOccupied()) {
-                // Check if destination is occupied by someone else
-                // This means a player cannot place more than 1 figure on the same field
-                // but can kick opponents' figures
-                if (fieldDestination.getOccupant().getOwner() != figure.getOwner()){
-                    movableFigures.add(figure);
-                    // continue; // Unnecessary
-                }
-            } else {
-                // Destination is free
+            if (canMove(figure, rollValue)) {
                 movableFigures.add(figure);
             }
         }
@@ -111,12 +77,63 @@ public class RuleSetStandard implements I_RuleSet {
         return movableFigures;
     }
 
-    @Override
-    public boolean checkWin(Player player) {
+    /**
+     * Get the figures {@link #checkMove(Player, int)} offers after a roll, as a bit mask of figure ids.
+     * Unlike checkMove this neither allocates nor changes the turn state.
+     *
+     * @param player the active player
+     * @param rollValue the value rolled by the player
+     * @return bit {@code i} is set if figure {@code i} can move
+     */
+    public int getMovableMask(Player player, int rollValue) {
+        int mask = 0;
         for (GameFigure figure : player.getFigures()) {
-            if (!figure.getField().isGoal()) {
+            if (canMove(figure, rollValue)) {
+                mask |= 1 << figure.getId();
+            }
+        }
+        return mask;
+    }
+
+    private static boolean canMove(GameFigure figure, int rollValue) {
+        Field fieldStartOfMove = figure.getField();
+        
+        // Skip figures that are already in goal
+        if (fieldStartOfMove.isGoal()) {
+            return false;
+        }
+        
+        // Figures in house can only move out with a roll of 6
+        if (fieldStartOfMove.isHouse()) {
+            if (rollValue != 6) {
                 return false;
             }
+            if(fieldStartOfMove.getNext().isOccupied()) {
+                // Check if destination is occupied by someone else
+                // This means a player cannot place more than 1 figure on the same field
+                // but can kick opponents' figures
+                return fieldStartOfMove.getNext().getOccupant().getOwner() != figure.getOwner();
+            }
+            // Destination is free
+            return true;
+        }
+
+        // Check destination field for occupancy
+        Field fieldDestination = fieldStartOfMove.getDestination(rollValue, true);
+        if(fieldDestination.isOccupied()) {
+            // Check if destination is occupied by someone else
+            // This means a player cannot place more than 1 figure on the same field
+            // but can kick opponents' figures
+            return fieldDestination.getOccupant().getOwner() != figure.getOwner();
+        }
+        // Destination is free
+        return true;
+    }
+
+    @Override
+    public boolean checkWin(Player player) {
+        if (!player.isAllInGoal()) {
+            return false;
         }
         lastActionType = ActionType.WIN;
         return true;
@@ -124,6 +141,9 @@ public class RuleSetStandard implements I_RuleSet {
 
     @Override
     public int getNumFields() {
+        if (fieldsPerPlayer > 0) {
+            return playerCount * fieldsPerPlayer;
+        }
         if (playerCount >= 1 && playerCount <= 4){
             return 40;
         }
@@ -139,4 +159,18 @@ public class RuleSetStandard implements I_RuleSet {
     public void resetLastAction(){
         this.lastActionType = ActionType.NONE;
     }
+
+    @Override
+    public int getRollsThisTurn() {
+        return rollsThisTurn;
+    }
+
+    @Override
+    public void resumeTurn(int rolls) {
+        if (rolls < 0 || rolls > MAX_ROLLS_ALL_IN_HOUSE) {
+            throw new IllegalArgumentException("rolls must be between 0 and " + MAX_ROLLS_ALL_IN_HOUSE);
+        }
+        this.lastActionType = ActionType.NONE;
+        this.rollsThisTurn = rolls;
+    }
 }
@@ -0,0 +1,205 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures how simulation throughput scales with the number of threads. The same seeded workload
+ * (games {@code seed .. seed + games - 1}, as in {@link Tournament}) is played with 1, 2, 4, ... threads,
+ * each thread on its own {@link GameContext}. For every thread count the benchmark records games per
+ * second, the median and 99th percentile time per game, the allocation rate of the worker threads and the
+ * time spent in garbage collection. Scaling efficiency is the throughput divided by the thread count times
+ * the single-thread throughput; where it drops, threads contend for shared state.
+ */
+public final class ScalingBenchmark {
+    private final int playerCount;
+    private final int figuresPerPlayer;
+    private final I_PlayerFactory[] seats;
+
+    /**
+     * Result of one thread count.
+     */
+    public static final class Row {
+        private final int threads;
+        private final double gamesPerSecond;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double allocatedMegabytesPerSecond;
+        private final long gcMillis;
+
+        Row(int threads, double gamesPerSecond, double p50Millis, double p99Millis,
+            double allocatedMegabytesPerSecond, long gcMillis) {
+            this.threads = threads;
+            this.gamesPerSecond = gamesPerSecond;
+            this.p50Millis = p50Millis;
+            this.p99Millis = p99Millis;
+            this.allocatedMegabytesPerSecond = allocatedMegabytesPerSecond;
+            this.gcMillis = gcMillis;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public double getGamesPerSecond() {
+            return gamesPerSecond;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getAllocatedMegabytesPerSecond() {
+            return allocatedMegabytesPerSecond;
+        }
+
+        public long getGcMillis() {
+            return gcMillis;
+        }
+    }
+
+    /**
+     * Create a benchmark for a configuration.
+     *
+     * @param playerCount players per game
+     * @param figuresPerPlayer figures per player
+     * @param seats factories of the seats, see {@link GameContextPool}
+     */
+    public ScalingBenchmark(int playerCount, int figuresPerPlayer, I_PlayerFactory... seats) {
+        this.playerCount = playerCount;
+        this.figuresPerPlayer = figuresPerPlayer;
+        this.seats = seats;
+    }
+
+    /**
+     * Play the workload once with the given number of threads.
+     *
+     * @param threads number of worker threads
+     * @param games number of games
+     * @param seed seed of the first game
+     * @return the measurements
+     * @throws InterruptedException if interrupted while waiting for the workers
+     * @throws UnsupportedOperationException if the JVM cannot count allocated bytes per thread
+     */
+    public Row run(int threads, int games, long seed) throws InterruptedException {
+        if (threads <= 0 || games <= 0) throw new IllegalArgumentException("threads and games must be positive");
+        GameContextPool pool = new GameContextPool(playerCount, figuresPerPlayer, 0, seats);
+        List<GameContext> contexts = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            contexts.add(pool.acquire()); // set up before the clock starts
+        }
+        com.sun.management.ThreadMXBean threadBean = AllocationBudget.getThreadBean();
+        long[] gameNanos = new long[games];
+        AtomicInteger nextGame = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long gcBefore = getGcMillis();
+        long start = System.nanoTime();
+        // workers are awaited in the order they finish, so the first failure is seen at once
+        ExecutorCompletionService<Long> allocations = new ExecutorCompletionService<>(executor);
+        for (GameContext context : contexts) {
+            allocations.submit(() -> {
+                long thread = Thread.currentThread().getId();
+                long before = threadBean.getThreadAllocatedBytes(thread);
+                int game;
+                while ((game = nextGame.getAndIncrement()) < games) {
+                    long gameStart = System.nanoTime();
+                    context.play(seed + game);
+                    gameNanos[game] = System.nanoTime() - gameStart;
+                }
+                return threadBean.getThreadAllocatedBytes(thread) - before;
+            });
+        }
+        executor.shutdown();
+        long allocated = 0;
+        for (int t = 0; t < threads; t++) {
+            try {
+                allocated += allocations.take().get();
+            } catch (ExecutionException e) {
+                // stop the other workers instead of letting them play the remaining games
+                nextGame.set(games);
+                executor.shutdownNow();
+                throw new IllegalStateException("Benchmark worker failed", e.getCause());
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long gcMillis = getGcMillis() - gcBefore;
+        Arrays.sort(gameNanos);
+        return new Row(threads, games / seconds, percentile(gameNanos, 0.50) / 1e6, percentile(gameNanos, 0.99) / 1e6,
+                allocated / seconds / (1 << 20), gcMillis);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static long getGcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    /**
+     * Run the workload at 1, 2, 4, ... threads up to {@code maxThreads} (always including {@code maxThreads}).
+     *
+     * @param maxThreads largest thread count
+     * @param games games per run
+     * @param seed seed of the first game
+     * @return one row per thread count
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public List<Row> runAll(int maxThreads, int games, long seed) throws InterruptedException {
+        run(maxThreads, games, seed); // warm up the JIT, so the first row is not penalized
+        List<Row> rows = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            rows.add(run(threads, games, seed));
+        }
+        rows.add(run(maxThreads, games, seed));
+        return rows;
+    }
+
+    /**
+     * Print a scaling table and write it as CSV.
+     * Usage: {@code ScalingBenchmark [games] [maxThreads] [players] [figures] [csvFile]}
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int figures = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        Path csv = Paths.get(args.length > 4 ? args[4] : "scaling.csv");
+
+        List<Row> rows = new ScalingBenchmark(players, figures).runAll(maxThreads, games, 0);
+        double base = rows.get(0).getGamesPerSecond();
+        System.out.printf("%7s %10s %9s %9s %10s %7s %10s%n", "threads", "games/s", "p50 ms", "p99 ms", "alloc MB/s", "GC ms", "efficiency");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(csv))) {
+            out.println("threads,games_per_second,p50_ms,p99_ms,alloc_mb_per_second,gc_ms,efficiency");
+            for (Row row : rows) {
+                double efficiency = row.getGamesPerSecond() / (row.getThreads() * base);
+                System.out.printf("%7d %10.0f %9.3f %9.3f %10.1f %7d %9.0f%%%n", row.getThreads(), row.getGamesPerSecond(),
+                        row.getP50Millis(), row.getP99Millis(), row.getAllocatedMegabytesPerSecond(), row.getGcMillis(),
+                        100 * efficiency);
+                out.printf(Locale.ROOT, "%d,%.1f,%.4f,%.4f,%.2f,%d,%.4f%n", row.getThreads(), row.getGamesPerSecond(),
+                        row.getP50Millis(), row.getP99Millis(), row.getAllocatedMegabytesPerSecond(), row.getGcMillis(), efficiency);
+            }
+        }
+        System.out.println("Written to " + csv);
+    }
+}
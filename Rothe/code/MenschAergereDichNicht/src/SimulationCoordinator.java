@@ -0,0 +1,249 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Runs a simulation in several worker JVMs on the same machine, so each process has its own heap and
+ * garbage collector. Workers are {@link SimulationWorker} processes started with this JVM's class path;
+ * the coordinator talks to them over their standard streams.
+ *
+ * The games are cut into chunks of consecutive game indices. A worker asks for the next chunk as soon as it
+ * has returned the previous one, so workers that finish early simply take over more chunks, and the chunk of
+ * a worker that dies is handed to the next free worker. Results are written to a
+ * {@link ColumnarResultWriter} in game order; chunks finished ahead of an unfinished one wait in memory, and
+ * no chunk is handed out too far ahead of the last written one. Game {@code i} is played with seed
+ * {@code seed + i} like in {@link GameResults}, so the output is identical to a single-process run.
+ */
+public final class SimulationCoordinator {
+    public static final int DEFAULT_CHUNK_GAMES = 256;
+    private static final int CHUNKS_AHEAD_PER_WORKER = 4; // bounds the results waiting for their turn
+
+    private final int playerCount;
+    private final int figuresPerPlayer;
+    private final int fieldsPerPlayer;
+    private final int workers;
+    private int chunkGames = DEFAULT_CHUNK_GAMES;
+    private long seed;
+
+    /**
+     * Create a coordinator.
+     *
+     * @param playerCount players per game
+     * @param figuresPerPlayer figures per player
+     * @param fieldsPerPlayer ring fields per player, 0 for the classic board size
+     * @param workers number of worker processes
+     */
+    public SimulationCoordinator(int playerCount, int figuresPerPlayer, int fieldsPerPlayer, int workers) {
+        if (workers <= 0) throw new IllegalArgumentException("workers must be positive");
+        BoardGenerator.checkConfiguration(playerCount, fieldsPerPlayer, figuresPerPlayer);
+        this.playerCount = playerCount;
+        this.figuresPerPlayer = figuresPerPlayer;
+        this.fieldsPerPlayer = fieldsPerPlayer;
+        this.workers = workers;
+    }
+
+    /**
+     * Set the seed of the first game.
+     *
+     * @param seed base seed; game {@code i} is played with {@code seed + i}
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Set the number of games handed to a worker at once.
+     *
+     * @param chunkGames games per chunk
+     */
+    public void setChunkGames(int chunkGames) {
+        if (chunkGames <= 0) throw new IllegalArgumentException("chunkGames must be positive");
+        this.chunkGames = chunkGames;
+    }
+
+    /**
+     * Play the games in the worker processes and write their results in game order.
+     *
+     * @param games number of games
+     * @param output result file, see {@link ColumnarResultReader}
+     * @return failures of workers that died while the others completed the run, empty if none died
+     * @throws IOException if the output cannot be written or all workers failed; the failures of the
+     *         workers are attached as suppressed exceptions
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public List<IOException> run(long games, Path output) throws IOException, InterruptedException {
+        // the workers play PlayerPC on every seat, see SimulationWorker
+        GameResultCodec codec = GameResultCodec.of(playerCount, figuresPerPlayer, fieldsPerPlayer, PlayerPC.class);
+        List<Process> processes = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        try (ColumnarResultWriter writer = new ColumnarResultWriter(output, codec, ColumnarResultWriter.DEFAULT_BLOCK_ROWS)) {
+            Schedule schedule = new Schedule(writer, (games + chunkGames - 1) / chunkGames);
+            for (int w = 0; w < workers; w++) {
+                Process process = startWorker();
+                processes.add(process);
+                Thread thread = new Thread(() -> serve(process, codec, schedule, games), "SimulationWorker-" + w);
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            if (schedule.failure != null) {
+                for (IOException e : schedule.workerFailures) {
+                    if (e != schedule.failure.getCause()) schedule.failure.addSuppressed(e);
+                }
+                throw schedule.failure;
+            }
+            return schedule.workerFailures;
+        } finally {
+            for (Process process : processes) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private Process startWorker() throws IOException {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), SimulationWorker.class.getName(),
+                String.valueOf(playerCount), String.valueOf(figuresPerPlayer), String.valueOf(fieldsPerPlayer),
+                String.valueOf(seed))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /** Feed one worker process with chunks until none are left. */
+    private void serve(Process process, GameResultCodec codec, Schedule schedule, long games) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(process.getInputStream(), 1 << 16));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()))) {
+            if (!GameResultCodec.readHeader(in).matches(codec)) throw new IOException("Worker plays another configuration");
+            byte[] records = new byte[chunkGames * codec.getRecordSize()];
+            long chunk;
+            while ((chunk = schedule.next()) >= 0) {
+                long first = chunk * chunkGames;
+                int count = (int) Math.min(chunkGames, games - first);
+                GameResult[] results = new GameResult[count];
+                try {
+                    out.writeLong(first);
+                    out.writeInt(count);
+                    out.flush();
+                    if (in.readInt() != count) throw new IOException("Worker answered with a wrong game count");
+                    in.readFully(records, 0, count * codec.getRecordSize());
+                    ByteBuffer buffer = ByteBuffer.wrap(records);
+                    for (int i = 0; i < count; i++) {
+                        results[i] = codec.read(buffer);
+                    }
+                    schedule.complete(chunk, results);
+                } catch (IOException | RuntimeException e) {
+                    schedule.abandon(chunk);
+                    throw e;
+                }
+            }
+            out.writeLong(0);
+            out.writeInt(0);
+        } catch (IOException e) {
+            schedule.workerFailed(e);
+        } catch (RuntimeException e) {
+            // e.g. a malformed record; without this the other threads would wait for this worker forever
+            schedule.workerFailed(new IOException("Serving a worker failed", e));
+        } catch (InterruptedException e) {
+            schedule.workerFailed(new IOException("Interrupted", e));
+        }
+    }
+
+    /** Hands out chunks and writes finished chunks in order; shared by all worker threads. */
+    private final class Schedule {
+        private final ColumnarResultWriter writer;
+        private final long chunkCount;
+        private final ArrayDeque<Long> retry = new ArrayDeque<>();
+        private final TreeMap<Long, GameResult[]> finished = new TreeMap<>();
+        private long nextChunk;
+        private long nextToWrite;
+        private int liveWorkers = workers;
+        private IOException failure;
+        private final List<IOException> workerFailures = new ArrayList<>();
+
+        Schedule(ColumnarResultWriter writer, long chunkCount) {
+            this.writer = writer;
+            this.chunkCount = chunkCount;
+        }
+
+        /** Next chunk to play, or -1 when all are written or the run failed. */
+        synchronized long next() throws InterruptedException {
+            while (true) {
+                if (failure != null || nextToWrite >= chunkCount) return -1;
+                if (!retry.isEmpty()) return retry.poll();
+                if (nextChunk < chunkCount && nextChunk <= nextToWrite + (long) CHUNKS_AHEAD_PER_WORKER * workers) {
+                    return nextChunk++;
+                }
+                // wait for the writer to catch up, or for a chunk of a failed worker
+                wait();
+            }
+        }
+
+        synchronized void complete(long chunk, GameResult[] results) throws IOException {
+            finished.put(chunk, results);
+            try {
+                while (!finished.isEmpty() && finished.firstKey() == nextToWrite) {
+                    for (GameResult result : finished.pollFirstEntry().getValue()) {
+                        writer.write(result);
+                    }
+                    nextToWrite++;
+                }
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            } catch (RuntimeException e) {
+                // the chunk may be partly written, so it must not be played again
+                failure = new IOException("Writing results failed", e);
+                throw failure;
+            } finally {
+                notifyAll();
+            }
+        }
+
+        synchronized void abandon(long chunk) {
+            retry.add(chunk);
+            notifyAll();
+        }
+
+        synchronized void workerFailed(IOException e) {
+            if (e != failure && nextToWrite < chunkCount) workerFailures.add(e);
+            if (--liveWorkers == 0 && nextToWrite < chunkCount && failure == null) {
+                failure = new IOException("All simulation workers failed", e);
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * Simulate games in worker processes into a result file.
+     * Usage: {@code SimulationCoordinator [file] [games] [workers] [players] [figures] [seed]}
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path file = Paths.get(args.length > 0 ? args[0] : "results.mcr");
+        long games = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+        int workers = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int players = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int figures = args.length > 4 ? Integer.parseInt(args[4]) : 4;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 0;
+
+        SimulationCoordinator coordinator = new SimulationCoordinator(players, figures, 0, workers);
+        coordinator.setSeed(seed);
+        long start = System.nanoTime();
+        List<IOException> failures = coordinator.run(games, file);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games in %d worker process(es) in %.1f s (%.0f games/s)%n", games, workers, seconds, games / seconds);
+        for (IOException failure : failures) {
+            System.out.println("Worker failed, its games were replayed: " + failure);
+        }
+    }
+}
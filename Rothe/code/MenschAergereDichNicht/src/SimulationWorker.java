@@ -0,0 +1,68 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Worker process of a {@link SimulationCoordinator}. It plays headless games on one {@link GameContext}
+ * and talks to the coordinator over its standard streams:
+ *
+ * <ul>
+ * <li>on start it writes the codec header of its results, see {@link GameResultCodec#writeHeader(java.io.DataOutput)},</li>
+ * <li>it then reads ranges as pairs of a first game index (long) and a game count (int), plays the games
+ * {@code first .. first + count - 1} with seeds {@code seed + index} and answers with the count followed by
+ * the encoded results in index order,</li>
+ * <li>a count of 0 ends the worker.</li>
+ * </ul>
+ *
+ * Anything the game prints goes to standard error, so it cannot corrupt the result stream.
+ */
+public final class SimulationWorker {
+    private SimulationWorker() {
+    }
+
+    /**
+     * Usage: {@code SimulationWorker players figures fieldsPerPlayer seed}
+     */
+    public static void main(String[] args) throws IOException {
+        int players = Integer.parseInt(args[0]);
+        int figures = Integer.parseInt(args[1]);
+        int fields = Integer.parseInt(args[2]);
+        long seed = Long.parseLong(args[3]);
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16));
+        System.setOut(System.err);
+
+        GameContext context = new GameContextPool(players, figures, fields).acquire();
+        GameResultCodec codec = GameResultCodec.of(context.getManager());
+        codec.writeHeader(out);
+        out.flush();
+        ByteBuffer buffer = ByteBuffer.allocate(0);
+        while (true) {
+            long first;
+            int count;
+            try {
+                first = in.readLong();
+                count = in.readInt();
+            } catch (EOFException e) {
+                return; // coordinator went away
+            }
+            if (count <= 0) return;
+            if (buffer.capacity() < count * codec.getRecordSize()) buffer = ByteBuffer.allocate(count * codec.getRecordSize());
+            buffer.clear();
+            for (int i = 0; i < count; i++) {
+                codec.write(buffer, context.play(seed + first + i));
+            }
+            out.writeInt(count);
+            out.write(buffer.array(), 0, buffer.position());
+            out.flush();
+        }
+    }
+}
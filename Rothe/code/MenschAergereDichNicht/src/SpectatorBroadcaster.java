@@ -0,0 +1,333 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Publishes a running game to any number of spectators on local sockets as a compact binary stream,
+ * read with {@link SpectatorClient}.
+ *
+ * The game thread only encodes events: each turn becomes one frame of rolls, captures and moves, and
+ * every {@code keyframeTurns} turns (and at the start of each game) a keyframe with the progress of all
+ * figures follows. Frames are slices of shared direct buffers; a separate thread fans every frame out to
+ * all spectators with non-blocking gathering writes of read-only views, so the bytes are encoded and held
+ * once no matter how many spectators watch. A new spectator receives the latest keyframe and the frames
+ * after it. A spectator that falls too far behind skips ahead to the latest keyframe instead of slowing
+ * down the game or the other spectators. If the sender thread fails, publishing stops and the failure
+ * is reported by {@link #close()}; the game itself is not interrupted.
+ *
+ * Frame layout: length of the rest (int), turn (int), then events, each a type byte followed by
+ * {@code ROLL player value}, {@code CAPTURE capturer victim figure}, {@code MOVE player figure from to}
+ * (progress as short), {@code TURN_END player}, {@code GAME_END winner} or
+ * {@code KEYFRAME players figures fieldsPerPlayer(short) progress(short)...}.
+ */
+public final class SpectatorBroadcaster implements I_GameListener, AutoCloseable {
+    static final byte ROLL = 1;
+    static final byte CAPTURE = 2;
+    static final byte MOVE = 3;
+    static final byte TURN_END = 4;
+    static final byte GAME_END = 5;
+    static final byte KEYFRAME = 6;
+
+    private static final int SLAB_BYTES = 1 << 16;
+    private static final int MAX_BACKLOG_FRAMES = 1024; // per spectator, before it is resynchronized
+    // a catch-up (keyframe, turns after it, game end) must fit into the backlog with room to spare
+    private static final int MAX_KEYFRAME_TURNS = MAX_BACKLOG_FRAMES / 2;
+
+    private final GameManager game;
+    private final BoardTopology topology;
+    private final int keyframeTurns;
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final Thread sender;
+    private final ConcurrentLinkedQueue<Frame> outbox = new ConcurrentLinkedQueue<>();
+
+    // game thread: encoding
+    private ByteBuffer events = ByteBuffer.allocate(256);
+    private ByteBuffer slab = ByteBuffer.allocateDirect(SLAB_BYTES);
+    private int turn;
+    private boolean keyframeDue = true;
+
+    // sender thread: fan-out
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private final List<Frame> sinceKeyframe = new ArrayList<>();
+    private volatile int spectatorCount;
+    private volatile boolean running = true;
+    private volatile Exception failure; // why the sender thread stopped, null while it runs
+
+    private static final class Frame {
+        final ByteBuffer data; // read-only, position 0
+        final boolean keyframe;
+
+        Frame(ByteBuffer data, boolean keyframe) {
+            this.data = data;
+            this.keyframe = keyframe;
+        }
+    }
+
+    private static final class Subscriber {
+        final SocketChannel channel;
+        final ArrayDeque<ByteBuffer> queue = new ArrayDeque<>();
+
+        Subscriber(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private SpectatorBroadcaster(GameManager game, int keyframeTurns, SocketAddress address) throws IOException {
+        if (keyframeTurns <= 0 || keyframeTurns > MAX_KEYFRAME_TURNS) {
+            throw new IllegalArgumentException("keyframeTurns must be between 1 and " + MAX_KEYFRAME_TURNS);
+        }
+        this.game = game;
+        this.topology = game.getTopology();
+        this.keyframeTurns = keyframeTurns;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        try {
+            server.bind(address);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            selector.close();
+            throw e;
+        }
+        this.sender = new Thread(this::sendLoop, "SpectatorBroadcaster");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    /**
+     * Start broadcasting a game.
+     *
+     * @param game the game to publish; the broadcaster registers itself as listener
+     * @param keyframeTurns turns between two keyframes (1..512)
+     * @param address local address to listen on, e.g. {@code new InetSocketAddress("localhost", 0)}
+     * @return the running broadcaster
+     * @throws IOException if the address cannot be bound
+     */
+    public static SpectatorBroadcaster open(GameManager game, int keyframeTurns, SocketAddress address) throws IOException {
+        SpectatorBroadcaster broadcaster = new SpectatorBroadcaster(game, keyframeTurns, address);
+        game.addListener(broadcaster);
+        return broadcaster;
+    }
+
+    /**
+     * Get the address spectators connect to.
+     *
+     * @return bound address
+     * @throws IOException if the address cannot be queried
+     */
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) server.getLocalAddress();
+    }
+
+    public int getSpectatorCount() {
+        return spectatorCount;
+    }
+
+    @Override
+    public void onRoll(Player player, int rollValue) {
+        beginEvent(3).put(ROLL).put((byte) player.getId()).put((byte) rollValue);
+    }
+
+    @Override
+    public void onCapture(GameFigure capturer, GameFigure captured) {
+        beginEvent(4).put(CAPTURE).put((byte) capturer.getOwner().getId())
+                .put((byte) captured.getOwner().getId()).put((byte) captured.getId());
+    }
+
+    @Override
+    public void onMove(Player player, GameFigure figure, Field from, Field to) {
+        int id = player.getId();
+        beginEvent(7).put(MOVE).put((byte) id).put((byte) figure.getId())
+                .putShort((short) topology.getProgress(id, from)).putShort((short) topology.getProgress(id, to));
+    }
+
+    @Override
+    public void onTurnEnd(Player player) {
+        beginEvent(2).put(TURN_END).put((byte) player.getId());
+        publish(false);
+        turn++;
+        if (turn % keyframeTurns == 0) keyframeDue = true;
+    }
+
+    @Override
+    public void onGameEnd(GameResult result) {
+        beginEvent(2).put(GAME_END).put((byte) result.getWinner());
+        publish(false);
+        turn = 0;
+        keyframeDue = true;
+    }
+
+    /** Make room for an event, sending a due keyframe first. */
+    private ByteBuffer beginEvent(int size) {
+        if (keyframeDue && events.position() == 0) {
+            keyframeDue = false;
+            writeKeyframe();
+            publish(true);
+        }
+        if (events.remaining() < size) {
+            ByteBuffer larger = ByteBuffer.allocate(events.capacity() * 2);
+            events.flip();
+            events = larger.put(events);
+        }
+        return events;
+    }
+
+    private void writeKeyframe() {
+        Player[] players = game.getPlayers();
+        int figures = topology.getFiguresPerPlayer();
+        int size = 5 + 2 * players.length * figures;
+        if (events.capacity() < size) events = ByteBuffer.allocate(size);
+        events.put(KEYFRAME).put((byte) players.length).put((byte) figures).putShort((short) topology.getFieldsPerPlayer());
+        for (Player player : players) {
+            for (GameFigure figure : player.getFigures()) {
+                events.putShort((short) topology.getProgress(player.getId(), figure.getField()));
+            }
+        }
+    }
+
+    /** Copy the encoded events into a frame of the shared slab and hand it to the sender. */
+    private void publish(boolean keyframe) {
+        if (failure != null) {
+            // nobody sends the frames any more, so do not let the outbox grow
+            events.clear();
+            return;
+        }
+        events.flip();
+        int size = 2 * Integer.BYTES + events.remaining();
+        if (slab.remaining() < size) slab = ByteBuffer.allocateDirect(Math.max(SLAB_BYTES, size));
+        int start = slab.position();
+        slab.putInt(size - Integer.BYTES).putInt(turn).put(events);
+        events.clear();
+        ByteBuffer frame = slab.duplicate();
+        frame.position(start).limit(start + size);
+        outbox.add(new Frame(frame.slice().asReadOnlyBuffer(), keyframe));
+        selector.wakeup();
+    }
+
+    private void sendLoop() {
+        try {
+            while (running) {
+                selector.select();
+                for (SelectionKey key : selector.selectedKeys()) {
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isWritable()) {
+                        flush((Subscriber) key.attachment());
+                    }
+                }
+                selector.selectedKeys().clear();
+                Frame frame;
+                while ((frame = outbox.poll()) != null) {
+                    fanOut(frame);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+            outbox.clear();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            Subscriber subscriber = new Subscriber(channel);
+            channel.register(selector, 0, subscriber);
+            subscribers.add(subscriber);
+            spectatorCount = subscribers.size();
+            catchUp(subscriber);
+            flush(subscriber);
+        }
+    }
+
+    /** Queue the latest keyframe and all frames after it. */
+    private void catchUp(Subscriber subscriber) {
+        for (Frame frame : sinceKeyframe) {
+            subscriber.queue.add(frame.data.duplicate());
+        }
+    }
+
+    private void fanOut(Frame frame) {
+        if (frame.keyframe) sinceKeyframe.clear();
+        sinceKeyframe.add(frame);
+        for (int i = subscribers.size() - 1; i >= 0; i--) {
+            Subscriber subscriber = subscribers.get(i);
+            if (subscriber.queue.size() < MAX_BACKLOG_FRAMES) {
+                subscriber.queue.add(frame.data.duplicate());
+            } else {
+                // too slow: finish a partly written frame, then continue from the latest keyframe
+                ByteBuffer head = subscriber.queue.peek();
+                subscriber.queue.clear();
+                if (head.position() > 0) subscriber.queue.add(head);
+                catchUp(subscriber);
+            }
+            flush(subscriber);
+        }
+    }
+
+    /** Write as much of the backlog as the socket takes without blocking. */
+    private void flush(Subscriber subscriber) {
+        try {
+            if (!subscriber.queue.isEmpty()) {
+                subscriber.channel.write(subscriber.queue.toArray(new ByteBuffer[0]));
+                while (!subscriber.queue.isEmpty() && !subscriber.queue.peek().hasRemaining()) {
+                    subscriber.queue.poll();
+                }
+            }
+            SelectionKey key = subscriber.channel.keyFor(selector);
+            key.interestOps(subscriber.queue.isEmpty() ? 0 : SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            // spectator went away
+            subscribers.remove(subscriber);
+            spectatorCount = subscribers.size();
+            try {
+                subscriber.channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Check whether broadcasting stopped because the sender thread failed.
+     *
+     * @return {@code true} if frames are no longer sent
+     */
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Stop broadcasting and disconnect all spectators. Frames not yet sent are dropped.
+     *
+     * @throws IOException if closing the sockets fails, or if the sender thread had failed before
+     */
+    @Override
+    public void close() throws IOException {
+        game.removeListener(this);
+        running = false;
+        selector.wakeup();
+        try {
+            sender.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.channel.close();
+        }
+        server.close();
+        selector.close();
+        if (failure != null) throw new IOException("Broadcasting to spectators failed", failure);
+    }
+}
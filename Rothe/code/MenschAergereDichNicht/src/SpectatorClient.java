@@ -0,0 +1,166 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Follows a game published by a {@link SpectatorBroadcaster} and keeps the progress of all figures.
+ * Frames before the first keyframe are skipped, since they describe moves of an unknown position.
+ */
+public class SpectatorClient implements AutoCloseable {
+    private final SocketChannel channel;
+    private final ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+    private ByteBuffer frame = ByteBuffer.allocate(256);
+    private int playerCount;
+    private int figuresPerPlayer;
+    private int fieldsPerPlayer;
+    private int[] progress; // [player * figuresPerPlayer + figure], null before the first keyframe
+    private int turn;
+    private int lastRoll;
+    private int winner = -1;
+
+    /**
+     * Connect to a broadcaster.
+     *
+     * @param address address of the broadcaster, see {@link SpectatorBroadcaster#getAddress()}
+     * @throws IOException if the connection fails
+     */
+    public SpectatorClient(InetSocketAddress address) throws IOException {
+        this.channel = SocketChannel.open(address);
+    }
+
+    /**
+     * Read and apply the next frame. Blocks until it has arrived.
+     *
+     * @return {@code false} once the broadcaster has closed the connection
+     * @throws IOException if reading fails
+     */
+    public boolean readFrame() throws IOException {
+        length.clear();
+        if (!readFully(length)) return false;
+        int size = length.getInt(0);
+        if (frame.capacity() < size) frame = ByteBuffer.allocate(size);
+        frame.clear().limit(size);
+        if (!readFully(frame)) throw new EOFException("Connection closed within a frame");
+        frame.flip();
+        int frameTurn = frame.getInt();
+        while (frame.hasRemaining()) {
+            byte type = frame.get();
+            if (type == SpectatorBroadcaster.KEYFRAME) {
+                playerCount = frame.get();
+                figuresPerPlayer = frame.get();
+                fieldsPerPlayer = frame.getShort();
+                progress = new int[playerCount * figuresPerPlayer];
+                for (int i = 0; i < progress.length; i++) {
+                    progress[i] = frame.getShort();
+                }
+                winner = -1;
+            } else if (progress == null) {
+                return true; // not synchronized yet
+            } else if (type == SpectatorBroadcaster.ROLL) {
+                frame.get();
+                lastRoll = frame.get();
+            } else if (type == SpectatorBroadcaster.CAPTURE) {
+                frame.get();
+                int victim = frame.get();
+                progress[victim * figuresPerPlayer + frame.get()] = BoardTopology.HOUSE;
+            } else if (type == SpectatorBroadcaster.MOVE) {
+                int player = frame.get();
+                int figure = frame.get();
+                frame.getShort(); // origin, implied by the current position
+                progress[player * figuresPerPlayer + figure] = frame.getShort();
+            } else if (type == SpectatorBroadcaster.TURN_END) {
+                frame.get();
+            } else if (type == SpectatorBroadcaster.GAME_END) {
+                winner = frame.get();
+            } else {
+                throw new IOException("Unknown event type " + type);
+            }
+        }
+        turn = frameTurn;
+        return true;
+    }
+
+    private boolean readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (buffer.position() == 0) return false;
+                throw new EOFException("Connection closed within a frame");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether a keyframe has been received, so the position is known.
+     */
+    public boolean isSynchronized() {
+        return progress != null;
+    }
+
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    public int getFiguresPerPlayer() {
+        return figuresPerPlayer;
+    }
+
+    public int getFieldsPerPlayer() {
+        return fieldsPerPlayer;
+    }
+
+    /**
+     * Get the progress of a figure, see {@link BoardTopology}.
+     *
+     * @param player player id
+     * @param figure figure index
+     * @return progress, {@link BoardTopology#HOUSE} for the house
+     */
+    public int getProgress(int player, int figure) {
+        return progress[player * figuresPerPlayer + figure];
+    }
+
+    public int getTurn() {
+        return turn;
+    }
+
+    public int getLastRoll() {
+        return lastRoll;
+    }
+
+    /**
+     * Get the winner of the game, or -1 while it is running.
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Print the progress of all figures after every turn.
+     * Usage: {@code SpectatorClient host port}
+     */
+    public static void main(String[] args) throws IOException {
+        try (SpectatorClient client = new SpectatorClient(new InetSocketAddress(args[0], Integer.parseInt(args[1])))) {
+            while (client.readFrame()) {
+                if (!client.isSynchronized()) continue;
+                StringBuilder line = new StringBuilder("Turn ").append(client.getTurn()).append(':');
+                for (int p = 0; p < client.getPlayerCount(); p++) {
+                    line.append("  P").append(p + 1);
+                    for (int f = 0; f < client.getFiguresPerPlayer(); f++) {
+                        int value = client.getProgress(p, f);
+                        line.append(' ').append(value == BoardTopology.HOUSE ? "H" : String.valueOf(value));
+                    }
+                }
+                if (client.getWinner() >= 0) line.append("  winner: P").append(client.getWinner() + 1);
+                System.out.println(line);
+            }
+        }
+    }
+}
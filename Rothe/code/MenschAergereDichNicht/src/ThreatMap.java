@@ -0,0 +1,173 @@
+/**
+ * Board-level index of capture threats for one game.
+ * For every ring field and player it counts how many of that player's figures could land on the field
+ * with a single roll (1..6, house figures with a 6 onto their start field). The counts are updated
+ * incrementally whenever a figure is relocated (move, house exit, capture, reset), so risk and capture
+ * queries never walk the {@link Field} list.
+ *
+ * Reachability follows {@link BoardTopology#getDestinationProgress(int, int)}: a roll that leads into
+ * the goal does not threaten a ring field, and figures in the goal threaten nothing.
+ */
+public final class ThreatMap {
+    private static final int NO_TARGET = -1;
+
+    private final BoardTopology topology;
+    private final Field[] fields;
+    private final int ringSize;
+    // counts fit into bytes: at most 16 players with 6 figures each
+    private final byte[] attackers; // [player * ringSize + ringIndex]
+    private final byte[] totals; // [ringIndex], attackers summed over all players
+
+    /**
+     * Create the threat index for a game and count the current positions of all figures.
+     *
+     * @param topology the board configuration
+     * @param fields the ring fields of the game
+     * @param players all players of the game, indexed by id
+     */
+    public ThreatMap(BoardTopology topology, Field[] fields, Player[] players) {
+        if (topology == null || fields == null || players == null) {
+            throw new IllegalArgumentException("topology, fields and players must not be null");
+        }
+        if (fields.length != topology.getRingSize() || players.length != topology.getPlayerCount()) {
+            throw new IllegalArgumentException("Fields and players do not match the topology");
+        }
+        this.topology = topology;
+        this.fields = fields;
+        this.ringSize = topology.getRingSize();
+        int playerCount = topology.getPlayerCount();
+        this.attackers = new byte[playerCount * this.ringSize];
+        this.totals = new byte[this.ringSize];
+        for (Player player : players) {
+            for (GameFigure figure : player.getFigures()) {
+                update(player.getId(), topology.getProgress(player.getId(), figure.getField()), 1);
+            }
+        }
+    }
+
+    /**
+     * Move the threats of a figure from its old to its new field. Called by {@link Player} for every relocation.
+     *
+     * @param player owner of the figure
+     * @param from field the figure stood on before
+     * @param to field the figure stands on now
+     */
+    void relocate(int player, Field from, Field to) {
+        update(player, topology.getProgress(player, from), -1);
+        update(player, topology.getProgress(player, to), 1);
+    }
+
+    private void update(int player, int progress, int delta) {
+        for (int roll = 1; roll <= 6; roll++) {
+            int target = getTarget(player, progress, roll);
+            if (target == NO_TARGET || isDuplicate(player, progress, roll, target)) continue;
+            attackers[player * ringSize + target] += delta;
+            totals[target] += delta;
+        }
+    }
+
+    /** On very small rings two rolls can reach the same field; a figure counts as one attacker. */
+    private boolean isDuplicate(int player, int progress, int roll, int target) {
+        for (int r = 1; r < roll; r++) {
+            if (getTarget(player, progress, r) == target) return true;
+        }
+        return false;
+    }
+
+    /** Ring index reached from a progress with one roll, {@code NO_TARGET} for the goal or a blocked house exit. */
+    private int getTarget(int player, int progress, int roll) {
+        if (progress >= ringSize || (progress == BoardTopology.HOUSE && roll != 6)) return NO_TARGET;
+        int destination = topology.getDestinationProgress(progress, roll);
+        return destination < ringSize ? topology.getRingIndex(player, destination) : NO_TARGET;
+    }
+
+    /**
+     * Get the number of figures of a player that can reach a ring field with one roll.
+     *
+     * @param player attacking player
+     * @param ringIndex index of the ring field
+     * @return attacker count
+     */
+    public int getAttackers(int player, int ringIndex) {
+        return attackers[player * ringSize + ringIndex];
+    }
+
+    /**
+     * Get the number of opponent figures of {@code victim} that can reach a ring field with one roll.
+     *
+     * @param ringIndex index of the ring field
+     * @param victim player whose figure would stand on the field
+     * @return number of threatening opponent figures
+     */
+    public int getThreatCount(int ringIndex, int victim) {
+        return totals[ringIndex] - attackers[victim * ringSize + ringIndex];
+    }
+
+    /**
+     * Get the number of opponent figures that could capture the given figure with their next roll.
+     * Figures in the house or in the goal are never at risk.
+     *
+     * @param figure the figure to check
+     * @return number of threatening opponent figures
+     */
+    public int getRisk(GameFigure figure) {
+        Field field = figure.getField();
+        if (field.isHouse() || field.isGoal()) return 0;
+        return getThreatCount(field.getIndex(), figure.getOwner().getId());
+    }
+
+    /**
+     * Get the ring index a figure reaches with the given roll, ignoring occupation.
+     *
+     * @param figure the figure to move
+     * @param roll value of the roll (1..6)
+     * @return ring index, or {@code -1} if the roll ends in the goal or the figure cannot leave its house
+     */
+    public int getTarget(GameFigure figure, int roll) {
+        int player = figure.getOwner().getId();
+        return getTarget(player, topology.getProgress(player, figure.getField()), roll);
+    }
+
+    /**
+     * Get the rolls with which a figure would capture an opponent figure.
+     *
+     * @param figure the attacking figure
+     * @return bit mask, bit {@code r} is set when roll {@code r} captures
+     */
+    public int getCaptureRolls(GameFigure figure) {
+        int mask = 0;
+        for (int roll = 1; roll <= 6; roll++) {
+            if (getVictim(figure, roll) != null) mask |= 1 << roll;
+        }
+        return mask;
+    }
+
+    /**
+     * Get the opponents a figure can hit with its next roll.
+     *
+     * @param figure the attacking figure
+     * @return bit mask over player ids
+     */
+    public int getCaptureTargets(GameFigure figure) {
+        int mask = 0;
+        for (int roll = 1; roll <= 6; roll++) {
+            GameFigure victim = getVictim(figure, roll);
+            if (victim != null) mask |= 1 << victim.getOwner().getId();
+        }
+        return mask;
+    }
+
+    /**
+     * Get the opponent figure a figure would capture with the given roll.
+     *
+     * @param figure the attacking figure
+     * @param roll value of the roll (1..6)
+     * @return the captured figure, or {@code null} if the roll captures nothing
+     */
+    public GameFigure getVictim(GameFigure figure, int roll) {
+        int target = getTarget(figure, roll);
+        if (target == NO_TARGET) return null;
+        GameFigure occupant = fields[target].getOccupant();
+        return occupant != null && occupant.getOwner() != figure.getOwner() ? occupant : null;
+    }
+}
@@ -0,0 +1,204 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays many headless games on worker threads and reports every finished game to a
+ * {@link ResultCollector}.
+ */
+public class Tournament {
+    private final int threads;
+    private final GameContextPool pool;
+    private long seed = new java.util.Random().nextLong(); // game i is played with seed + i
+    private int syncResults = TournamentJournal.DEFAULT_SYNC_RESULTS;
+    private long syncMillis = TournamentJournal.DEFAULT_SYNC_MILLIS;
+
+    /**
+     * Create a tournament configuration.
+     *
+     * @param playerCount players per game
+     * @param figuresPerPlayer figures per player
+     * @param fieldsPerPlayer ring fields per player, 0 for the classic board size
+     * @param threads number of worker threads
+     * @param seats factories creating the players, seat {@code p} uses {@code seats[p % seats.length]};
+     *              all seats play {@link PlayerPC} when none are given
+     */
+    public Tournament(int playerCount, int figuresPerPlayer, int fieldsPerPlayer, int threads, I_PlayerFactory... seats) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+        this.threads = threads;
+        this.pool = new GameContextPool(playerCount, figuresPerPlayer, fieldsPerPlayer, seats);
+    }
+
+    /**
+     * Set the seed of the next run. Game {@code i} of a run is played with seed {@code seed + i},
+     * so a run with the same seed reproduces the same results regardless of the number of threads.
+     *
+     * @param seed base seed
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Set how often a journaled run forces its results to disk: after {@code results} results or when the
+     * oldest unsynced result is {@code millis} old, whichever comes first.
+     *
+     * @param results maximum number of results per sync
+     * @param millis maximum delay of a result until its sync
+     */
+    public void setJournalSync(int results, long millis) {
+        if (results <= 0 || millis <= 0) throw new IllegalArgumentException("Sync interval must be positive");
+        this.syncResults = results;
+        this.syncMillis = millis;
+    }
+
+    /**
+     * Play the given number of games and record their results.
+     *
+     * @param games number of games to play
+     * @param collector collector receiving every finished game
+     * @throws InterruptedException if interrupted while waiting for the workers
+     * @throws IllegalStateException if a game fails; the other workers stop after their current game
+     */
+    public void run(int games, ResultCollector collector) throws InterruptedException {
+        AtomicInteger nextGame = new AtomicInteger();
+        long baseSeed = this.seed;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // workers are awaited in the order they finish, so the first failure is seen at once
+        ExecutorCompletionService<Void> workers = new ExecutorCompletionService<>(executor);
+        for (int t = 0; t < threads; t++) {
+            workers.submit(() -> {
+                // every worker reuses one game context for all of its games
+                GameContext context = pool.acquire();
+                try {
+                    int game;
+                    while ((game = nextGame.getAndIncrement()) < games) {
+                        collector.record(context.play(baseSeed + game));
+                    }
+                } finally {
+                    pool.release(context);
+                }
+                return null;
+            });
+        }
+        executor.shutdown();
+        for (int t = 0; t < threads; t++) {
+            try {
+                workers.take().get();
+            } catch (ExecutionException e) {
+                nextGame.set(games);
+                executor.shutdownNow();
+                throw new IllegalStateException("Tournament worker failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Play the given number of games with a crash-safe {@link TournamentJournal} in a directory.
+     * If the directory holds the journal of an interrupted run, the run is resumed with that journal's seed
+     * and thread count: the recovered games are added to the collector without being played again and the
+     * workers continue with their first missing game.
+     *
+     * @param games total number of games of the run, including recovered ones
+     * @param collector collector receiving every recovered and finished game
+     * @param journalDirectory directory of the journal
+     * @throws IOException if the journal cannot be read or written
+     * @throws InterruptedException if interrupted while waiting for the workers
+     * @throws IllegalStateException if a game fails; the other workers stop after their current game
+     */
+    public void run(int games, ResultCollector collector, Path journalDirectory) throws IOException, InterruptedException {
+        GameContext probe = pool.acquire();
+        GameResultCodec codec = GameResultCodec.of(probe.getManager());
+        pool.release(probe);
+        try (TournamentJournal journal = TournamentJournal.open(journalDirectory, codec, threads, seed,
+                collector.getBucketWidth(), collector.getLengthHistogram().length, syncResults, syncMillis)) {
+            collector.merge(journal.getRecovered());
+            long baseSeed = journal.getSeed();
+            int workers = journal.getThreads();
+            ExecutorService executor = Executors.newFixedThreadPool(workers);
+            ExecutorCompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+            AtomicBoolean failed = new AtomicBoolean();
+            for (int t = 0; t < workers; t++) {
+                int worker = t;
+                completion.submit(() -> {
+                    // strided games, so the durable games of a worker are always a prefix of its share
+                    GameContext context = pool.acquire();
+                    try {
+                        for (long game = journal.getNextGame(worker); game < games && !failed.get(); game += workers) {
+                            GameResult result = context.play(baseSeed + game);
+                            journal.append(result);
+                            collector.record(result);
+                        }
+                    } finally {
+                        pool.release(context);
+                    }
+                    return null;
+                });
+            }
+            executor.shutdown();
+            for (int t = 0; t < workers; t++) {
+                try {
+                    completion.take().get();
+                } catch (ExecutionException e) {
+                    failed.set(true);
+                    executor.shutdownNow();
+                    // the journal is closed next, so let the other workers finish their current game first
+                    executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+                    if (e.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) e.getCause()).getCause();
+                    throw new IllegalStateException("Tournament worker failed", e.getCause());
+                }
+            }
+        }
+    }
+
+    /**
+     * Run a tournament and print the aggregated statistics.
+     * Usage: {@code Tournament [players] [figures] [games] [threads] [journalDirectory]};
+     * with a journal directory an interrupted run is resumed.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int figures = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        ResultCollector collector = new ResultCollector(50, 20);
+        long start = System.nanoTime();
+        Tournament tournament = new Tournament(players, figures, 0, threads);
+        if (args.length > 4) {
+            tournament.setSeed(0);
+            tournament.run(games, collector, Paths.get(args[4]));
+        } else {
+            tournament.run(games, collector);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d games on %d thread(s) in %.2f s (%.0f games/s)%n", games, threads, seconds, games / seconds);
+        long[] wins = collector.getWinsBySeat();
+        for (int seat = 0; seat < players; seat++) {
+            System.out.printf("Seat %d: %d wins%n", seat + 1, wins[seat]);
+        }
+        System.out.println("Wins by strategy: " + collector.getWinsByStrategy());
+        long[] histogram = collector.getLengthHistogram();
+        for (int b = 0; b < histogram.length; b++) {
+            if (histogram[b] > 0) System.out.printf("%5d+ turns: %d%n", b * collector.getBucketWidth(), histogram[b]);
+        }
+        long[][] matrix = collector.getCaptureMatrix();
+        System.out.println("Captures (row captured column):");
+        for (int a = 0; a < players; a++) {
+            StringBuilder row = new StringBuilder();
+            for (int b = 0; b < players; b++) {
+                row.append(String.format("%8d", matrix[a][b]));
+            }
+            System.out.println(row);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Crash-safe log of the finished games of a {@link Tournament}, kept in a directory.
+ *
+ * Workers hand their results to {@link #append(GameResult)}, which only queues them. A writer thread
+ * appends the queued results to {@code journal.bin} and forces them to disk once {@code syncResults}
+ * results are waiting or the oldest waiting result is {@code syncMillis} old (group commit), so the cost
+ * of a sync is shared by many games. Every record carries a CRC, so a record torn by a crash is detected
+ * and cut off on the next start.
+ *
+ * Every few seconds the writer replaces {@code checkpoint.bin} with the aggregated statistics of all
+ * durable results, the journal offset they cover and the next game of every worker. Worker {@code w}
+ * plays the games {@code w, w + threads, w + 2 * threads, ...} in order, so its durable games are always
+ * a prefix and one position per worker tells where it stopped. On opening an existing journal, the
+ * checkpoint is loaded and only the records written after it are replayed.
+ */
+public final class TournamentJournal implements AutoCloseable {
+    public static final int DEFAULT_SYNC_RESULTS = 256;
+    public static final long DEFAULT_SYNC_MILLIS = 200;
+
+    private static final int JOURNAL_MAGIC = 0x4D544A31; // "MTJ1"
+    private static final int CHECKPOINT_MAGIC = 0x4D544331; // "MTC1"
+    private static final long CHECKPOINT_INTERVAL_MS = 5000;
+    private static final int REPLAY_BATCH = 1024; // records read at once during recovery
+
+    private final Path checkpointFile;
+    private final FileChannel channel;
+    private final GameResultCodec codec;
+    private final int recordSize;
+    private final int threads;
+    private final long seed;
+    private final int syncResults;
+    private final long syncNanos;
+    private final BlockingQueue<GameResult> queue;
+    private final Thread writer;
+    private final CRC32 crc = new CRC32();
+
+    // durable state, owned by the writer thread once it is started
+    private final ResultCollector durable;
+    private final long[] positions;
+    private long durableOffset;
+    private long durableCount;
+
+    private final ResultCollector recovered;
+    private volatile boolean closing;
+    private volatile IOException failure;
+
+    private TournamentJournal(Path directory, GameResultCodec codec, int threads, long seed, int bucketWidth,
+                              int bucketCount, int syncResults, long syncMillis) throws IOException {
+        if (syncResults <= 0 || syncMillis <= 0) throw new IllegalArgumentException("Sync interval must be positive");
+        Files.createDirectories(directory);
+        Path journalFile = directory.resolve("journal.bin");
+        this.checkpointFile = directory.resolve("checkpoint.bin");
+        this.codec = codec;
+        this.recordSize = codec.getRecordSize() + Integer.BYTES;
+        this.syncResults = syncResults;
+        this.syncNanos = TimeUnit.MILLISECONDS.toNanos(syncMillis);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1024, 4 * syncResults));
+        this.durable = new ResultCollector(bucketWidth, bucketCount);
+
+        boolean exists = Files.exists(journalFile);
+        this.channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long recordsStart;
+            if (exists && channel.size() > 0) {
+                ByteBuffer prefix = ByteBuffer.allocate(2 * Integer.BYTES);
+                readFully(prefix, 0);
+                if (prefix.getInt(0) != JOURNAL_MAGIC) throw new IOException("Not a tournament journal: " + journalFile);
+                ByteBuffer header = ByteBuffer.allocate(prefix.getInt(Integer.BYTES));
+                readFully(header, prefix.capacity());
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(header.array()));
+                threads = in.readInt();
+                seed = in.readLong();
+                if (!GameResultCodec.readHeader(in).matches(codec)) {
+                    throw new IOException("Journal " + journalFile + " belongs to another configuration");
+                }
+                recordsStart = prefix.capacity() + header.capacity();
+            } else {
+                if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream out = new DataOutputStream(bytes);
+                out.writeInt(threads);
+                out.writeLong(seed);
+                codec.writeHeader(out);
+                ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES + bytes.size());
+                header.putInt(JOURNAL_MAGIC).putInt(bytes.size()).put(bytes.toByteArray()).flip();
+                channel.truncate(0);
+                writeFully(header, 0);
+                channel.force(true);
+                recordsStart = header.capacity();
+            }
+            this.threads = threads;
+            this.seed = seed;
+            this.positions = new long[threads];
+            if (!loadCheckpoint(recordsStart)) {
+                for (int w = 0; w < threads; w++) {
+                    positions[w] = w;
+                }
+                durableOffset = recordsStart;
+            }
+            replay();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.recovered = new ResultCollector(bucketWidth, bucketCount).merge(durable);
+        this.writer = new Thread(this::writeLoop, "TournamentJournal-" + directory.getFileName());
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Open the journal in a directory, creating it if it does not exist. An existing journal is recovered:
+     * its seed and thread count take precedence over the given ones.
+     *
+     * @param directory directory of the journal and checkpoint files
+     * @param codec encoding of the tournament's results
+     * @param threads number of workers of a new journal
+     * @param seed base seed of a new journal; game {@code i} is played with seed {@code seed + i}
+     * @param bucketWidth histogram bucket width of the recovered statistics
+     * @param bucketCount histogram bucket count of the recovered statistics
+     * @param syncResults sync at the latest when this many results are waiting
+     * @param syncMillis sync at the latest when the oldest waiting result is this old
+     * @return the opened journal
+     * @throws IOException if the files cannot be read or belong to another configuration
+     */
+    public static TournamentJournal open(Path directory, GameResultCodec codec, int threads, long seed,
+                                         int bucketWidth, int bucketCount, int syncResults, long syncMillis) throws IOException {
+        return new TournamentJournal(directory, codec, threads, seed, bucketWidth, bucketCount, syncResults, syncMillis);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the index of the first game worker {@code w} has not finished durably.
+     *
+     * @param worker worker index, 0 to {@link #getThreads()} - 1
+     * @return next game of the worker
+     */
+    public long getNextGame(int worker) {
+        return positions[worker];
+    }
+
+    /**
+     * Get the statistics of all games recovered when the journal was opened.
+     *
+     * @return collector of the recovered games
+     */
+    public ResultCollector getRecovered() {
+        return recovered;
+    }
+
+    /**
+     * Queue a finished game for the journal. Blocks while the writer is behind.
+     *
+     * @param result result of the next game of its worker
+     * @throws UncheckedIOException if the writer failed
+     * @throws InterruptedException if interrupted while waiting for space in the queue
+     */
+    public void append(GameResult result) throws InterruptedException {
+        while (!queue.offer(result, syncNanos, TimeUnit.NANOSECONDS)) {
+            checkFailure();
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() {
+        IOException e = failure;
+        if (e != null) throw new UncheckedIOException("Tournament journal failed", e);
+    }
+
+    /**
+     * Write and sync all queued results, write a final checkpoint and close the files.
+     *
+     * @throws IOException if writing failed
+     */
+    @Override
+    public void close() throws IOException {
+        closing = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            channel.close();
+        }
+        if (failure != null) throw failure;
+    }
+
+    private void writeLoop() {
+        List<GameResult> batch = new ArrayList<>(syncResults);
+        ByteBuffer buffer = ByteBuffer.allocate(syncResults * recordSize);
+        long batchStart = 0;
+        long lastCheckpoint = System.nanoTime();
+        boolean dirty = false;
+        try {
+            while (true) {
+                GameResult result;
+                if (batch.isEmpty()) {
+                    result = queue.poll(DEFAULT_SYNC_MILLIS, TimeUnit.MILLISECONDS);
+                    batchStart = System.nanoTime();
+                } else {
+                    result = queue.poll(Math.max(0, batchStart + syncNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+                if (result != null) {
+                    batch.add(result);
+                    queue.drainTo(batch, syncResults - batch.size());
+                }
+                boolean done = closing && result == null && queue.isEmpty();
+                long now = System.nanoTime();
+                if (!batch.isEmpty() && (batch.size() >= syncResults || now - batchStart >= syncNanos || done)) {
+                    sync(batch, buffer);
+                    dirty = true;
+                }
+                if (dirty && (done || now - lastCheckpoint >= TimeUnit.MILLISECONDS.toNanos(CHECKPOINT_INTERVAL_MS))) {
+                    writeCheckpoint();
+                    lastCheckpoint = now;
+                    dirty = false;
+                }
+                if (done) return;
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            failure = new IOException("Journal writer interrupted", e);
+        }
+    }
+
+    /** Write a batch with one sync, then count it as durable. */
+    private void sync(List<GameResult> batch, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        for (GameResult result : batch) {
+            int start = buffer.position();
+            codec.write(buffer, result);
+            crc.reset();
+            crc.update(buffer.array(), start, buffer.position() - start);
+            buffer.putInt((int) crc.getValue());
+        }
+        buffer.flip();
+        writeFully(buffer, durableOffset);
+        channel.force(false);
+        for (GameResult result : batch) {
+            apply(result);
+        }
+        batch.clear();
+    }
+
+    private void apply(GameResult result) {
+        long game = result.getSeed() - seed;
+        int worker = (int) Math.floorMod(game, (long) threads);
+        positions[worker] = game + threads;
+        durable.record(result);
+        durableOffset += recordSize;
+        durableCount++;
+    }
+
+    /** Replay the records after the checkpoint and cut off a torn or corrupt tail. */
+    private void replay() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(REPLAY_BATCH * recordSize);
+        long size = channel.size();
+        while (durableOffset + recordSize <= size) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), (size - durableOffset) / recordSize * recordSize));
+            readFully(buffer, durableOffset);
+            buffer.flip();
+            while (buffer.remaining() >= recordSize) {
+                int start = buffer.position();
+                crc.reset();
+                crc.update(buffer.array(), start, recordSize - Integer.BYTES);
+                if (buffer.getInt(start + recordSize - Integer.BYTES) != (int) crc.getValue()) {
+                    channel.truncate(durableOffset);
+                    return;
+                }
+                apply(codec.read(buffer));
+                buffer.position(start + recordSize);
+            }
+        }
+        if (size > durableOffset) channel.truncate(durableOffset);
+    }
+
+    /** Load the checkpoint; returns false if there is none or it does not fit this journal. */
+    private boolean loadCheckpoint(long recordsStart) {
+        if (!Files.exists(checkpointFile)) return false;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(checkpointFile)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != threads) return false;
+            long offset = in.readLong();
+            long count = in.readLong();
+            long[] saved = new long[threads];
+            for (int w = 0; w < threads; w++) {
+                saved[w] = in.readLong();
+            }
+            ResultCollector statistics = ResultCollector.readFrom(in);
+            if (offset != recordsStart + count * recordSize || offset > channel.size()
+                    || statistics.getBucketWidth() != durable.getBucketWidth()
+                    || statistics.getLengthHistogram().length != durable.getLengthHistogram().length) {
+                return false;
+            }
+            durable.merge(statistics);
+            System.arraycopy(saved, 0, positions, 0, threads);
+            durableOffset = offset;
+            durableCount = count;
+            return true;
+        } catch (IOException e) {
+            return false; // unreadable checkpoint: replay the whole journal
+        }
+    }
+
+    /** Replace the checkpoint atomically with the durable state. */
+    private void writeCheckpoint() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(CHECKPOINT_MAGIC);
+        out.writeInt(threads);
+        out.writeLong(durableOffset);
+        out.writeLong(durableCount);
+        for (long position : positions) {
+            out.writeLong(position);
+        }
+        durable.writeTo(out);
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                file.write(buffer);
+            }
+            file.force(true);
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("Unexpected end of journal");
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+}
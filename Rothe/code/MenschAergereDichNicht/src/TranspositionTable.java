@@ -0,0 +1,89 @@
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size, lock-free transposition table for {@link ExpectimaxSearch}.
+ * Each slot holds one immutable entry; writers simply replace the entry of a slot, readers accept
+ * an entry only if its full key matches and it was searched at least as deep as requested.
+ * A lost update only costs a repeated search, never a wrong value.
+ */
+public class TranspositionTable {
+    private static final class Entry {
+        private final long key;
+        private final int depth;
+        private final double[] values;
+
+        private Entry(long key, int depth, double[] values) {
+            this.key = key;
+            this.depth = depth;
+            this.values = values;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> entries;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Create a table with at least the given number of slots (rounded up to a power of two).
+     *
+     * @param minSlots minimum number of slots
+     */
+    public TranspositionTable(int minSlots) {
+        if (minSlots <= 0 || minSlots > (1 << 30)) throw new IllegalArgumentException("Invalid table size: " + minSlots);
+        int slots = Integer.highestOneBit(minSlots);
+        if (slots < minSlots) slots <<= 1;
+        this.entries = new AtomicReferenceArray<>(slots);
+        this.mask = slots - 1;
+    }
+
+    /**
+     * Look up the values of a position.
+     *
+     * @param key position hash
+     * @param depth minimum search depth the stored values must have
+     * @return the stored values (must not be modified), or {@code null}
+     */
+    public double[] get(long key, int depth) {
+        Entry entry = entries.get(index(key));
+        if (entry != null && entry.key == key && entry.depth >= depth) {
+            hits.increment();
+            return entry.values;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Store the values of a position. Deeper results are not replaced by shallower ones of the same position.
+     *
+     * @param key position hash
+     * @param depth search depth of the values
+     * @param values node values per player; must not be modified afterwards
+     */
+    public void put(long key, int depth, double[] values) {
+        int index = index(key);
+        Entry old = entries.get(index);
+        if (old != null && old.key == key && old.depth > depth) return;
+        entries.lazySet(index, new Entry(key, depth, values));
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.lazySet(i, null);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private int index(long key) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+}
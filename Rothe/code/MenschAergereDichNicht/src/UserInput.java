@@ -5,21 +5,29 @@ public final class UserInput {
     private UserInput() { /* utility */ }
 
     /**
-     * Read an integer value from the given scanner that lies in the inclusive range [min, max].
+     * Read an integer value from the given console that lies in the inclusive range [min, max].
      * The method will prompt repeatedly until a valid value is entered.
      *
      * @param prompt the text prompt to show before reading a line
      * @param min minimum acceptable value (inclusive)
      * @param max maximum acceptable value (inclusive)
-     * @param scanner scanner to read lines from (e.g., GameManager.SCANNER)
+     * @param console console to read lines from (e.g., {@link ConsoleReader#shared()})
      * @return the validated integer input
+     * @throws java.util.NoSuchElementException if the input ends before a valid value was entered
      */
-    public static int readIntInRange(String prompt, int min, int max, java.util.Scanner scanner) {
-        if (scanner == null) throw new IllegalArgumentException("scanner must not be null");
+    public static int readIntInRange(String prompt, int min, int max, ConsoleReader console) {
+        if (console == null) throw new IllegalArgumentException("console must not be null");
         int value = Integer.MIN_VALUE;
         while (value < min || value > max) {
             System.out.print(prompt);
-            String line = scanner.nextLine();
+            String line;
+            try {
+                line = console.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                line = null;
+            }
+            if (line == null) throw new java.util.NoSuchElementException("No more console input");
             try {
                 value = Integer.parseInt(line.trim());
             } catch (NumberFormatException e) {
@@ -5,57 +5,74 @@
 public class VisualASCII implements I_Visual {
     private static final String SEPARATOR = "=====================================";
     private static final String LINE = "-------------------------------------";
+    private BoardTopology layoutTopology; // cached layout for the last displayed board
+    private StringBuilder[] occupancyTable; // occupants per ring field index, reused between frames
 
     @Override
     public void displayGameState(Field[] fields, Player[] players) {
-        System.out.println("\n" + SEPARATOR);
-        System.out.println("          GAME STATE");
-        System.out.println(SEPARATOR);
-        
+        // One pass over all figures fills the field-indexed occupancy table
+        StringBuilder[] occupancy = getOccupancyTable(fields.length);
+        for (Player player : players) {
+            String color = this.getPlayerColor(player.getId());
+            for (GameFigure figure : player.getFigures()) {
+                Field field = figure.getField();
+                if (field.isHouse() || field.isGoal()) continue;
+                // append, so several figures on one field are all listed
+                occupancy[field.getIndex()].append(color).append(figure.getId()).append("\u001B[0m ");
+            }
+        }
+
+        StringBuilder out = new StringBuilder(64 * (fields.length + players.length * 5));
+        out.append('\n').append(SEPARATOR).append('\n');
+        out.append("          GAME STATE\n");
+        out.append(SEPARATOR).append('\n');
+
         // Display board fields
-        System.out.println("\nBoard Fields:");
+        out.append("\nBoard Fields:\n");
         for (int i = 0; i < fields.length; i++) {
-            Field field = fields[i];
-            String fieldType = getFieldTypeSymbol(field);
-            String occupants = getOccupantsString(field, players);
-            System.out.printf("[%2d] %s %s%n", i, fieldType, occupants);
+            out.append(i < 10 ? "[ " : "[").append(i).append("] ").append(getFieldTypeSymbol(fields[i])).append(' ');
+            out.append(occupancy[i].length() == 0 ? "Empty" : occupancy[i]).append('\n');
         }
-        
+
         // Display players and their figures
-        System.out.println("\n" + LINE);
-        System.out.println("Players:");
-        for (int p = 0; p < players.length; p++) {
-            Player player = players[p];
-            System.out.println("\n"+ this.getPlayerColor(player.getId()) + player.getName() +"\u001B[0m");
-            
-            GameFigure[] figures = player.getFigures();
-            for (int f = 0; f < figures.length; f++) {
-                Field figureField = figures[f].getField();
-                String location = getFieldLocation(figureField, fields);
-                System.out.printf("  Figure %d: %s%n", (f + 1), location);
+        out.append('\n').append(LINE).append('\n');
+        out.append("Players:\n");
+        for (Player player : players) {
+            out.append('\n').append(this.getPlayerColor(player.getId())).append(player.getName()).append("\u001B[0m\n");
+            for (GameFigure figure : player.getFigures()) {
+                out.append("  Figure ").append(figure.getId() + 1).append(": ").append(getFieldLocation(figure.getField())).append('\n');
             }
         }
-        System.out.println(SEPARATOR + "\n");
+        out.append(SEPARATOR).append("\n\n");
+        System.out.print(out);
+    }
+
+    /**
+     * Get the occupancy table for a board with the given number of fields, emptied for a new frame.
+     * The builders are reused between frames.
+     */
+    private StringBuilder[] getOccupancyTable(int numFields) {
+        if (this.occupancyTable == null || this.occupancyTable.length != numFields) {
+            this.occupancyTable = new StringBuilder[numFields];
+            for (int i = 0; i < numFields; i++) {
+                this.occupancyTable[i] = new StringBuilder();
+            }
+        } else {
+            for (StringBuilder entry : this.occupancyTable) {
+                entry.setLength(0);
+            }
+        }
+        return this.occupancyTable;
     }
     
     public void displayPlayboard(Field[] fields, Player[] players){
         clearConsole();
-        String[][] boardLegende = {
-            {"H10", "H11", "-",   "-",   "F18", "F19", "F20", "-",   "-",   "H22", "H20"},
-            {"H12", "H13", "-",   "-",   "F17", "G20", "F21", "-",   "-",   "H23", "H21"},
-            {"-",   "-",   "-",   "-",   "F16", "G21", "F22", "-",   "-",   "-",   "-"  },
-            {"-",   "-",   "-",   "-",   "F15", "G22", "F23", "-",   "-",   "-",   "-"  },
-            {"F10", "F11", "F12", "F13", "F14", "G23", "F24", "F25", "F26", "F27", "F28"},
-            {"F9",  "G10", "G11", "G12", "G13", "-",   "G33", "G32", "G31", "G30", "F29"},
-            {"F8",  "F7",  "F6",  "F5",  "F4",  "G03", "F34", "F33", "F32", "F31", "F30"},
-            {"-",   "-",   "-",   "-",   "F3",  "G02", "F35", "-",   "-",   "-",   "-"  },
-            {"-",   "-",   "-",   "-",   "F2",  "G01", "F36", "-",   "-",   "-",   "-"  },
-            {"H01", "H03", "H05",   "-",   "F1",  "G00", "F37", "-",   "-",   "H33", "H32"},
-            {"H00", "H02", "H04",   "-",   "F0",  "F39", "F38", "-",   "-",   "H31", "H30"},
-        };
-        Field[][] mappedBoard = new Field[11][11]; // 2D-Array für das Board
+        String[][] boardLegende = getLayout(fields, players).getLayout();
+        int fieldsPerPlayer = fields.length / players.length;
+        Field[][] mappedBoard = new Field[boardLegende.length][]; // 2D-Array für das Board
 
         for (int row = 0; row < boardLegende.length; row++) {
+            mappedBoard[row] = new Field[boardLegende[row].length];
             for (int col = 0; col < boardLegende[row].length; col++) {
 
                 String cell = boardLegende[row][col];
@@ -66,20 +83,19 @@ public class VisualASCII implements I_Visual {
                 }
 
                 char typeChar = cell.charAt(0);
-                int index = Integer.parseInt(cell.substring(1));
 
                 switch (typeChar) {
 
                     case 'F': // normale Spielfelder
-                        mappedBoard[row][col] = fields[index];
+                        mappedBoard[row][col] = fields[Integer.parseInt(cell.substring(1))];
                         break;
 
                     case 'H': {
-                        int playerId = Character.getNumericValue(cell.charAt(1));
+                        int playerId = getCellPlayer(cell);
                         if (playerId >= players.length){
                             break;
                         }
-                        int homeIndex = Character.getNumericValue(cell.charAt(2));
+                        int homeIndex = getCellFigure(cell);
                         if( homeIndex >= players[playerId].getFigures().length){
                             break;
                         }
@@ -88,11 +104,11 @@ public class VisualASCII implements I_Visual {
                     }
 
                     case 'G': {
-                        int playerId = Character.getNumericValue(cell.charAt(1));
+                        int playerId = getCellPlayer(cell);
                         if (playerId >= players.length){
                             break;
                         }
-                        int goalIndex = Character.getNumericValue(cell.charAt(2));
+                        int goalIndex = getCellFigure(cell);
                         if( goalIndex >= players[playerId].getFigures().length){
                             break;
                         }
@@ -128,7 +144,7 @@ public class VisualASCII implements I_Visual {
                                 System.out.print(this.getPlayerColor(field.getOccupant().getOwner().getId()));
                                 System.out.print(String.valueOf(field.getOccupant().getId()+1));
                             }else{
-                                System.out.print(this.getPlayerColor(Character.getNumericValue(boardLegende[row][col].charAt(1))));
+                                System.out.print(this.getPlayerColor(getCellPlayer(boardLegende[row][col])));
                                 System.out.print(".");  
                             }                  
                             break;
@@ -137,7 +153,7 @@ public class VisualASCII implements I_Visual {
                                 System.out.print(this.getPlayerColor(field.getOccupant().getOwner().getId()));
                                 System.out.print(String.valueOf(field.getOccupant().getId()+1));
                             }else{
-                                System.out.print(this.getPlayerColor(Character.getNumericValue(boardLegende[row][col].charAt(1))));
+                                System.out.print(this.getPlayerColor(getCellPlayer(boardLegende[row][col])));
                                 System.out.print(".");  
                             }                  
                             break;
@@ -146,7 +162,7 @@ public class VisualASCII implements I_Visual {
                                 System.out.print(this.getPlayerColor(field.getOccupant().getOwner().getId()));
                                 System.out.print(String.valueOf(field.getOccupant().getId()+1));
                             }else{
-                                System.out.print(this.getPlayerColor(Character.getNumericValue(boardLegende[row][col].charAt(1))));
+                                System.out.print(this.getPlayerColor(field.getIndex() / fieldsPerPlayer));
                                 System.out.print(".");  
                             }                  
                             break;
@@ -181,14 +197,7 @@ public class VisualASCII implements I_Visual {
 
     @Override
     public void displayMove(Player player, GameFigure figure, int steps) {
-        int figureIndex = -1;
-        GameFigure[] figures = player.getFigures();
-        for (int i = 0; i < figures.length; i++) {
-            if (figures[i] == figure) {
-                figureIndex = i + 1;
-                break;
-            }
-        }
+        int figureIndex = figure.getId() + 1;
         
         if (steps == 0) {
             System.out.print(player.getName() + " moves Figure " + figureIndex + " OUT OF HOUSE");
@@ -226,42 +235,6 @@ public class VisualASCII implements I_Visual {
         }
     }
 
-    /**
-     * Get string representation of occupants on a field.
-     */
-    private String getOccupantsString(Field field, Player[] players) {
-        String occString = "";
-        // Check all players' figures to see if any are on this field
-        for (Player player : players) {
-            GameFigure[] figures = player.getFigures();
-            int i = 0;
-            for (GameFigure figure : figures) {
-                if (figure.getField() == field) {
-                    int playerIndex = getPlayerIndex(player, players);
-                    occString = getPlayerColor(playerIndex) + String.valueOf(i) +"\u001B[0m"+" ";
-                }
-                i++;
-            }
-        }
-        
-        if (occString.length() == 0) {
-            return "Empty";
-        }
-        return occString;
-    }
-
-    /**
-     * Get player index in the players array.
-     */
-    private int getPlayerIndex(Player player, Player[] players) {
-        for (int i = 0; i < players.length; i++) {
-            if (players[i] == player) {
-                return i;
-            }
-        }
-        return -1;
-    }
-
     /**
      * Get symbol for a player based on their index.
      */
@@ -277,12 +250,45 @@ public class VisualASCII implements I_Visual {
 
     private String getPlayerColor(int playerIndex){
         String[] colors = {"\u001B[31m", "\u001B[32m","\u001B[33m","\u001B[34m","\u001B[35m","\u001B[36m",};
-        if (playerIndex >= 0 && playerIndex < colors.length) {
-            return String.valueOf(colors[playerIndex]);
+        if (playerIndex >= 0) {
+            // large boards reuse the colors, the figure number still identifies the figure
+            return String.valueOf(colors[playerIndex % colors.length]);
         }
         return "?";
     }
 
+    /**
+     * Get the topology describing the layout for the given board, regenerating it only when the
+     * board configuration changes.
+     */
+    private BoardTopology getLayout(Field[] fields, Player[] players) {
+        int figures = players[0].getFigures().length;
+        if (this.layoutTopology == null || this.layoutTopology.getRingSize() != fields.length
+                || this.layoutTopology.getPlayerCount() != players.length
+                || this.layoutTopology.getFiguresPerPlayer() != figures) {
+            this.layoutTopology = BoardGenerator.shared(players.length, fields.length / players.length, figures);
+        }
+        return this.layoutTopology;
+    }
+
+    /**
+     * Get the player id of a house or goal layout cell ("H12" or "H1.2").
+     */
+    private static int getCellPlayer(String cell) {
+        int dot = cell.indexOf('.');
+        if (dot < 0) return Character.getNumericValue(cell.charAt(1));
+        return Integer.parseInt(cell.substring(1, dot));
+    }
+
+    /**
+     * Get the figure index of a house or goal layout cell ("H12" or "H1.2").
+     */
+    private static int getCellFigure(String cell) {
+        int dot = cell.indexOf('.');
+        if (dot < 0) return Character.getNumericValue(cell.charAt(2));
+        return Integer.parseInt(cell.substring(dot + 1));
+    }
+
     private static void clearConsole() {
         System.out.print("\u001B[2J\u001B[H");
         System.out.flush();
@@ -291,21 +297,13 @@ public class VisualASCII implements I_Visual {
     /**
      * Get location description of a field.
      */
-    private String getFieldLocation(Field field, Field[] fields) {
-        
-        
-        
+    private String getFieldLocation(Field field) {
         if (field.isHouse()) {
             return "In House";
         } else if (field.isGoal()) {
             return "In Goal";
         } else {
-            for (int i = 0; i < fields.length; i++) {
-                if (fields[i] == field) {
-                    return "On Field " + i;
-                }
-            }
-            return "Unknown";
+            return "On Field " + field.getIndex();
         }
     }
 
@@ -0,0 +1,26 @@
+/**
+ * Visualization that discards all output.
+ * Used for headless games, e.g. simulations and benchmarks.
+ */
+public class VisualNone implements I_Visual {
+    @Override
+    public void displayGameState(Field[] fields, Player[] players) { }
+
+    @Override
+    public void displayCurrentPlayer(Player player) { }
+
+    @Override
+    public void displayRoll(Player player, int rollValue) { }
+
+    @Override
+    public void displayMove(Player player, GameFigure figure, int steps) { }
+
+    @Override
+    public void displayWinner(Player winner) { }
+
+    @Override
+    public void displayMessage(String message) { }
+
+    @Override
+    public void displayPlayboard(Field[] fields, Player[] players) { }
+}